@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.dynamic.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the exception-based {@link Parser#parse(List, String[], int)} contract against {@link ArgumentParser#tryParse(String[], int, ParseResult)}.
+ *
+ * <p>
+ * The legacy benchmarks use parsers which only implement {@link Parser}, as the builtin parsers did before {@link ArgumentParser} was added. The parse benchmarks call the compatibility
+ * implementation of the builtin parsers, which throws on failure, and the tryParse benchmarks reuse one result as {@link net.pravian.aero.command.dynamic.ParsingMethodDelegate} does.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ArgumentParserBenchmark {
+
+    @Param({"1234", "abc"})
+    private String arg;
+    //
+    private final Parser<Integer> legacyInteger = new LegacyIntegerParser();
+    private final Parser<Double> legacyDouble = new LegacyDoubleParser();
+    private final IntegerParser integer = new IntegerParser();
+    private final DoubleParser decimal = new DoubleParser();
+    private final List<Object> values = new ArrayList<Object>(1);
+    private final ParseResult<Object> result = new ParseResult<Object>();
+    private String[] args;
+
+    @Setup
+    public void setUp() {
+        args = new String[]{arg};
+    }
+
+    @Benchmark
+    public Object legacyInt() {
+        return parse(legacyInteger);
+    }
+
+    @Benchmark
+    public Object parseInt() {
+        return parse(integer);
+    }
+
+    @Benchmark
+    public Object tryParseInt() {
+        return tryParse(integer);
+    }
+
+    @Benchmark
+    public Object legacyDouble() {
+        return parse(legacyDouble);
+    }
+
+    @Benchmark
+    public Object parseDouble() {
+        return parse(decimal);
+    }
+
+    @Benchmark
+    public Object tryParseDouble() {
+        return tryParse(decimal);
+    }
+
+    private Object parse(Parser<?> parser) {
+        values.clear();
+        try {
+            parser.parse(values, args, 0);
+            return values.get(0);
+        } catch (Exception ex) {
+            return ex.getMessage();
+        }
+    }
+
+    private Object tryParse(ArgumentParser<?> parser) {
+        result.reset();
+        return parser.tryParse(args, 0, result) ? result.getValue() : result.getError();
+    }
+
+    private static class LegacyIntegerParser implements Parser<Integer> {
+
+        @Override
+        public int parse(List<? super Integer> result, String[] args, int offset) throws Exception {
+            try {
+                result.add(Integer.parseInt(args[offset]));
+            } catch (NumberFormatException nex) {
+                throw new ParseException("Could not parse integer: " + args[offset], nex);
+            }
+            return offset + 1;
+        }
+    }
+
+    private static class LegacyDoubleParser implements Parser<Double> {
+
+        @Override
+        public int parse(List<? super Double> result, String[] args, int offset) throws Exception {
+            try {
+                result.add(Double.parseDouble(args[offset]));
+            } catch (NumberFormatException nex) {
+                throw new ParseException("Could not parse double: " + args[offset], nex);
+            }
+            return offset + 1;
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.handler;
+
+import java.util.concurrent.TimeUnit;
+import net.pravian.aero.command.CommandOptions;
+import net.pravian.aero.command.dynamic.DynamicCommand;
+import net.pravian.aero.command.smart.SmartCommand;
+import net.pravian.aero.stub.StubPlugin;
+import net.pravian.aero.stub.StubSender;
+import net.pravian.aero.stub.StubServer;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.PluginCommand;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures commands end to end, from the registered PluginCommand through the SimpleCommandExecutor into a SmartCommand or DynamicCommand.
+ *
+ * <p>
+ * The commands run on the stub server as a player, with timing enabled as it is by default.</p>
+ *
+ * @see CommandReplay
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CommandPipelineBenchmark {
+
+    private static final String[] VALID = {"12"};
+    private static final String[] INVALID = {"abc"};
+    //
+    private StubSender sender;
+    private PluginCommand smart;
+    private PluginCommand dynamic;
+
+    @Setup
+    public void setUp() {
+        StubServer.get().setPrimaryThread(Thread.currentThread());
+
+        final SimpleCommandHandler<StubPlugin> handler = new SimpleCommandHandler<StubPlugin>(StubPlugin.get());
+        handler.add(new CommandSmart(), "smart");
+        handler.add(new CommandDynamic(), "dynamic");
+        if (!handler.registerAll(StubPlugin.NAME, true)) {
+            throw new IllegalStateException("Could not register benchmark commands");
+        }
+
+        sender = StubSender.player("Prozza");
+        sender.setRecording(false);
+        smart = handler.getRegisteredCommandsMap().get("smart");
+        dynamic = handler.getRegisteredCommandsMap().get("dynamic");
+    }
+
+    @Benchmark
+    public boolean smartValid() {
+        return smart.execute(sender.getSender(), "smart", VALID);
+    }
+
+    @Benchmark
+    public boolean smartInvalid() {
+        return smart.execute(sender.getSender(), "smart", INVALID);
+    }
+
+    @Benchmark
+    public boolean dynamicValid() {
+        return dynamic.execute(sender.getSender(), "dynamic", VALID);
+    }
+
+    @Benchmark
+    public boolean dynamicInvalid() {
+        return dynamic.execute(sender.getSender(), "dynamic", INVALID);
+    }
+
+    public static class CommandSmart extends SmartCommand<StubPlugin> {
+
+        private int total;
+
+        @Override
+        public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+            length(1);
+            total += toInt(args[0]);
+            return true;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    public static class CommandDynamic extends DynamicCommand<StubPlugin> {
+
+        private int total;
+
+        @CommandOptions
+        public boolean add(int amount) {
+            total += amount;
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.handler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import net.pravian.aero.plugin.AeroPlugin;
+import net.pravian.aero.stub.StubCompiler;
+import net.pravian.aero.stub.StubPlugin;
+import net.pravian.aero.stub.StubServer;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.java.JavaPluginLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading the commands of a plugin on enable, with and without lazy loading.
+ *
+ * <p>
+ * A plugin with {@value #COMMANDS} command classes is generated and compiled with the command index in the setup. Every third command is a DynamicCommand, the others are SmartCommands. Each
+ * iteration loads the plugin in a new class loader, so every {@link SimpleCommandHandler#loadFrom(Package)} call loads the command classes from scratch, as on a server start.</p>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 30)
+@Fork(1)
+@State(Scope.Thread)
+public class LoadFromBenchmark {
+
+    private static final int COMMANDS = 150;
+    private static final String PACKAGE = "aero.bench";
+    private static final String PLUGIN = PACKAGE + ".BenchPlugin";
+    //
+    @Param({"false", "true"})
+    private boolean lazy;
+    //
+    private File directory;
+    private File classes;
+    private URLClassLoader loader;
+    private AeroPlugin<?> plugin;
+    private SimpleCommandHandler<?> handler;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        StubPlugin.get(); // Initializes Aero
+        StubServer.get().setPrimaryThread(Thread.currentThread());
+
+        directory = Files.createTempDirectory("aero-load-from").toFile();
+        classes = new File(directory, "classes");
+
+        final Map<String, String> sources = new LinkedHashMap<String, String>();
+        sources.put(PLUGIN, "package " + PACKAGE + ";\n"
+                + "import java.io.File;\n"
+                + "import org.bukkit.plugin.PluginDescriptionFile;\n"
+                + "import org.bukkit.plugin.java.JavaPluginLoader;\n"
+                + "public class BenchPlugin extends net.pravian.aero.plugin.AeroPlugin<BenchPlugin> {\n"
+                + "    public BenchPlugin(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder) {\n"
+                + "        super(loader, description, dataFolder, new File(dataFolder, \"BenchPlugin.jar\"));\n"
+                + "    }\n"
+                + "    public void start() { setEnabled(true); }\n"
+                + "    public void stop() { setEnabled(false); }\n"
+                + "    @Override protected void enable() {}\n"
+                + "    @Override protected void disable() {}\n"
+                + "}\n");
+
+        for (int i = 0; i < COMMANDS; i++) {
+            final String name = "Commandbench" + i;
+            final StringBuilder source = new StringBuilder("package " + PACKAGE + ";\n")
+                    .append("import net.pravian.aero.command.CommandOptions;\n")
+                    .append("import org.bukkit.command.Command;\n")
+                    .append("import org.bukkit.command.CommandSender;\n")
+                    .append("@CommandOptions(description = \"Benchmark command ").append(i).append("\", usage = \"/<command> <amount>\", aliases = \"bench").append(i).append("\")\n");
+
+            if (i % 3 == 0) {
+                source.append("public class ").append(name).append(" extends net.pravian.aero.command.dynamic.DynamicCommand<BenchPlugin> {\n")
+                        .append("    private int total;\n")
+                        .append("    @CommandOptions public boolean add(int amount) { total += amount; return true; }\n")
+                        .append("    @CommandOptions public boolean set(int slot, int amount) { total = amount; return true; }\n")
+                        .append("}\n");
+            } else {
+                source.append("public class ").append(name).append(" extends net.pravian.aero.command.smart.SmartCommand<BenchPlugin> {\n")
+                        .append("    private final java.util.Map<String, Integer> totals = new java.util.HashMap<String, Integer>();\n")
+                        .append("    @Override public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {\n")
+                        .append("        length(1);\n")
+                        .append("        totals.merge(sender.getName(), toInt(args[0]), Integer::sum);\n")
+                        .append("        return true;\n")
+                        .append("    }\n")
+                        .append("}\n");
+            }
+            sources.put(PACKAGE + "." + name, source.toString());
+        }
+
+        StubCompiler.compile(classes, sources);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpPlugin() throws Exception {
+        loader = new URLClassLoader(new URL[]{classes.toURI().toURL()}, getClass().getClassLoader());
+
+        final File dataFolder = new File(directory, "data");
+        final PluginDescriptionFile description = new PluginDescriptionFile(new StringReader("name: AeroBench\nversion: '1.0'\nmain: " + PLUGIN + "\nauthor: Pravian\n"));
+        final Class<?> type = Class.forName(PLUGIN, true, loader);
+
+        plugin = (AeroPlugin<?>) type.getConstructor(JavaPluginLoader.class, PluginDescriptionFile.class, File.class)
+                .newInstance(new JavaPluginLoader(StubServer.get().getServer()), description, dataFolder);
+        type.getMethod("start").invoke(plugin);
+
+        handler = newHandler(plugin);
+        handler.setLazyLoading(lazy);
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDownPlugin() throws Exception {
+        plugin.getClass().getMethod("stop").invoke(plugin);
+        loader.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.walk(directory.toPath())
+                .sorted((a, b) -> b.compareTo(a))
+                .forEach(path -> path.toFile().delete());
+    }
+
+    @Benchmark
+    public int loadFrom() {
+        final int loaded = handler.loadFrom(plugin.getClass().getPackage());
+        if (loaded != COMMANDS) {
+            throw new IllegalStateException("Loaded " + loaded + " of " + COMMANDS + " commands");
+        }
+        return loaded;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static SimpleCommandHandler<?> newHandler(AeroPlugin<?> plugin) {
+        return new SimpleCommandHandler(plugin);
+    }
+
+}
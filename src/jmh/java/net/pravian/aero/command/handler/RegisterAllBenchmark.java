@@ -0,0 +1,105 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.handler;
+
+import java.util.concurrent.TimeUnit;
+import net.pravian.aero.command.smart.SmartCommand;
+import net.pravian.aero.stub.StubPlugin;
+import net.pravian.aero.stub.StubServer;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.SimpleCommandMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures force registering the commands of a plugin, as a reload does, on a command map which already knows many commands.
+ *
+ * <p>
+ * The command map of the stub server is filled with {@value #FILLER_COMMANDS} commands of other plugins, each known by its name and its prefixed name. Every invocation replaces the commands which
+ * were registered by the previous one.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RegisterAllBenchmark {
+
+    private static final int FILLER_COMMANDS = 1500;
+    //
+    @Param({"10", "100"})
+    private int commands;
+    //
+    private SimpleCommandHandler<StubPlugin> handler;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final StubServer server = StubServer.get();
+        server.setPrimaryThread(Thread.currentThread());
+
+        final SimpleCommandMap map = server.getCommandMap();
+        for (int i = 0; i < FILLER_COMMANDS; i++) {
+            map.register("filler", new FillerCommand("filler" + i));
+        }
+
+        handler = new SimpleCommandHandler<StubPlugin>(StubPlugin.get());
+        for (int i = 0; i < commands; i++) {
+            handler.add(new CommandNoop(), "noop" + i);
+        }
+
+        if (!handler.registerAll(StubPlugin.NAME, true)) {
+            throw new IllegalStateException("Could not register benchmark commands");
+        }
+    }
+
+    @Benchmark
+    public boolean registerAll() {
+        return handler.registerAll(StubPlugin.NAME, true);
+    }
+
+    public static class CommandNoop extends SmartCommand<StubPlugin> {
+
+        @Override
+        public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+            return true;
+        }
+    }
+
+    private static class FillerCommand extends Command {
+
+        private FillerCommand(String name) {
+            super(name);
+        }
+
+        @Override
+        public boolean execute(CommandSender sender, String label, String[] args) {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.smart;
+
+import java.util.concurrent.TimeUnit;
+import net.pravian.aero.command.CommandContext;
+import net.pravian.aero.command.handler.SimpleCommandHandler;
+import net.pravian.aero.stub.StubPlugin;
+import net.pravian.aero.stub.StubSender;
+import net.pravian.aero.stub.StubServer;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the invalid-input path of the SmartCommand argument helpers, before and after they became stackless.
+ *
+ * <p>
+ * Each benchmark runs a registered SmartCommand through {@link SmartCommand#runCommand(CommandContext)} as a player, so the thrown exception is caught and reported by SmartCommand itself. The
+ * helpers are called from {@code depth} frames down, as command code often calls them from deep inside its own methods.</p>
+ *
+ * <p>
+ * The "before" benchmarks run a command with the helpers as they used to be: parse with {@link Integer#parseInt(String)} and throw an exception which records its stack trace. As argument
+ * exceptions no longer record their own stack trace, the legacy helpers record it through a cause, which costs the same stack walk.</p>
+ *
+ * @see SmartCommand
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SmartCommandBenchmark {
+
+    private static final String[] INVALID = {"abc"};
+    private static final String[] MISSING = {};
+    //
+    @Param({"0", "40"})
+    public int depth;
+    //
+    private CommandSender sender;
+    private CommandLegacy legacy;
+    private CommandToInt toInt;
+    private CommandParseInt parseInt;
+    private Command legacyCommand;
+    private Command toIntCommand;
+    private Command parseIntCommand;
+
+    @Setup
+    public void setUp() {
+        StubServer.get().setPrimaryThread(Thread.currentThread());
+        final SimpleCommandHandler<StubPlugin> handler = new SimpleCommandHandler<StubPlugin>(StubPlugin.get());
+
+        legacy = new CommandLegacy(depth);
+        toInt = new CommandToInt(depth);
+        parseInt = new CommandParseInt(depth);
+        handler.add(legacy, "legacy");
+        handler.add(toInt, "toint");
+        handler.add(parseInt, "parseint");
+        if (!handler.registerAll(StubPlugin.NAME, true)) {
+            throw new IllegalStateException("Could not register benchmark commands");
+        }
+
+        final StubSender player = StubSender.player("Prozza");
+        player.setRecording(false);
+        sender = player.getSender();
+        legacyCommand = handler.getRegisteredCommandsMap().get("legacy");
+        toIntCommand = handler.getRegisteredCommandsMap().get("toint");
+        parseIntCommand = handler.getRegisteredCommandsMap().get("parseint");
+    }
+
+    @Benchmark
+    public boolean toIntBefore() {
+        return legacy.runCommand(new CommandContext(sender, legacyCommand, "legacy", INVALID));
+    }
+
+    @Benchmark
+    public boolean toIntAfter() {
+        return toInt.runCommand(new CommandContext(sender, toIntCommand, "toint", INVALID));
+    }
+
+    @Benchmark
+    public boolean parseInt() {
+        return parseInt.runCommand(new CommandContext(sender, parseIntCommand, "parseint", INVALID));
+    }
+
+    @Benchmark
+    public boolean lengthBefore() {
+        return legacy.runCommand(new CommandContext(sender, legacyCommand, "legacy", MISSING));
+    }
+
+    @Benchmark
+    public boolean lengthAfter() {
+        return toInt.runCommand(new CommandContext(sender, toIntCommand, "toint", MISSING));
+    }
+
+    private static abstract class DeepCommand extends SmartCommand<StubPlugin> {
+
+        private final int depth;
+        protected int total;
+
+        private DeepCommand(int depth) {
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+            return call(depth, sender, args);
+        }
+
+        private boolean call(int remaining, CommandSender sender, String[] args) {
+            return remaining == 0 ? run(sender, args) : call(remaining - 1, sender, args);
+        }
+
+        protected abstract boolean run(CommandSender sender, String[] args);
+    }
+
+    public static class CommandToInt extends DeepCommand {
+
+        private CommandToInt(int depth) {
+            super(depth);
+        }
+
+        @Override
+        protected boolean run(CommandSender sender, String[] args) {
+            length(1);
+            total += toInt(args[0]);
+            return true;
+        }
+    }
+
+    public static class CommandParseInt extends DeepCommand {
+
+        private CommandParseInt(int depth) {
+            super(depth);
+        }
+
+        @Override
+        protected boolean run(CommandSender sender, String[] args) {
+            if (!hasLength(1)) {
+                return false;
+            }
+
+            final Integer amount = parseInt(args[0]);
+            if (amount == null) {
+                sender.sendMessage(ChatColor.RED + "Invalid number: " + args[0]);
+                return true;
+            }
+
+            total += amount;
+            return true;
+        }
+    }
+
+    public static class CommandLegacy extends DeepCommand {
+
+        private CommandLegacy(int depth) {
+            super(depth);
+        }
+
+        @Override
+        protected boolean run(CommandSender sender, String[] args) {
+            if (args.length != 1) {
+                throw new LegacyReturnException(false);
+            }
+
+            try {
+                total += Integer.parseInt(args[0]);
+            } catch (NumberFormatException ex) {
+                throw new LegacyArgumentException("Invalid number: " + args[0]);
+            }
+            return true;
+        }
+    }
+
+    private static class LegacyArgumentException extends ArgumentException {
+
+        private LegacyArgumentException(String message) {
+            super(message);
+            initCause(new Throwable());
+        }
+    }
+
+    private static class LegacyReturnException extends ReturnException {
+
+        private LegacyReturnException(boolean returnValue) {
+            super(returnValue);
+            initCause(new Throwable());
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import net.pravian.aero.stub.StubPlugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading a large configuration file at startup, with and without the binary {@link ConfigCache}.
+ *
+ * <p>
+ * Every invocation loads the file into a new YamlConfig, as a plugin does when it is enabled. The cached benchmark reads the {@code .cache} file written by a load in the setup.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ConfigCacheBenchmark {
+
+    @Param({"1000", "10000"})
+    private int sections;
+    //
+    private File directory;
+    private File parsedFile;
+    private File cachedFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("aero-config-cache").toFile();
+
+        final StringBuilder yaml = new StringBuilder();
+        for (int i = 0; i < sections; i++) {
+            yaml.append("player").append(i).append(":\n")
+                    .append("  name: Player").append(i).append('\n')
+                    .append("  homes: ").append(i % 10).append('\n')
+                    .append("  balance: ").append(i * 1.5D).append('\n')
+                    .append("  banned: ").append(i % 7 == 0).append('\n')
+                    .append("  worlds:\n")
+                    .append("  - world\n")
+                    .append("  - world_nether\n");
+        }
+        final byte[] contents = yaml.toString().getBytes(StandardCharsets.UTF_8);
+
+        parsedFile = new File(directory, "parsed.yml");
+        cachedFile = new File(directory, "cached.yml");
+        Files.write(parsedFile.toPath(), contents);
+        Files.write(cachedFile.toPath(), contents);
+
+        // Write the cache file once
+        load(cachedFile, true);
+        ConfigWriter.await();
+        if (!ConfigCache.getCacheFile(cachedFile).exists()) {
+            throw new IllegalStateException("Cache file was not written");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        for (File file : directory.listFiles()) {
+            file.delete();
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public YamlConfig parse() {
+        return load(parsedFile, false);
+    }
+
+    @Benchmark
+    public YamlConfig cached() {
+        return load(cachedFile, true);
+    }
+
+    private static YamlConfig load(File file, boolean binaryCache) {
+        final YamlConfig config = new YamlConfig(StubPlugin.get(), file, false);
+        config.setBinaryCache(binaryCache);
+        config.load();
+        return config;
+    }
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import net.pravian.aero.stub.StubPlugin;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares reading values through a {@link ConfigKey} against the getters of {@link YamlConfig}.
+ *
+ * <p>
+ * The config is populated with a few hundred sections, and the keys read a nested path as plugins commonly do. The getter benchmarks split the path and walk the sections on every read.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ConfigKeyBenchmark {
+
+    private static final PathContainer MAX_HOMES = () -> "limits.homes.max";
+    private static final PathContainer MOTD = () -> "messages.join.motd";
+    //
+    private File file;
+    private YamlConfig config;
+    private ConfigKey.IntKey maxHomes;
+    private ConfigKey<String> motd;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Files.createTempFile("aero-config-key", ".yml").toFile();
+        config = new YamlConfig(StubPlugin.get(), file, false);
+        for (int i = 0; i < 250; i++) {
+            config.set("players.player" + i + ".homes", i);
+            config.set("players.player" + i + ".name", "player" + i);
+        }
+        config.set(MAX_HOMES.getPath(), 3);
+        config.set(MOTD.getPath(), "Welcome to the server!");
+
+        maxHomes = ConfigKey.ofInt(config, MAX_HOMES);
+        motd = ConfigKey.ofString(config, MOTD);
+    }
+
+    @TearDown
+    public void tearDown() {
+        file.delete();
+    }
+
+    @Benchmark
+    public int getInt() {
+        return config.getInt(MAX_HOMES.getPath());
+    }
+
+    @Benchmark
+    public int keyGetInt() {
+        return maxHomes.getInt();
+    }
+
+    @Benchmark
+    public String getString() {
+        return config.getString(MOTD.getPath());
+    }
+
+    @Benchmark
+    public String keyGetString() {
+        return motd.get();
+    }
+
+}
@@ -1,10 +1,13 @@
 package net.pravian.aero.command;
 
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import net.pravian.aero.base.PluginMessage;
 import net.pravian.aero.command.handler.AeroCommandHandler;
 import net.pravian.aero.command.handler.SimpleCommandHandler;
 import net.pravian.aero.component.PluginComponent;
+import net.pravian.aero.concurrent.WorkerPool;
 import net.pravian.aero.plugin.AeroPlugin;
 import net.pravian.aero.util.Players;
 import net.pravian.aero.util.Plugins;
@@ -20,18 +23,38 @@ import org.bukkit.plugin.Plugin;
 public abstract class AbstractCommandBase<T extends AeroPlugin<T>> extends PluginComponent<T> implements AeroCommandBase<T> {
 
     // Default arguments
+    /**
+     * @deprecated Shared between invocations, use {@link #getContext()}
+     */
+    @Deprecated
     protected CommandSender sender;
+    /**
+     * @deprecated Shared between invocations, use {@link #getContext()}
+     */
+    @Deprecated
     protected Command command;
+    /**
+     * @deprecated Shared between invocations, use {@link #getContext()}
+     */
+    @Deprecated
     protected String label;
+    /**
+     * @deprecated Shared between invocations, use {@link #getContext()}
+     */
+    @Deprecated
     protected String[] args;
     /**
      * Represents the player sending the command.
      *
      * <p>
      * <b>Note</b>: Might be null if the console is sending the command.</p>
+     *
+     * @deprecated Shared between invocations, use {@link #getContext()}
      */
+    @Deprecated
     protected Player playerSender;
     //
+    private final ThreadLocal<CommandContext> context = new ThreadLocal<CommandContext>();
     private AeroCommandHandler<T> handler = null;
 
     @SuppressWarnings("unchecked")
@@ -68,6 +91,44 @@ public abstract class AbstractCommandBase<T extends AeroPlugin<T>> extends Plugi
         return handler;
     }
 
+    /**
+     * Returns the context of the invocation of this command running on the current thread.
+     *
+     * @return The context, or null if this command is not running on the current thread.
+     */
+    protected CommandContext getContext() {
+        return context.get();
+    }
+
+    /**
+     * Makes a context the current context of this command on the current thread.
+     *
+     * <p>
+     * The deprecated shared fields are also set, for commands which still use them.</p>
+     *
+     * @param context The context.
+     * @return The previous context, to be passed to {@link #exitContext(CommandContext)}.
+     */
+    protected CommandContext enterContext(final CommandContext context) {
+        final CommandContext previous = this.context.get();
+        setVariables(context.getSender(), context.getCommand(), context.getLabel(), context.getArgs());
+        this.context.set(context);
+        return previous;
+    }
+
+    /**
+     * Restores the previous context of this command on the current thread.
+     *
+     * @param previous The context returned by {@link #enterContext(CommandContext)}.
+     */
+    protected void exitContext(final CommandContext previous) {
+        if (previous == null) {
+            context.remove();
+        } else {
+            context.set(previous);
+        }
+    }
+
     protected void setVariables(final CommandSender sender, final Command command, final String label, final String[] args) {
         if (!isRegistered()) {
             throw new CommandException("Could not set variables for unregistered command!");
@@ -84,13 +145,50 @@ public abstract class AbstractCommandBase<T extends AeroPlugin<T>> extends Plugi
         }
     }
 
+    /**
+     * Runs a task on the main thread, for use from asynchronous commands.
+     *
+     * @param task The task to run.
+     * @see CommandOptions#async()
+     */
+    protected void sync(final Runnable task) {
+        WorkerPool.runSync(plugin, task);
+    }
+
+    /**
+     * Computes a value on the main thread, for use from asynchronous commands.
+     *
+     * @param <R> The type of the value.
+     * @param task The task computing the value.
+     * @return The future which completes with the value.
+     * @see CommandOptions#async()
+     */
+    protected <R> CompletableFuture<R> callSync(final Callable<R> task) {
+        return WorkerPool.callSync(plugin, task);
+    }
+
     @Override
     public void onInit() { // Called when the command is initialised
     }
 
+    /**
+     * Returns the completions for the last argument.
+     *
+     * <p>
+     * By default, online players visible to the sender are completed.</p>
+     *
+     * @param sender The sender completing the command.
+     * @param command The command being completed.
+     * @param alias The exact label used.
+     * @param args The arguments typed so far.
+     * @return The completions, or null to use the default completions of Bukkit.
+     */
     @Override
     public List<String> tabComplete(CommandSender sender, Command command, String alias, String[] args) {
-        return null;
+        if (handler == null || handler.getCompletions() == null || args.length == 0) {
+            return null;
+        }
+        return handler.getCompletions().complete(sender, Player.class, args[args.length - 1]);
     }
 
 }
@@ -21,7 +21,34 @@ public interface AeroCommandBase<T extends AeroPlugin<T>> {
 
     public Class<? extends AeroCommandBase<T>> getCommandClass();
 
-    public boolean runCommand(final CommandSender sender, final Command command, final String label, final String[] args);
+    /**
+     * Runs the command.
+     *
+     * <p>
+     * Implementations must override either this method or the legacy {@link #runCommand(CommandSender, Command, String, String[])}, as each calls the other by default. Commands written before
+     * {@link CommandContext} keep working through the legacy method.</p>
+     *
+     * @param context The context of this invocation.
+     * @return true if the command was used correctly.
+     */
+    public default boolean runCommand(CommandContext context) {
+        return runCommand(context.getSender(), context.getCommand(), context.getLabel(), context.getArgs());
+    }
+
+    /**
+     * Runs the command.
+     *
+     * @param sender The sender of the command.
+     * @param command The command being executed.
+     * @param label The exact label used.
+     * @param args The arguments to the command.
+     * @return true if the command was used correctly.
+     * @deprecated Use {@link #runCommand(CommandContext)}
+     */
+    @Deprecated
+    public default boolean runCommand(final CommandSender sender, final Command command, final String label, final String[] args) {
+        return runCommand(new CommandContext(sender, command, label, args));
+    }
 
     public List<String> tabComplete(CommandSender sender, Command command, String label, String[] args);
 
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+/**
+ * Represents a single invocation of a command.
+ *
+ * <p>
+ * A context is created for every time a command is ran, so unlike the fields of the command instance it may safely be used while the same command is running elsewhere, or be handed to another
+ * thread.</p>
+ *
+ * @see AbstractCommandBase#getContext()
+ */
+public class CommandContext {
+
+    private final CommandSender sender;
+    private final Command command;
+    private final String label;
+    private final String[] args;
+    private volatile boolean failed = false;
+
+    public CommandContext(CommandSender sender, Command command, String label, String[] args) {
+        this.sender = sender;
+        this.command = command;
+        this.label = label;
+        this.args = args;
+    }
+
+    /**
+     * Returns the sender of the command.
+     *
+     * @return The sender.
+     */
+    public CommandSender getSender() {
+        return sender;
+    }
+
+    /**
+     * Returns the player sending the command.
+     *
+     * @return The player, or null if the command is not sent by a player.
+     */
+    public Player getPlayerSender() {
+        return sender instanceof Player ? (Player) sender : null;
+    }
+
+    /**
+     * Validates if the sender of the command is not a player.
+     *
+     * @return true if the CommandSender is not a Player.
+     */
+    public boolean isConsole() {
+        return !(sender instanceof Player);
+    }
+
+    /**
+     * Returns the command which is being executed.
+     *
+     * @return The command.
+     */
+    public Command getCommand() {
+        return command;
+    }
+
+    /**
+     * Returns the exact label used to run the command.
+     *
+     * @return The label.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns the arguments to the command.
+     *
+     * <p>
+     * <b>Note</b>: The array is not copied and should not be modified.</p>
+     *
+     * @return The arguments.
+     */
+    public String[] getArgs() {
+        return args;
+    }
+
+    /**
+     * Marks this invocation as failed with an exception, for the statistics of the command.
+     */
+    public void fail() {
+        failed = true;
+    }
+
+    /**
+     * Validates if this invocation failed with an exception.
+     *
+     * @return True if the invocation failed.
+     */
+    public boolean isFailed() {
+        return failed;
+    }
+
+    /**
+     * Sends the sender of the command a message (in Gray).
+     *
+     * @param message The message to send.
+     */
+    public void msg(String message) {
+        msg(message, ChatColor.GRAY);
+    }
+
+    /**
+     * Sends the sender of the command a message.
+     *
+     * @param message The message to send.
+     * @param color The color in which the message must be sent.
+     */
+    public void msg(String message, ChatColor color) {
+        if (sender == null) {
+            return;
+        }
+        sender.sendMessage(color + message);
+    }
+
+}
@@ -31,4 +31,8 @@ public class CommandException extends RuntimeException {
     public CommandException(String message, Throwable ex) {
         super(message, ex);
     }
+
+    protected CommandException(String message, Throwable ex, boolean enableSuppression, boolean writableStackTrace) {
+        super(message, ex, enableSuppression, writableStackTrace);
+    }
 }
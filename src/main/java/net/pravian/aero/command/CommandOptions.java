@@ -49,4 +49,57 @@ public @interface CommandOptions {
      * @see BukkitCommandHandler#setPermissionHandler(BukkitPermissionHandler)
      */
     public String subPermission() default "";
+
+    /**
+     * Whether the command body runs on the Aero worker pool instead of the main thread.
+     *
+     * <p>
+     * Permissions and the source type are still checked on the main thread. Bukkit API calls from the command body must be handed back to the main thread.</p>
+     *
+     * @return True if the command runs asynchronously.
+     * @see net.pravian.aero.concurrent.WorkerPool
+     */
+    public boolean async() default false;
+
+    /**
+     * The maximum amount of invocations of an asynchronous command which may run at once.
+     *
+     * @return The concurrency limit.
+     */
+    public int concurrency() default 1;
+
+    /**
+     * The maximum amount of invocations of an asynchronous command which may wait for a running invocation to finish. Further invocations are rejected.
+     *
+     * @return The queue depth.
+     */
+    public int queueDepth() default 8;
+
+    /**
+     * The time in milliseconds in which a player may use the command {@link #rate()} times.
+     *
+     * @return The cooldown, or 0 for no cooldown.
+     */
+    public long cooldown() default 0;
+
+    /**
+     * The amount of times a player may use the command within the cooldown.
+     *
+     * @return The rate.
+     */
+    public int rate() default 1;
+
+    /**
+     * The permission which allows a player to bypass the cooldown.
+     *
+     * @return The bypass permission, or an empty string for none.
+     */
+    public String cooldownBypass() default "";
+
+    /**
+     * The message sent to a player on cooldown. {@code <time>} is replaced by the seconds remaining.
+     *
+     * @return The cooldown message.
+     */
+    public String cooldownMessage() default "You must wait <time> seconds before using this command again.";
 }
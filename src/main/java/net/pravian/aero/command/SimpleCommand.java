@@ -32,16 +32,32 @@ public abstract class SimpleCommand<T extends AeroPlugin<T>> extends TooledComma
     }
 
     @Override
-    public final boolean runCommand(final CommandSender sender, final Command command, final String label, final String[] args) {
-        setVariables(sender, command, label, args);
+    public final boolean runCommand(final CommandContext context) {
+        final CommandContext previous = enterContext(context);
 
         try {
-            return onCommand(sender, command, label, args);
+            return onCommand(context);
         } catch (Exception ex) {
-            plugin.handleException("Uncaught exception executing command: " + command.getName(), ex);
-            sender.sendMessage(ChatColor.RED + "Command error: " + (ex.getMessage() == null ? "Unknown cause" : ex.getMessage()));
+            context.fail();
+            plugin.handleException("Uncaught exception executing command: " + context.getCommand().getName(), ex);
+            context.getSender().sendMessage(ChatColor.RED + "Command error: " + (ex.getMessage() == null ? "Unknown cause" : ex.getMessage()));
             return true;
+        } finally {
+            exitContext(previous);
         }
     }
 
+    /**
+     * Executed when the command is being ran.
+     *
+     * <p>
+     * Override this method instead of {@link #onCommand(CommandSender, Command, String, String[])} to receive the context of the invocation directly.</p>
+     *
+     * @param context The context of the invocation.
+     * @return true/false depending if the command executed successfully.
+     */
+    protected boolean onCommand(final CommandContext context) {
+        return onCommand(context.getSender(), context.getCommand(), context.getLabel(), context.getArgs());
+    }
+
 }
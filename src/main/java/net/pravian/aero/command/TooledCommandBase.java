@@ -23,6 +23,7 @@ import net.pravian.aero.util.Worlds;
 import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.World;
+import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
@@ -35,7 +36,7 @@ public abstract class TooledCommandBase<T extends AeroPlugin<T>> extends Abstrac
      * @return true if the CommandSender is not a Player.
      */
     protected boolean isConsole() {
-        return !(sender instanceof Player);
+        return !(getSender() instanceof Player);
     }
 
     /**
@@ -68,7 +69,8 @@ public abstract class TooledCommandBase<T extends AeroPlugin<T>> extends Abstrac
      * @return true
      */
     protected boolean showUsage() {
-        msg(command.getUsage().replaceAll("<command>", command.getLabel()));
+        final Command cmd = getCommand();
+        msg(cmd.getUsage().replaceAll("<command>", cmd.getLabel()));
         return true;
     }
 
@@ -89,7 +91,7 @@ public abstract class TooledCommandBase<T extends AeroPlugin<T>> extends Abstrac
      * @see #msg(CommandSender, String, ChatColor)
      */
     protected void msg(final String message) {
-        msg(sender, message);
+        msg(getSender(), message);
     }
 
     /**
@@ -111,7 +113,7 @@ public abstract class TooledCommandBase<T extends AeroPlugin<T>> extends Abstrac
      * @see #msg(CommandSender, String, ChatColor)
      */
     protected void msg(final String message, final ChatColor color) {
-        msg(sender, message, color);
+        msg(getSender(), message, color);
     }
 
     /**
@@ -156,6 +158,18 @@ public abstract class TooledCommandBase<T extends AeroPlugin<T>> extends Abstrac
         return Players.getOfflinePlayer(name);
     }
 
+    @SuppressWarnings("deprecation")
+    private Command getCommand() {
+        final CommandContext context = getContext();
+        return context != null ? context.getCommand() : command;
+    }
+
+    @SuppressWarnings("deprecation")
+    private CommandSender getSender() {
+        final CommandContext context = getContext();
+        return context != null ? context.getSender() : sender;
+    }
+
     protected World getWorld(final String world) {
         return Worlds.getWorld(world);
     }
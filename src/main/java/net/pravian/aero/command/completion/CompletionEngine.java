@@ -0,0 +1,201 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.completion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import net.pravian.aero.command.dynamic.parser.Selector;
+import net.pravian.aero.component.PluginListener;
+import net.pravian.aero.plugin.AeroPlugin;
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.server.PluginDisableEvent;
+import org.bukkit.event.server.PluginEnableEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Represents the tab completion engine of a command handler.
+ *
+ * <p>
+ * Completions are looked up by the type of the argument being completed. Online players, worlds and plugins are kept in {@link CompletionTrie}s which are updated from join, quit, load and unload
+ * events. Enum constants, including materials, are indexed once per enum type. Numbers and strings have no completions.</p>
+ *
+ * <p>
+ * The engine registers itself as a listener on first use.</p>
+ *
+ * @param <T> Optional: Type safety for the plugin.
+ */
+public class CompletionEngine<T extends AeroPlugin<T>> extends PluginListener<T> {
+
+    private static final ClassValue<CompletionTrie> ENUMS = new ClassValue<CompletionTrie>() {
+
+        @Override
+        protected CompletionTrie computeValue(Class<?> type) {
+            final CompletionTrie trie = new CompletionTrie();
+            for (Object constant : type.getEnumConstants()) {
+                trie.add(((Enum<?>) constant).name());
+            }
+            return trie;
+        }
+    };
+    private static final List<String> BOOLEANS = Arrays.asList("false", "true");
+    private static final List<String> SELECTORS = Arrays.asList("@a", "@p", "@r");
+    //
+    private final CompletionTrie players = new CompletionTrie();
+    private final CompletionTrie worlds = new CompletionTrie();
+    private final CompletionTrie plugins = new CompletionTrie();
+    @Getter
+    @Setter
+    private int limit = 100;
+
+    public CompletionEngine(T plugin) {
+        super(plugin);
+    }
+
+    /**
+     * Returns the completions for an argument.
+     *
+     * @param sender The sender completing the argument. Players hidden from the sender are not completed.
+     * @param type The type of the argument.
+     * @param prefix The part of the argument typed so far.
+     * @return The completions, in alphabetical order.
+     */
+    public List<String> complete(CommandSender sender, Class<?> type, String prefix) {
+        if (!registered) {
+            register();
+            seed();
+        }
+
+        if (Player.class.isAssignableFrom(type) || OfflinePlayer.class.equals(type)) {
+            return completePlayers(sender, prefix);
+        }
+
+        if (Selector.class.equals(type)) {
+            final List<String> results = new ArrayList<String>();
+            for (String selector : SELECTORS) {
+                if (selector.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    results.add(selector);
+                }
+            }
+            results.addAll(completePlayers(sender, prefix));
+            return results;
+        }
+
+        if (World.class.isAssignableFrom(type)) {
+            return worlds.complete(prefix, limit);
+        }
+
+        if (Plugin.class.isAssignableFrom(type)) {
+            return plugins.complete(prefix, limit);
+        }
+
+        if (type.isEnum()) {
+            return ENUMS.get(type).complete(prefix, limit);
+        }
+
+        if (type == boolean.class || type == Boolean.class) {
+            final List<String> results = new ArrayList<String>(2);
+            for (String value : BOOLEANS) {
+                if (value.regionMatches(true, 0, prefix, 0, prefix.length())) {
+                    results.add(value);
+                }
+            }
+            return results;
+        }
+
+        return Collections.emptyList();
+    }
+
+    private List<String> completePlayers(CommandSender sender, String prefix) {
+        final List<String> names = players.complete(prefix, limit);
+        if (!(sender instanceof Player)) {
+            return names;
+        }
+
+        final Player viewer = (Player) sender;
+        final List<String> visible = new ArrayList<String>(names.size());
+        for (String name : names) {
+            final Player player = Bukkit.getPlayerExact(name);
+            if (player == null || viewer.canSee(player)) {
+                visible.add(name);
+            }
+        }
+        return visible;
+    }
+
+    private void seed() {
+        players.clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            players.add(player.getName());
+        }
+
+        worlds.clear();
+        for (World world : Bukkit.getWorlds()) {
+            worlds.add(world.getName());
+        }
+
+        plugins.clear();
+        for (Plugin loaded : Bukkit.getPluginManager().getPlugins()) {
+            if (loaded.isEnabled()) {
+                plugins.add(loaded.getName());
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        players.add(event.getPlayer().getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        players.remove(event.getPlayer().getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onWorldLoad(WorldLoadEvent event) {
+        worlds.add(event.getWorld().getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorldUnload(WorldUnloadEvent event) {
+        worlds.remove(event.getWorld().getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginEnable(PluginEnableEvent event) {
+        plugins.add(event.getPlugin().getName());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPluginDisable(PluginDisableEvent event) {
+        plugins.remove(event.getPlugin().getName());
+    }
+
+}
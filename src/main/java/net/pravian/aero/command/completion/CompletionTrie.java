@@ -0,0 +1,159 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.completion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Represents a sorted, case-insensitive prefix tree of names.
+ *
+ * <p>
+ * Completing a prefix walks down the prefix and then collects names in alphabetical order until the limit is reached, so the cost depends on the length of the prefix and the amount of results rather
+ * than on the amount of names stored. Names keep their original case.</p>
+ */
+public class CompletionTrie {
+
+    private final Node root = new Node();
+    private int size = 0;
+
+    /**
+     * Adds a name.
+     *
+     * @param name The name.
+     * @return True if the name was not present yet.
+     */
+    public synchronized boolean add(String name) {
+        Node node = root;
+        for (int i = 0; i < name.length(); i++) {
+            final char c = Character.toLowerCase(name.charAt(i));
+            Node child = node.children.get(c);
+            if (child == null) {
+                child = new Node();
+                node.children.put(c, child);
+            }
+            node = child;
+        }
+
+        if (node.values == null) {
+            node.values = new ArrayList<String>(1);
+        } else if (node.values.contains(name)) {
+            return false;
+        }
+
+        node.values.add(name);
+        size++;
+        return true;
+    }
+
+    /**
+     * Removes a name.
+     *
+     * @param name The name.
+     * @return True if the name was present.
+     */
+    public synchronized boolean remove(String name) {
+        if (!remove(root, name, 0)) {
+            return false;
+        }
+        size--;
+        return true;
+    }
+
+    private boolean remove(Node node, String name, int index) {
+        if (index == name.length()) {
+            return node.values != null && node.values.remove(name);
+        }
+
+        final char c = Character.toLowerCase(name.charAt(index));
+        final Node child = node.children.get(c);
+        if (child == null || !remove(child, name, index + 1)) {
+            return false;
+        }
+
+        // Prune empty branches
+        if (child.children.isEmpty() && (child.values == null || child.values.isEmpty())) {
+            node.children.remove(c);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the names starting with a prefix, ignoring case, in alphabetical order.
+     *
+     * @param prefix The prefix.
+     * @param limit The maximum amount of names to return.
+     * @return The names.
+     */
+    public synchronized List<String> complete(String prefix, int limit) {
+        final List<String> results = new ArrayList<String>();
+
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(Character.toLowerCase(prefix.charAt(i)));
+        }
+
+        if (node != null) {
+            collect(node, results, limit);
+        }
+        return results;
+    }
+
+    private void collect(Node node, List<String> results, int limit) {
+        if (node.values != null) {
+            for (String value : node.values) {
+                if (results.size() >= limit) {
+                    return;
+                }
+                results.add(value);
+            }
+        }
+
+        for (Node child : node.children.values()) {
+            if (results.size() >= limit) {
+                return;
+            }
+            collect(child, results, limit);
+        }
+    }
+
+    /**
+     * Removes all names.
+     */
+    public synchronized void clear() {
+        root.children.clear();
+        root.values = null;
+        size = 0;
+    }
+
+    /**
+     * Returns the amount of names.
+     *
+     * @return The amount of names.
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    private static class Node {
+
+        private final Map<Character, Node> children = new TreeMap<Character, Node>();
+        private List<String> values = null;
+    }
+
+}
@@ -19,17 +19,24 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import net.pravian.aero.command.handler.SimpleCommandHandler;
 import net.pravian.aero.command.CommandRegistrationException;
 import net.pravian.aero.command.CommandOptions;
+import net.pravian.aero.command.completion.CompletionEngine;
 import net.pravian.aero.command.dynamic.parser.CustomParser;
 import net.pravian.aero.command.dynamic.parser.DefaultParser;
-import net.pravian.aero.command.dynamic.parser.ParseException;
+import net.pravian.aero.command.dynamic.parser.ParseResult;
 import net.pravian.aero.command.dynamic.parser.Parser;
+import net.pravian.aero.command.dynamic.parser.SelectorParser;
 import net.pravian.aero.command.SimpleCommand;
+import net.pravian.aero.command.executor.CommandStats;
 import net.pravian.aero.plugin.AeroPlugin;
+import net.pravian.aero.util.PlayerIndex;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -65,26 +72,90 @@ public abstract class DynamicCommand<T extends AeroPlugin<T>> extends SimpleComm
     @Override
     public final boolean onCommand(final CommandSender sender, final Command command, final String label, final String[] args) {
 
-        // Tricky loops and exceptions 8D
+        // Prefer overloads which take exactly these arguments, then any overload which could accept them.
+        // Overloads which can not accept the arguments are skipped without parsing anything.
+        final ParseResult<Object> result = new ParseResult<Object>();
         for (ParsingMethodDelegate<?> delegate : delegates) {
-            try {
-                return delegate.onCommand(sender, command, label, args);
-            } catch (ParseException ignored) { // TODO: Something something
-                continue;
-            } catch (ExecutionException ex) {
-                throw ex.getCause(); //
-            } catch (Exception ex) {
-                plugin.handleException("Uncaught DynamicCommand exception whilst executing command: " + command.getName(), ex);
-                sender.sendMessage(ChatColor.RED + "Command Error: " + command.getName());
+            if (delegate.matchesExactly(args)) {
+                final Object[] values = delegate.parse(args, result);
+                if (values != null) {
+                    return execute(delegate, values, sender, command);
+                }
             }
+        }
 
-            return true;
+        for (ParsingMethodDelegate<?> delegate : delegates) {
+            if (!delegate.matchesExactly(args) && delegate.accepts(args)) {
+                final Object[] values = delegate.parse(args, result);
+                if (values != null) {
+                    return execute(delegate, values, sender, command);
+                }
+            }
         }
 
-        // All CommandDelegate's threw ParseExceptions
+        // No delegate could parse the arguments
         return false;
     }
 
+    private boolean execute(ParsingMethodDelegate<?> delegate, Object[] values, CommandSender sender, Command command) {
+        final boolean timed = getHandler().isTimingEnabled();
+        final long start = timed ? System.nanoTime() : 0;
+        boolean error = false;
+        try {
+            return delegate.invoke(values);
+        } catch (ExecutionException ex) {
+            error = true;
+            throw ex.getCause(); //
+        } catch (Exception ex) {
+            error = true;
+            plugin.handleException("Uncaught DynamicCommand exception whilst executing command: " + command.getName(), ex);
+            sender.sendMessage(ChatColor.RED + "Command Error: " + command.getName());
+        } finally {
+            if (timed) {
+                delegate.getStats().record(System.nanoTime() - start, error);
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the statistics of each command method, by signature.
+     *
+     * @return The statistics.
+     */
+    public Map<String, CommandStats> getOverloadStats() {
+        final Map<String, CommandStats> stats = new LinkedHashMap<String, CommandStats>();
+        for (ParsingMethodDelegate<?> delegate : delegates) {
+            stats.put(delegate.getSignature(), delegate.getStats());
+        }
+        return stats;
+    }
+
+    @Override
+    public List<String> tabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length == 0) {
+            return null;
+        }
+
+        final int index = args.length - 1;
+        final CompletionEngine<T> completions = getHandler().getCompletions();
+        if (completions == null) {
+            return null;
+        }
+
+        final Set<String> results = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+        for (ParsingMethodDelegate<?> delegate : delegates) {
+            final Class<?> type = delegate.getArgumentType(index);
+            if (type != null) {
+                results.addAll(completions.complete(sender, type, args[index]));
+            }
+        }
+
+        final List<String> list = new ArrayList<String>(results);
+        return list.size() > completions.getLimit() ? list.subList(0, completions.getLimit()) : list;
+    }
+
     @Override
     public void unregister() {
         super.unregister();
@@ -168,6 +239,14 @@ public abstract class DynamicCommand<T extends AeroPlugin<T>> extends SimpleComm
             parsers.add(parser);
         }
 
+        // Selectors answer radius queries from the player index
+        for (Parser<?> parser : parsers) {
+            if (parser instanceof SelectorParser) {
+                PlayerIndex.start(plugin);
+                break;
+            }
+        }
+
         final ParsingMethodDelegate<T> delegate = new ParsingMethodDelegate<T>(this, options, method, parsers);
         delegates.add(delegate);
     }
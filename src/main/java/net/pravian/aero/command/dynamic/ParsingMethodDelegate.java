@@ -15,76 +15,230 @@
  */
 package net.pravian.aero.command.dynamic;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import net.pravian.aero.command.AeroCommandBase;
 import net.pravian.aero.command.CommandOptions;
 import net.pravian.aero.command.SimpleCommand;
+import net.pravian.aero.command.dynamic.parser.ArgumentParser;
 import net.pravian.aero.command.dynamic.parser.ParseException;
+import net.pravian.aero.command.dynamic.parser.ParseResult;
 import net.pravian.aero.command.dynamic.parser.Parser;
+import net.pravian.aero.command.executor.CommandStats;
 import net.pravian.aero.command.handler.AeroCommandHandler;
 import net.pravian.aero.plugin.AeroPlugin;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 
+/**
+ * Represents a command method of a {@link DynamicCommand}, together with the parsers for its parameters.
+ *
+ * <p>
+ * Each parameter of the method has one parser, which consumes one or more arguments. The method is compiled into a method handle once, so invoking it only spreads the parsed values over the
+ * parameters and unboxes the primitive ones. Parsers which consume exactly one argument also expose the shape of that argument, which is used to pick the matching overload without parsing.</p>
+ *
+ * @param <T> The type of the plugin.
+ */
 // Package-private: only for internal use
-// TODO: docs
 class ParsingMethodDelegate<T extends AeroPlugin<T>> implements CommandExecutor {
 
     private final AeroCommandBase<T> aeroCommand;
     private final AeroCommandHandler<T> handler;
     private final CommandOptions options;
     private final Method method;
-    private final List<Parser<?>> parsers = new ArrayList<Parser<?>>();
+    private final MethodHandle invoker;
+    private final ArgumentParser<?>[] parsers;
+    private final TokenType[] tokenTypes; // Null if the parsers do not each consume exactly one argument
+    private final int singleTokens; // The amount of leading parsers which consume exactly one argument
+    private final CommandStats stats = new CommandStats();
 
     ParsingMethodDelegate(SimpleCommand<T> command, CommandOptions options, Method method, List<Parser<?>> parsers) {
         this.aeroCommand = command;
         this.handler = command.getHandler();
         this.options = options;
         this.method = method;
-        this.parsers.addAll(parsers);
+        this.parsers = new ArgumentParser<?>[parsers.size()];
+        for (int i = 0; i < this.parsers.length; i++) {
+            this.parsers[i] = ArgumentParser.of(parsers.get(i));
+        }
+
+        // Compile the method into (Object[]) -> boolean, unboxing primitive parameters
+        // Parsers produce their values through the generic Parser API, so primitives are already boxed at this point
+        try {
+            method.setAccessible(true);
+            this.invoker = MethodHandles.lookup().unreflect(method)
+                    .bindTo(command)
+                    .asSpreader(Object[].class, this.parsers.length)
+                    .asType(MethodType.methodType(boolean.class, Object[].class));
+        } catch (IllegalAccessException ex) {
+            throw new IllegalArgumentException("Could not access command method: " + method.getName(), ex);
+        }
+
+        int leading = 0;
+        while (leading < this.parsers.length && TokenType.of(this.parsers[leading]) != null) {
+            leading++;
+        }
+        this.singleTokens = leading;
+
+        TokenType[] types = new TokenType[this.parsers.length];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = TokenType.of(this.parsers[i]);
+            if (types[i] == null) {
+                types = null;
+                break;
+            }
+        }
+        this.tokenTypes = types;
     }
 
     public CommandOptions getOptions() {
         return options;
     }
 
+    /**
+     * Returns the parameter type of the command method which the argument at an index is parsed into.
+     *
+     * @param index The index of the argument.
+     * @return The type, or null if it is not known which parameter the argument belongs to.
+     */
+    Class<?> getArgumentType(int index) {
+        if (index >= parsers.length || index > singleTokens) {
+            return null;
+        }
+        return method.getParameterTypes()[index];
+    }
+
+    public CommandStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Returns the signature of the command method, such as {@code kick(Player, String)}.
+     *
+     * @return The signature.
+     */
+    public String getSignature() {
+        final StringBuilder signature = new StringBuilder(method.getName()).append('(');
+        final Class<?>[] types = method.getParameterTypes();
+        for (int i = 0; i < types.length; i++) {
+            if (i > 0) {
+                signature.append(", ");
+            }
+            signature.append(types[i].getSimpleName());
+        }
+        return signature.append(')').toString();
+    }
+
     public List<Parser<?>> getParsers() {
-        return Collections.unmodifiableList(parsers);
+        return Collections.unmodifiableList(Arrays.<Parser<?>>asList(parsers));
     }
 
-    @Override
-    @SuppressWarnings("unchecked")
-    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) throws ParseException, ExecutionException {
+    /**
+     * Validates if this delegate takes exactly the amount of arguments given, and each argument looks like what its parser expects.
+     *
+     * @param args The arguments.
+     * @return True if this delegate is an exact match.
+     */
+    boolean matchesExactly(String[] args) {
+        return tokenTypes != null && args.length == tokenTypes.length && matchesTokens(args);
+    }
 
-        // Parse arguments
-        final List<Object> pArgs = new ArrayList<Object>();
+    /**
+     * Validates if this delegate could possibly parse the arguments given, without parsing them.
+     *
+     * @param args The arguments.
+     * @return True if this delegate could accept the arguments.
+     */
+    boolean accepts(String[] args) {
+        if (args.length < parsers.length) {
+            return false;
+        }
+
+        return tokenTypes == null || matchesTokens(args);
+    }
+
+    private boolean matchesTokens(String[] args) {
+        for (int i = 0; i < tokenTypes.length; i++) {
+            if (!tokenTypes[i].matches(args[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses the arguments for the command method.
+     *
+     * @param args The arguments.
+     * @param result The result to reuse while parsing. Holds the error if the arguments could not be parsed.
+     * @return The parsed arguments, or null if the arguments could not be parsed.
+     */
+    Object[] parse(String[] args, ParseResult<Object> result) {
+        final Object[] values = new Object[parsers.length];
         int offset = 0;
-        for (Parser<?> parser : parsers) {
-            if (pArgs.size() >= parsers.size() // Too many arguments parsed
-                    || offset >= args.length) { // Too many parsers for arguments
-                return false; // TODO: Allow parsers to parse multiple arguments?
+        for (int i = 0; i < parsers.length; i++) {
+            if (offset >= args.length) { // Too many parsers for arguments
+                result.fail("Not enough arguments");
+                return null;
             }
 
-            try {
-                offset = parser.parse(pArgs, args, offset);
-            } catch (ParseException pex) {
-                throw pex;
-            } catch (Exception ex) {
-                throw new ParseException(ex.getMessage() != null ? ex.getMessage() : "Could not parse argument: " + args[offset], ex);
+            result.reset();
+            if (!tryParse(parsers[i], args, offset, result)) {
+                return null;
             }
+
+            values[i] = result.getValue();
+            offset = result.getOffset();
         }
 
-        // Debug
-        assert method.getParameterTypes().length == pArgs.size(); // All parameters are satisfied
+        return values;
+    }
 
+    /**
+     * Executes the command method.
+     *
+     * @param values The parsed arguments.
+     * @return The result of the command method.
+     * @throws ExecutionException If the command method threw an exception.
+     */
+    boolean invoke(Object[] values) throws ExecutionException {
         try {
-            return (Boolean) method.invoke(aeroCommand, pArgs.toArray());
+            return (boolean) invoker.invokeExact(values);
+        } catch (Error err) {
+            throw err;
         } catch (Exception ex) {
             throw new ExecutionException(ex);
+        } catch (Throwable ex) {
+            throw new ExecutionException(new RuntimeException(ex));
+        }
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) throws ParseException, ExecutionException {
+        if (args.length < parsers.length) {
+            return false;
+        }
+
+        final ParseResult<Object> result = new ParseResult<Object>();
+        final Object[] values = parse(args, result);
+        if (values == null) {
+            throw new ParseException(result.getError());
+        }
+
+        return invoke(values);
+    }
+
+    private static <V> boolean tryParse(ArgumentParser<V> parser, String[] args, int offset, ParseResult<Object> result) {
+        try {
+            return parser.tryParse(args, offset, result);
+        } catch (Exception ex) {
+            return result.fail(ex.getMessage() != null ? ex.getMessage() : "Could not parse argument: " + args[offset]);
         }
     }
 
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.dynamic;
+
+import net.pravian.aero.command.dynamic.parser.DefaultParser;
+import net.pravian.aero.command.dynamic.parser.DoubleParser;
+import net.pravian.aero.command.dynamic.parser.FloatParser;
+import net.pravian.aero.command.dynamic.parser.IntegerParser;
+import net.pravian.aero.command.dynamic.parser.Numbers;
+import net.pravian.aero.command.dynamic.parser.Parser;
+
+/**
+ * Represents the cheap classification of an argument token, used to select a command overload before parsing.
+ */
+enum TokenType {
+
+    INTEGER,
+    DECIMAL,
+    ANY;
+
+    public boolean matches(String token) {
+        switch (this) {
+            case INTEGER:
+                return Numbers.isInteger(token);
+            case DECIMAL:
+                return Numbers.isDecimal(token);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Returns the token type a parser expects, or null if the parser is not known to consume exactly one token.
+     *
+     * @param parser The parser.
+     * @return The token type.
+     */
+    public static TokenType of(Parser<?> parser) {
+        if (parser instanceof IntegerParser) {
+            return INTEGER;
+        }
+
+        if (parser instanceof DoubleParser || parser instanceof FloatParser) {
+            return DECIMAL;
+        }
+
+        for (DefaultParser defaultParser : DefaultParser.values()) {
+            if (defaultParser.getParser() == parser) {
+                return ANY;
+            }
+        }
+
+        return null;
+    }
+
+}
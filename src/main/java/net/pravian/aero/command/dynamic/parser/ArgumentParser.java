@@ -0,0 +1,71 @@
+package net.pravian.aero.command.dynamic.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents a parser which reports failures through a {@link ParseResult} instead of throwing exceptions.
+ *
+ * <p>
+ * Every ArgumentParser is also a {@link Parser}, for compatibility with code using the exception-based contract.</p>
+ *
+ * @param <T> The type of the parsed value.
+ */
+public interface ArgumentParser<T> extends Parser<T> {
+
+    /**
+     * Parses the argument at an offset.
+     *
+     * @param args The arguments.
+     * @param offset The offset of the argument to parse.
+     * @param result The result to store the parsed value or error in.
+     * @return True if the argument was parsed.
+     */
+    public boolean tryParse(String[] args, int offset, ParseResult<? super T> result);
+
+    @Override
+    public default int parse(List<? super T> result, String[] args, int offset) throws Exception {
+        final ParseResult<T> parsed = new ParseResult<T>();
+        if (!tryParse(args, offset, parsed)) {
+            throw new ParseException(parsed.getError());
+        }
+
+        result.add(parsed.getValue());
+        return parsed.getOffset();
+    }
+
+    /**
+     * Adapts a parser to the ArgumentParser contract.
+     *
+     * <p>
+     * Parsers which only implement the exception-based contract still throw internally, their exceptions are converted to failed results.</p>
+     *
+     * @param <T> The type of the parsed value.
+     * @param parser The parser.
+     * @return The parser itself if it already is an ArgumentParser, otherwise an adapter.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ArgumentParser<T> of(Parser<T> parser) {
+        if (parser instanceof ArgumentParser) {
+            return (ArgumentParser<T>) parser;
+        }
+
+        return (args, offset, result) -> {
+            final List<T> values = new ArrayList<T>(1);
+            final int next;
+            try {
+                next = parser.parse(values, args, offset);
+            } catch (Exception ex) {
+                final String message = ex.getMessage();
+                return message != null ? result.fail(message) : result.fail("Could not parse argument: ", args[offset]);
+            }
+
+            if (values.isEmpty()) {
+                return result.fail("Could not parse argument: ", args[offset]);
+            }
+
+            return result.success(values.get(0), next);
+        };
+    }
+
+}
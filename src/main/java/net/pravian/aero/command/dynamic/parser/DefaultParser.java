@@ -22,7 +22,8 @@ public enum DefaultParser {
     PLAYER(new PlayerParser(), Player.class),
     INTEGER(new IntegerParser(), int.class, Integer.class),
     FLOAT(new FloatParser(), float.class, Float.class),
-    DOUBLE(new DoubleParser(), double.class, Double.class);
+    DOUBLE(new DoubleParser(), double.class, Double.class),
+    SELECTOR(new SelectorParser(), Selector.class);
     //
     private final Class<?>[] types;
     private final Parser parser;
@@ -15,19 +15,11 @@
  */
 package net.pravian.aero.command.dynamic.parser;
 
-import java.util.List;
-
-public class DoubleParser implements Parser<Double> {
+public class DoubleParser implements ArgumentParser<Double> {
 
     @Override
-    public int parse(List<? super Double> result, String[] args, int offset) throws Exception {
-
-        try {
-            result.add(Double.parseDouble(args[offset]));
-        } catch (NumberFormatException nex) {
-            throw new ParseException("Could not parse double: " + args[offset], nex);
-        }
-        return offset + 1;
+    public boolean tryParse(String[] args, int offset, ParseResult<? super Double> result) {
+        return Numbers.parseDouble(args[offset], offset + 1, result);
     }
 
 }
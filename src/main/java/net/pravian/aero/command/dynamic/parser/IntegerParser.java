@@ -1,17 +1,10 @@
 package net.pravian.aero.command.dynamic.parser;
 
-import java.util.List;
-
-public class IntegerParser implements Parser<Integer> {
+public class IntegerParser implements ArgumentParser<Integer> {
 
     @Override
-    public int parse(List<? super Integer> result, String[] args, int offset) throws Exception {
-        try {
-            result.add(Integer.parseInt(args[offset]));
-        } catch (NumberFormatException nex) {
-            throw new ParseException("Could not parse integer: " + args[offset], nex);
-        }
-        return offset + 1;
+    public boolean tryParse(String[] args, int offset, ParseResult<? super Integer> result) {
+        return Numbers.parseInt(args[offset], offset + 1, result);
     }
 
 }
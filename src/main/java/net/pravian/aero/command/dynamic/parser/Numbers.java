@@ -0,0 +1,196 @@
+package net.pravian.aero.command.dynamic.parser;
+
+/**
+ * Represents the number parsing used by the builtin parsers, which never throws exceptions.
+ */
+public class Numbers {
+
+    private Numbers() {
+    }
+
+    /**
+     * Parses an integer, without throwing an exception if it is invalid.
+     *
+     * @param token The token to parse.
+     * @param next The offset to store in the result on success.
+     * @param result The result.
+     * @return True if the token was parsed.
+     */
+    public static boolean parseInt(String token, int next, ParseResult<? super Integer> result) {
+        final int length = token.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (token.charAt(0) == '-' || token.charAt(0) == '+')) {
+            negative = token.charAt(0) == '-';
+            i++;
+        }
+
+        if (i == length) {
+            return result.fail("Could not parse integer: ", token);
+        }
+
+        final long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+        long value = 0;
+        for (; i < length; i++) {
+            final char c = token.charAt(i);
+            final int digit = c >= '0' && c <= '9' ? c - '0' : Character.digit(c, 10); // Other scripts, like Integer#parseInt(String)
+            if (digit < 0) {
+                return result.fail("Could not parse integer: ", token);
+            }
+
+            value = value * 10 + digit;
+            if (value > limit) {
+                return result.fail("Could not parse integer: ", token);
+            }
+        }
+
+        return result.success((int) (negative ? -value : value), next);
+    }
+
+    /**
+     * Parses a double, without throwing an exception if it is invalid.
+     *
+     * @param token The token to parse.
+     * @param next The offset to store in the result on success.
+     * @param result The result.
+     * @return True if the token was parsed.
+     */
+    public static boolean parseDouble(String token, int next, ParseResult<? super Double> result) {
+        if (!isDecimal(token)) {
+            return result.fail("Could not parse double: ", token);
+        }
+
+        return result.success(Double.parseDouble(token), next);
+    }
+
+    /**
+     * Parses a float, without throwing an exception if it is invalid.
+     *
+     * @param token The token to parse.
+     * @param next The offset to store in the result on success.
+     * @param result The result.
+     * @return True if the token was parsed.
+     */
+    public static boolean parseFloat(String token, int next, ParseResult<? super Float> result) {
+        if (!isDecimal(token)) {
+            return result.fail("Could not parse float: ", token);
+        }
+
+        return result.success(Float.parseFloat(token), next);
+    }
+
+    /**
+     * Validates if a token has the form of an integer: an optional sign followed by digits.
+     *
+     * @param token The token.
+     * @return True if the token looks like an integer.
+     */
+    public static boolean isInteger(String token) {
+        final int length = token.length();
+        int i = length > 0 && (token.charAt(0) == '-' || token.charAt(0) == '+') ? 1 : 0;
+        if (i == length) {
+            return false;
+        }
+
+        for (; i < length; i++) {
+            final char c = token.charAt(i);
+            if ((c < '0' || c > '9') && Character.digit(c, 10) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Validates if a token has the form of a decimal number, which can be parsed by {@link Double#parseDouble(String)}.
+     *
+     * <p>
+     * This accepts the same forms as {@link Double#valueOf(String)}, including "NaN", "Infinity" and hexadecimal floating point numbers.</p>
+     *
+     * @param token The token.
+     * @return True if the token looks like a decimal number.
+     */
+    public static boolean isDecimal(String token) {
+        // Leading and trailing whitespace is ignored, like Double#parseDouble(String) does
+        int length = token.length();
+        while (length > 0 && token.charAt(length - 1) <= ' ') {
+            length--;
+        }
+        int i = 0;
+        while (i < length && token.charAt(i) <= ' ') {
+            i++;
+        }
+
+        if (i < length && (token.charAt(i) == '-' || token.charAt(i) == '+')) {
+            i++;
+        }
+
+        if (token.startsWith("NaN", i) || token.startsWith("Infinity", i)) {
+            return length - i == (token.charAt(i) == 'N' ? 3 : 8);
+        }
+
+        if (length > i) {
+            final char last = token.charAt(length - 1);
+            if (last == 'f' || last == 'F' || last == 'd' || last == 'D') {
+                length--;
+            }
+        }
+
+        if (length - i > 1 && token.charAt(i) == '0' && (token.charAt(i + 1) == 'x' || token.charAt(i + 1) == 'X')) {
+            return isHexDecimal(token, i + 2, length);
+        }
+
+        boolean digits = false;
+        boolean dot = false;
+        for (; i < length; i++) {
+            final char c = token.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else if ((c == 'e' || c == 'E') && digits) {
+                return isExponent(token, i + 1, length);
+            } else {
+                return false;
+            }
+        }
+        return digits;
+    }
+
+    // The part after "0x": hex digits with an optional dot, followed by a mandatory binary exponent
+    private static boolean isHexDecimal(String token, int start, int end) {
+        boolean digits = false;
+        boolean dot = false;
+        for (int i = start; i < end; i++) {
+            final char c = token.charAt(i);
+            if ((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')) {
+                digits = true;
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else if ((c == 'p' || c == 'P') && digits) {
+                return isExponent(token, i + 1, end);
+            } else {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isExponent(String token, int start, int end) {
+        if (start < end && (token.charAt(start) == '-' || token.charAt(start) == '+')) {
+            start++;
+        }
+        return start < end && isDigits(token, start, end);
+    }
+
+    private static boolean isDigits(String token, int start, int end) {
+        for (int i = start; i < end; i++) {
+            final char c = token.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,93 @@
+package net.pravian.aero.command.dynamic.parser;
+
+/**
+ * Represents the reusable result of parsing an argument.
+ *
+ * <p>
+ * A result is either a success, holding the parsed value and the offset of the next argument, or a failure, holding an error message. Failures do not capture a stack trace, and the error message
+ * is only built when it is requested.</p>
+ *
+ * @param <T> The type of the parsed value.
+ * @see ArgumentParser
+ */
+public class ParseResult<T> {
+
+    private boolean success = false;
+    private T value = null;
+    private int offset = 0;
+    private String error = null;
+    private String errorArgument = null;
+
+    /**
+     * Marks this result as a success.
+     *
+     * @param value The parsed value.
+     * @param offset The offset of the first argument which was not consumed.
+     * @return True.
+     */
+    public boolean success(T value, int offset) {
+        this.success = true;
+        this.value = value;
+        this.offset = offset;
+        this.error = null;
+        this.errorArgument = null;
+        return true;
+    }
+
+    /**
+     * Marks this result as a failure.
+     *
+     * @param error The error message.
+     * @return False.
+     */
+    public boolean fail(String error) {
+        return fail(error, null);
+    }
+
+    /**
+     * Marks this result as a failure, with an error message which is suffixed by the argument which could not be parsed.
+     *
+     * @param error The error message, for example "Could not parse integer: ".
+     * @param argument The argument which could not be parsed.
+     * @return False.
+     */
+    public boolean fail(String error, String argument) {
+        this.success = false;
+        this.value = null;
+        this.error = error;
+        this.errorArgument = argument;
+        return false;
+    }
+
+    /**
+     * Resets this result, so it can be reused.
+     */
+    public void reset() {
+        success = false;
+        value = null;
+        offset = 0;
+        error = null;
+        errorArgument = null;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public T getValue() {
+        return value;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public String getError() {
+        if (error == null) {
+            return success ? null : "Could not parse argument";
+        }
+
+        return errorArgument == null ? error : error + errorArgument;
+    }
+
+}
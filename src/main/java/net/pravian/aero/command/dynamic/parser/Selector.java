@@ -0,0 +1,114 @@
+package net.pravian.aero.command.dynamic.parser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import net.pravian.aero.util.PlayerIndex;
+import net.pravian.aero.util.Players;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.command.BlockCommandSender;
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+
+/**
+ * Represents a parsed player selector, such as {@code @a[r=20]} or a player name.
+ *
+ * <p>
+ * Supported selectors are {@code @a} (all players), {@code @p} (nearest player) and {@code @r} (random player). Supported filters are {@code r} (radius around the sender), {@code w} (world name),
+ * {@code perm} (required permission) and {@code c} (maximum count).</p>
+ *
+ * <p>
+ * A selector is resolved against the sender with {@link #select(CommandSender)}. Radius queries use the {@link PlayerIndex} when it is running.</p>
+ *
+ * @see SelectorParser
+ */
+public class Selector {
+
+    private final char type; // 0 for a player name
+    private final String name;
+    private final double radius;
+    private final String world;
+    private final String permission;
+    private final int count;
+
+    Selector(char type, String name, double radius, String world, String permission, int count) {
+        this.type = type;
+        this.name = name;
+        this.radius = radius;
+        this.world = world;
+        this.permission = permission;
+        this.count = count;
+    }
+
+    /**
+     * Returns the players matching this selector.
+     *
+     * @param sender The sender of the command, used as the center of radius and nearest player queries.
+     * @return The players. Empty if no player matches.
+     */
+    public List<Player> select(CommandSender sender) {
+        if (type == 0) {
+            final Player player = Players.getPlayer(name);
+            return player == null ? Collections.<Player>emptyList() : Collections.singletonList(player);
+        }
+
+        final Location origin = getOrigin(sender);
+        if ((radius >= 0 || type == 'p') && origin == null) {
+            return Collections.emptyList();
+        }
+
+        // Candidates
+        final List<Player> players;
+        if (radius >= 0) {
+            players = PlayerIndex.getNearby(origin, radius);
+        } else if (world != null || type == 'p') {
+            final World searchWorld = world != null ? Bukkit.getWorld(world) : origin.getWorld();
+            players = searchWorld == null ? new ArrayList<Player>() : new ArrayList<Player>(searchWorld.getPlayers());
+        } else {
+            players = new ArrayList<Player>(Bukkit.getOnlinePlayers());
+        }
+
+        // Filters
+        players.removeIf(player -> (world != null && !player.getWorld().getName().equalsIgnoreCase(world))
+                || (permission != null && !player.hasPermission(permission)));
+
+        // Order
+        if (type == 'p') {
+            // Distances are only defined within the world of the sender
+            players.removeIf(player -> !origin.getWorld().equals(player.getLocation().getWorld()));
+            players.sort(Comparator.comparingDouble(player -> player.getLocation().distanceSquared(origin)));
+        } else if (type == 'r') {
+            Collections.shuffle(players, ThreadLocalRandom.current());
+        }
+
+        final int limit = count > 0 ? count : (type == 'a' ? Integer.MAX_VALUE : 1);
+        return players.size() > limit ? new ArrayList<Player>(players.subList(0, limit)) : players;
+    }
+
+    /**
+     * Validates if this selector is a plain player name.
+     *
+     * @return True if this selector is a player name.
+     */
+    public boolean isName() {
+        return type == 0;
+    }
+
+    private static Location getOrigin(CommandSender sender) {
+        if (sender instanceof Entity) {
+            return ((Entity) sender).getLocation();
+        }
+
+        if (sender instanceof BlockCommandSender) {
+            return ((BlockCommandSender) sender).getBlock().getLocation();
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,78 @@
+package net.pravian.aero.command.dynamic.parser;
+
+public class SelectorParser implements ArgumentParser<Selector> {
+
+    @Override
+    public boolean tryParse(String[] args, int offset, ParseResult<? super Selector> result) {
+        final String token = args[offset];
+        if (token.isEmpty()) {
+            return result.fail("Invalid selector: ", token);
+        }
+
+        if (token.charAt(0) != '@') {
+            return result.success(new Selector((char) 0, token, -1, null, null, 0), offset + 1);
+        }
+
+        if (token.length() < 2) {
+            return result.fail("Invalid selector: ", token);
+        }
+
+        final char type = Character.toLowerCase(token.charAt(1));
+        if (type != 'a' && type != 'p' && type != 'r') {
+            return result.fail("Unknown selector: ", token);
+        }
+
+        double radius = -1;
+        String world = null;
+        String permission = null;
+        int count = 0;
+
+        if (token.length() > 2) {
+            if (token.charAt(2) != '[' || token.charAt(token.length() - 1) != ']') {
+                return result.fail("Invalid selector: ", token);
+            }
+
+            for (String filter : token.substring(3, token.length() - 1).split(",")) {
+                if (filter.isEmpty()) {
+                    continue;
+                }
+
+                final int split = filter.indexOf('=');
+                if (split <= 0) {
+                    return result.fail("Invalid selector filter: ", filter);
+                }
+
+                final String key = filter.substring(0, split).toLowerCase();
+                final String value = filter.substring(split + 1);
+                switch (key) {
+                    case "r":
+                    case "radius":
+                        if (!Numbers.isDecimal(value) || (radius = Double.parseDouble(value)) < 0) {
+                            return result.fail("Invalid selector radius: ", value);
+                        }
+                        break;
+                    case "w":
+                    case "world":
+                        world = value;
+                        break;
+                    case "perm":
+                    case "permission":
+                        permission = value;
+                        break;
+                    case "c":
+                    case "count":
+                        final ParseResult<Integer> parsed = new ParseResult<Integer>();
+                        if (!Numbers.parseInt(value, 0, parsed) || (count = parsed.getValue()) < 1) {
+                            return result.fail("Invalid selector count: ", value);
+                        }
+                        break;
+                    default:
+                        return result.fail("Unknown selector filter: ", key);
+                }
+            }
+        }
+
+        return result.success(new Selector(type, null, radius, world, permission, count), offset + 1);
+    }
+
+}
@@ -31,6 +31,8 @@ public abstract class AbstractCommandExecutor<C extends AeroCommandBase<?>> impl
     protected final String name;
     @Getter
     protected final AeroCommandHandler<?> handler;
+    @Getter
+    protected final CommandStats stats = new CommandStats();
 
     public AbstractCommandExecutor(AeroCommandHandler<?> handler, String name, C command) {
         this.handler = handler;
@@ -35,4 +35,13 @@ public interface AeroCommandExecutor<C extends AeroCommandBase<?>> extends TabEx
 
     public void setupCommand(PluginCommand command);
 
+    /**
+     * Returns the invocation statistics of this executor.
+     *
+     * @return The statistics, or {@link CommandStats#EMPTY} if this executor does not keep statistics.
+     */
+    public default CommandStats getStats() {
+        return CommandStats.EMPTY;
+    }
+
 }
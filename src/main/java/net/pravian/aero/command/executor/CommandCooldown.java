@@ -0,0 +1,128 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.executor;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents the cooldown of a command, as a token bucket per sender.
+ *
+ * <p>
+ * A sender may use the command {@code rate} times in a burst, after which one use becomes available every {@code cooldown / rate} milliseconds. Each bucket is stored as a single timestamp which is
+ * updated without locking. Buckets which have fully refilled hold no information and are dropped lazily, so the memory used is bounded by the amount of senders which used the command within the last
+ * cooldown.</p>
+ *
+ * @see net.pravian.aero.command.CommandOptions#cooldown()
+ */
+public class CommandCooldown {
+
+    private static final int SWEEP_INTERVAL = 256;
+    //
+    private final long interval;
+    private final long tolerance;
+    private final Map<UUID, AtomicLong> buckets = new ConcurrentHashMap<UUID, AtomicLong>();
+    private final AtomicLong uses = new AtomicLong();
+    private final LongAdder denials = new LongAdder();
+
+    /**
+     * Creates a new CommandCooldown instance.
+     *
+     * @param cooldown The time in milliseconds in which {@code rate} uses are allowed.
+     * @param rate The amount of uses allowed per cooldown.
+     */
+    public CommandCooldown(long cooldown, int rate) {
+        final int uses = Math.max(1, rate);
+        this.interval = Math.max(1, cooldown / uses);
+        this.tolerance = interval * (uses - 1);
+    }
+
+    /**
+     * Attempts to use the command.
+     *
+     * @param uuid The UUID of the sender.
+     * @return 0 if the use is allowed, otherwise the time in milliseconds until the next use is allowed.
+     */
+    public long tryAcquire(UUID uuid) {
+        if (uses.incrementAndGet() % SWEEP_INTERVAL == 0) {
+            sweep();
+        }
+
+        final long now = System.currentTimeMillis();
+        final AtomicLong bucket = buckets.computeIfAbsent(uuid, key -> new AtomicLong(now));
+        while (true) {
+            // The time at which the bucket is full again
+            final long full = bucket.get();
+            final long earliest = full - tolerance;
+            if (now < earliest) {
+                denials.increment();
+                return earliest - now;
+            }
+
+            if (bucket.compareAndSet(full, Math.max(full, now) + interval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Gives back a use which was allowed by {@link #tryAcquire(UUID)}, but did not run.
+     *
+     * @param uuid The UUID of the sender.
+     */
+    public void release(UUID uuid) {
+        final AtomicLong bucket = buckets.get(uuid);
+        if (bucket != null) {
+            bucket.addAndGet(-interval);
+        }
+    }
+
+    /**
+     * Resets the cooldown for a sender.
+     *
+     * @param uuid The UUID of the sender.
+     */
+    public void reset(UUID uuid) {
+        buckets.remove(uuid);
+    }
+
+    /**
+     * Returns the amount of uses which were denied.
+     *
+     * @return The amount of denials.
+     */
+    public long getDenials() {
+        return denials.sum();
+    }
+
+    /**
+     * Returns the amount of senders currently on cooldown. Some may have already expired.
+     *
+     * @return The amount of tracked senders.
+     */
+    public int getTracked() {
+        return buckets.size();
+    }
+
+    private void sweep() {
+        final long now = System.currentTimeMillis();
+        buckets.values().removeIf(bucket -> bucket.get() <= now);
+    }
+
+}
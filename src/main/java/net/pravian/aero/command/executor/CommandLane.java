@@ -0,0 +1,116 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.executor;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import net.pravian.aero.concurrent.WorkerPool;
+
+/**
+ * Limits how many invocations of one asynchronous command run on the worker pool at once, and how many may wait.
+ */
+class CommandLane {
+
+    private final int concurrency;
+    private final int depth;
+    private final Queue<Task> queue = new ArrayDeque<Task>();
+    private int running = 0;
+
+    CommandLane(int concurrency, int depth) {
+        this.concurrency = Math.max(1, concurrency);
+        this.depth = Math.max(0, depth);
+    }
+
+    /**
+     * Runs a task on the worker pool, or queues it if the concurrency limit is reached.
+     *
+     * <p>
+     * If a queued task is rejected by the worker pool once it is its turn, its rejection handler is called instead, on the thread which finished the previous task.</p>
+     *
+     * @param task The task.
+     * @param rejected Called if the task was queued, but then rejected by the worker pool.
+     * @return False if the queue is full or the worker pool rejected the task.
+     */
+    boolean submit(Runnable task, Runnable rejected) {
+        final Task queued = new Task(task, rejected);
+        synchronized (this) {
+            if (running >= concurrency) {
+                if (queue.size() >= depth) {
+                    return false;
+                }
+                queue.add(queued);
+                return true;
+            }
+            running++;
+        }
+
+        if (!WorkerPool.submit(wrap(queued))) {
+            release();
+            return false;
+        }
+        return true;
+    }
+
+    private Runnable wrap(Task task) {
+        return () -> {
+            try {
+                task.task.run();
+            } finally {
+                next();
+            }
+        };
+    }
+
+    private void next() {
+        // Keep the slot until a queued task is accepted
+        while (true) {
+            final Task task;
+            synchronized (this) {
+                task = queue.poll();
+                if (task == null) {
+                    running--;
+                    return;
+                }
+            }
+
+            if (WorkerPool.submit(wrap(task))) {
+                return;
+            }
+
+            try {
+                task.rejected.run();
+            } catch (RuntimeException ignored) {
+                // Never lose the slot over a failing handler
+            }
+        }
+    }
+
+    private synchronized void release() {
+        running--;
+    }
+
+    private static class Task {
+
+        private final Runnable task;
+        private final Runnable rejected;
+
+        private Task(Runnable task, Runnable rejected) {
+            this.task = task;
+            this.rejected = rejected;
+        }
+    }
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.executor;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents the invocation counters and latency histogram of a command.
+ *
+ * <p>
+ * Latencies are recorded into log-linear buckets, four per power of two, which bounds the error of reported percentiles to 25%. All counters are striped, so recording is lock-free, does not allocate
+ * and does not contend between threads.</p>
+ *
+ * @see net.pravian.aero.command.handler.AeroCommandHandler#setTimingEnabled(boolean)
+ */
+public class CommandStats {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = SUB_BUCKETS * 62;
+    /**
+     * Shared statistics which ignore every invocation, for executors which do not keep statistics.
+     */
+    public static final CommandStats EMPTY = new CommandStats() {
+
+        @Override
+        public void record(long nanos, boolean error) {
+        }
+    };
+    //
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+    private final LongAdder[] histogram = new LongAdder[BUCKETS];
+
+    public CommandStats() {
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Records an invocation.
+     *
+     * @param nanos The time the invocation took in nanoseconds.
+     * @param error True if the invocation failed with an exception.
+     */
+    public void record(long nanos, boolean error) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+
+        invocations.increment();
+        if (error) {
+            errors.increment();
+        }
+        max.accumulate(nanos);
+        histogram[bucket(nanos)].increment();
+    }
+
+    /**
+     * Returns the amount of recorded invocations.
+     *
+     * @return The amount of invocations.
+     */
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * Returns the amount of recorded invocations which failed with an exception.
+     *
+     * @return The amount of errors.
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * Returns the longest recorded invocation.
+     *
+     * @return The latency in nanoseconds.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns an upper bound of the latency below which a fraction of the recorded invocations fall.
+     *
+     * @param fraction The fraction, for example 0.99 for the 99th percentile.
+     * @return The latency in nanoseconds, or 0 if nothing has been recorded.
+     */
+    public long getPercentile(double fraction) {
+        final long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram[i].sum();
+            total += counts[i];
+        }
+
+        if (total == 0) {
+            return 0;
+        }
+
+        final long target = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(upperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /**
+     * Clears all recorded invocations.
+     */
+    public void reset() {
+        invocations.reset();
+        errors.reset();
+        max.reset();
+        for (LongAdder bucket : histogram) {
+            bucket.reset();
+        }
+    }
+
+    /**
+     * Returns a single line summary of the recorded invocations.
+     *
+     * @return The summary.
+     */
+    public String getSummary() {
+        return getInvocations() + " calls, "
+                + getErrors() + " errors, "
+                + "p50 " + millis(getPercentile(0.5)) + ", "
+                + "p99 " + millis(getPercentile(0.99)) + ", "
+                + "max " + millis(getMax());
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2fms", nanos / 1000000.0);
+    }
+
+    private static int bucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) nanos;
+        }
+
+        final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        final int mantissa = (int) (nanos >>> (exponent - 2)) & (SUB_BUCKETS - 1);
+        return Math.min(BUCKETS - 1, SUB_BUCKETS * (exponent - 1) + mantissa);
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        final int exponent = bucket / SUB_BUCKETS + 1;
+        final int mantissa = bucket % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + mantissa + 1) << (exponent - 2)) - 1;
+    }
+
+}
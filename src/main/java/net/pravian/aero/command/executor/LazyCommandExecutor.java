@@ -0,0 +1,173 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.executor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Arrays;
+import java.util.List;
+import net.pravian.aero.command.AeroCommandBase;
+import net.pravian.aero.command.CommandOptions;
+import net.pravian.aero.command.handler.AeroCommandHandler;
+import net.pravian.aero.command.handler.SimpleCommandHandler;
+import net.pravian.aero.plugin.AeroPlugin;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.PluginCommand;
+
+/**
+ * Represents an executor which creates its command on first use.
+ *
+ * <p>
+ * The command label, usage, description and aliases are read from the {@link CommandOptions} of the command class, so the command can be registered to the command map without being instantiated.
+ * The command is instantiated, registered to the handler and wrapped in an executor from the executor factory once it is first ran, tab completed or otherwise accessed.</p>
+ *
+ * @param <T> Optional: Type safety for the plugin.
+ * @see SimpleCommandHandler#setLazyLoading(boolean)
+ */
+public class LazyCommandExecutor<T extends AeroPlugin<T>> implements AeroCommandExecutor<AeroCommandBase<?>> {
+
+    private final SimpleCommandHandler<T> handler;
+    private final String name;
+    private final Class<? extends AeroCommandBase<T>> type;
+    private final CommandOptions options;
+    private final CommandStats stats = new CommandStats();
+    private volatile AeroCommandExecutor<? extends AeroCommandBase<?>> delegate = null;
+    private boolean failed = false;
+
+    public LazyCommandExecutor(SimpleCommandHandler<T> handler, String name, Class<? extends AeroCommandBase<T>> type) {
+        this.handler = handler;
+        this.name = name;
+        this.type = type;
+        this.options = type.getAnnotation(CommandOptions.class);
+    }
+
+    /**
+     * Validates if the command has been instantiated.
+     *
+     * @return True if the command has been instantiated.
+     */
+    public boolean isLoaded() {
+        return delegate != null;
+    }
+
+    public Class<? extends AeroCommandBase<T>> getType() {
+        return type;
+    }
+
+    /**
+     * Returns the executor of the command, instantiating the command if required.
+     *
+     * @return The executor, or null if the command could not be instantiated.
+     */
+    public AeroCommandExecutor<? extends AeroCommandBase<?>> getDelegate() {
+        AeroCommandExecutor<? extends AeroCommandBase<?>> executor = delegate;
+        if (executor != null) {
+            return executor;
+        }
+
+        synchronized (this) {
+            if (delegate == null && !failed) {
+                delegate = load();
+                failed = delegate == null;
+            }
+            return delegate;
+        }
+    }
+
+    private AeroCommandExecutor<? extends AeroCommandBase<?>> load() {
+        final AeroCommandBase<T> command;
+        try {
+            command = type.getConstructor().newInstance();
+        } catch (InvocationTargetException ex) {
+            handler.getPlugin().handleException("Could not instantiate command class: " + type.getSimpleName(), ex.getCause());
+            return null;
+        } catch (Exception ex) {
+            handler.getPlugin().handleException("Could not instantiate command class: " + type.getSimpleName(), ex);
+            return null;
+        }
+
+        try {
+            command.register(handler);
+        } catch (Exception ex) {
+            handler.getPlugin().handleException("Could not register command: " + name, ex);
+            return null;
+        }
+
+        return handler.getExecutorFactory().newExecutor(handler, name, command);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public AeroCommandBase<?> getCommandBase() {
+        final AeroCommandExecutor<? extends AeroCommandBase<?>> executor = getDelegate();
+        return executor == null ? null : executor.getCommandBase();
+    }
+
+    @Override
+    public AeroCommandHandler<?> getHandler() {
+        return handler;
+    }
+
+    @Override
+    public CommandStats getStats() {
+        final AeroCommandExecutor<? extends AeroCommandBase<?>> executor = delegate;
+        return executor == null ? stats : executor.getStats();
+    }
+
+    @Override
+    public boolean hasPermission(CommandSender sender) {
+        return hasPermission(sender, false);
+    }
+
+    @Override
+    public boolean hasPermission(CommandSender sender, boolean sendMessage) {
+        final AeroCommandExecutor<? extends AeroCommandBase<?>> executor = getDelegate();
+        return executor != null && executor.hasPermission(sender, sendMessage);
+    }
+
+    @Override
+    public void setupCommand(PluginCommand command) {
+        if (options == null) {
+            return;
+        }
+
+        command.setUsage(options.usage());
+        command.setDescription(options.description());
+        command.setAliases(Arrays.asList(options.aliases().split(",")));
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        final AeroCommandExecutor<? extends AeroCommandBase<?>> executor = getDelegate();
+        if (executor == null) {
+            sender.sendMessage(ChatColor.RED + "Unhandled Command Error: " + command.getName());
+            return true;
+        }
+        return executor.onCommand(sender, command, label, args);
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        final AeroCommandExecutor<? extends AeroCommandBase<?>> executor = getDelegate();
+        return executor == null ? null : executor.onTabComplete(sender, command, alias, args);
+    }
+
+}
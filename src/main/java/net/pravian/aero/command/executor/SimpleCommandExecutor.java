@@ -18,23 +18,53 @@ package net.pravian.aero.command.executor;
 import java.util.Arrays;
 import java.util.List;
 import net.pravian.aero.command.AeroCommandBase;
+import net.pravian.aero.command.CommandContext;
 import net.pravian.aero.command.CommandOptions;
 import net.pravian.aero.command.SourceType;
 import net.pravian.aero.command.handler.AeroCommandHandler;
 import net.pravian.aero.command.permission.AeroPermissionHandler;
+import net.pravian.aero.command.permission.PermissionCache;
+import net.pravian.aero.concurrent.WorkerPool;
 import net.pravian.aero.util.Players;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.PluginCommand;
+import org.bukkit.entity.Player;
 
 public class SimpleCommandExecutor<C extends AeroCommandBase<?>> extends AbstractCommandExecutor<C> {
 
     protected final CommandOptions options;
+    private final SourceType[] sources;
+    private final String permission;
+    private final CommandLane lane;
+    private final CommandCooldown cooldown;
 
     public SimpleCommandExecutor(AeroCommandHandler<?> handler, String name, C command) {
         super(handler, name, command);
         this.options = command.getClass().getAnnotation(CommandOptions.class);
+
+        // Precompute the source types and permission node
+        if (options == null) {
+            this.sources = null;
+            this.permission = null;
+            this.lane = null;
+            this.cooldown = null;
+        } else {
+            this.sources = options.sources().length == 0 ? new SourceType[]{options.source()} : options.sources();
+            this.permission = options.permission().isEmpty() ? handler.getPlugin().getName().toLowerCase() + "." + options.subPermission() : options.permission();
+            this.lane = options.async() ? new CommandLane(options.concurrency(), options.queueDepth()) : null;
+            this.cooldown = options.cooldown() > 0 ? new CommandCooldown(options.cooldown(), options.rate()) : null;
+        }
+    }
+
+    /**
+     * Returns the cooldown of this command.
+     *
+     * @return The cooldown, or null if the command has no cooldown.
+     */
+    public CommandCooldown getCooldown() {
+        return cooldown;
     }
 
     public CommandOptions getOptions() {
@@ -58,13 +88,83 @@ public class SimpleCommandExecutor<C extends AeroCommandBase<?>> extends Abstrac
             return true;
         }
 
+        final boolean limited = hasCooldown(sender);
+        if (limited && !checkCooldown((Player) sender)) {
+            return true;
+        }
+
+        final CommandContext context = new CommandContext(sender, command, label, args);
+        if (lane != null) {
+            // A busy command did not run, so it does not count towards the cooldown
+            if (!lane.submit(() -> runAsync(context), () -> WorkerPool.runSync(handler.getPlugin(), () -> sendBusy(sender, limited)))) {
+                sendBusy(sender, limited);
+            }
+            return true;
+        }
+
+        return run(context);
+    }
+
+    private void sendBusy(CommandSender sender, boolean limited) {
+        if (limited) {
+            cooldown.release(((Player) sender).getUniqueId());
+        }
+        sender.sendMessage(ChatColor.RED + "This command is busy, please try again later.");
+    }
+
+    private boolean hasCooldown(CommandSender sender) {
+        if (cooldown == null || !(sender instanceof Player)) {
+            return false;
+        }
+
+        return options.cooldownBypass().isEmpty() || !sender.hasPermission(options.cooldownBypass());
+    }
+
+    private boolean checkCooldown(Player sender) {
+        final long remaining = cooldown.tryAcquire(sender.getUniqueId());
+        if (remaining == 0) {
+            return true;
+        }
+
+        final String message = options.cooldownMessage();
+        if (!message.isEmpty()) {
+            sender.sendMessage(ChatColor.RED + message.replace("<time>", String.format("%.1f", remaining / 1000.0)));
+        }
+        return false;
+    }
+
+    private boolean run(CommandContext context) {
+        final boolean timed = handler.isTimingEnabled();
+        final long start = timed ? System.nanoTime() : 0;
         try {
-            return commandBase.runCommand(sender, command, label, args);
+            return commandBase.runCommand(context);
         } catch (Exception ex) {
+            context.fail();
             // If this is ever ran, Aero failed :C
-            handler.getPlugin().handleException("Unhandled command exception: " + command.getName(), ex);
-            sender.sendMessage(ChatColor.RED + "Unhandled Command Error: " + command.getName());
+            handler.getPlugin().handleException("Unhandled command exception: " + context.getCommand().getName(), ex);
+            context.getSender().sendMessage(ChatColor.RED + "Unhandled Command Error: " + context.getCommand().getName());
             return true;
+        } finally {
+            if (timed) {
+                stats.record(System.nanoTime() - start, context.isFailed());
+            }
+        }
+    }
+
+    private void runAsync(CommandContext context) {
+        if (run(context)) {
+            return;
+        }
+
+        // Bukkit only sends the usage for commands which return false synchronously
+        final Command command = context.getCommand();
+        final String usage = command.getUsage();
+        if (usage != null && !usage.isEmpty()) {
+            WorkerPool.runSync(handler.getPlugin(), () -> {
+                for (String line : usage.replace("<command>", context.getLabel()).split("\n")) {
+                    context.getSender().sendMessage(line);
+                }
+            });
         }
     }
 
@@ -84,8 +184,7 @@ public class SimpleCommandExecutor<C extends AeroCommandBase<?>> extends Abstrac
         }
 
         // Match source type
-        if (options != null) {
-            final SourceType[] sources = options.sources().length == 0 ? new SourceType[]{options.source()} : options.sources();
+        if (sources != null) {
             boolean matches = false;
             for (SourceType type : sources) {
                 if (type.matches(sender)) {
@@ -101,6 +200,28 @@ public class SimpleCommandExecutor<C extends AeroCommandBase<?>> extends Abstrac
             }
         }
 
+        // Cached decision?
+        if (!(sender instanceof Player)) {
+            return checkPermission(sender);
+        }
+
+        final Player player = (Player) sender;
+        final PermissionCache<?> cache = handler.getPermissionCache();
+        if (cache == null) {
+            return checkPermission(player);
+        }
+
+        final Boolean cached = cache.get(player, name);
+        if (cached != null) {
+            return cached;
+        }
+
+        final boolean decision = checkPermission(player);
+        cache.put(player, name, decision);
+        return decision;
+    }
+
+    private boolean checkPermission(CommandSender sender) {
         // Superpermission?
         final String superPermission = handler.getSuperPermission();
         if (superPermission != null && !superPermission.isEmpty()) {
@@ -110,11 +231,8 @@ public class SimpleCommandExecutor<C extends AeroCommandBase<?>> extends Abstrac
         }
 
         // Annotation?
-        if (options != null) {
-            final String permission = options.permission().isEmpty() ? handler.getPlugin().getName().toLowerCase() + "." + options.subPermission() : options.permission();
-            if (!permission.isEmpty()) {
-                return sender.hasPermission(permission);
-            }
+        if (permission != null && !permission.isEmpty()) {
+            return sender.hasPermission(permission);
         }
 
         // SimplePermissionHandler?
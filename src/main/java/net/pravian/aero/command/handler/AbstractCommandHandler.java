@@ -15,10 +15,19 @@
  */
 package net.pravian.aero.command.handler;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
 import net.pravian.aero.command.AeroCommandBase;
+import net.pravian.aero.command.completion.CompletionEngine;
+import net.pravian.aero.command.dynamic.DynamicCommand;
+import net.pravian.aero.command.executor.AeroCommandExecutor;
+import net.pravian.aero.command.executor.CommandStats;
+import net.pravian.aero.command.executor.LazyCommandExecutor;
 import net.pravian.aero.command.permission.AeroPermissionHandler;
+import net.pravian.aero.command.permission.PermissionCache;
 import net.pravian.aero.component.PluginComponent;
 import net.pravian.aero.plugin.AeroLogger;
 import net.pravian.aero.plugin.AeroPlugin;
@@ -27,7 +36,6 @@ import org.bukkit.ChatColor;
 public abstract class AbstractCommandHandler<T extends AeroPlugin<T>> extends PluginComponent<T> implements AeroCommandHandler<T> {
 
     @Getter
-    @Setter
     protected String superPermission = plugin.getName().toLowerCase() + ".*";
     @Getter
     @Setter
@@ -48,8 +56,14 @@ public abstract class AbstractCommandHandler<T extends AeroPlugin<T>> extends Pl
     @Setter
     protected String commandClassPrefix = "Command";
     @Getter
-    @Setter
     private AeroPermissionHandler permissionHandler = null;
+    @Getter
+    @Setter
+    protected boolean timingEnabled = true;
+    @Getter
+    protected final PermissionCache<T> permissionCache = new PermissionCache<>(plugin);
+    @Getter
+    protected final CompletionEngine<T> completions = new CompletionEngine<>(plugin);
 
     public AbstractCommandHandler(T plugin) {
         this(plugin, plugin.getPluginLogger());
@@ -59,6 +73,42 @@ public abstract class AbstractCommandHandler<T extends AeroPlugin<T>> extends Pl
         super(plugin, logger);
     }
 
+    @Override
+    public void setSuperPermission(String superPermission) {
+        this.superPermission = superPermission;
+        permissionCache.invalidateAll();
+    }
+
+    @Override
+    public void setPermissionHandler(AeroPermissionHandler permissionHandler) {
+        this.permissionHandler = permissionHandler;
+        permissionCache.invalidateAll();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public List<String> getStatsReport() {
+        final List<AeroCommandExecutor<?>> executors = new ArrayList<>(getExecutors());
+        executors.sort((a, b) -> Long.compare(b.getStats().getPercentile(0.99), a.getStats().getPercentile(0.99)));
+
+        final List<String> report = new ArrayList<>();
+        for (AeroCommandExecutor<?> executor : executors) {
+            report.add(executor.getName() + ": " + executor.getStats().getSummary());
+
+            // Do not instantiate lazy commands for the report
+            if (executor instanceof LazyCommandExecutor && !((LazyCommandExecutor<?>) executor).isLoaded()) {
+                continue;
+            }
+
+            if (executor.getCommandBase() instanceof DynamicCommand) {
+                for (Map.Entry<String, CommandStats> overload : ((DynamicCommand<?>) executor.getCommandBase()).getOverloadStats().entrySet()) {
+                    report.add("  " + overload.getKey() + ": " + overload.getValue().getSummary());
+                }
+            }
+        }
+        return report;
+    }
+
     @Override
     public void addAll(Iterable<? extends AeroCommandBase<T>> commands) {
         for (AeroCommandBase<T> command : commands) {
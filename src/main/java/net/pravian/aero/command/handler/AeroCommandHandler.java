@@ -16,10 +16,14 @@
 package net.pravian.aero.command.handler;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import net.pravian.aero.command.AeroCommandBase;
+import net.pravian.aero.command.completion.CompletionEngine;
 import net.pravian.aero.command.executor.AeroCommandExecutor;
 import net.pravian.aero.command.permission.AeroPermissionHandler;
+import net.pravian.aero.command.permission.PermissionCache;
 import net.pravian.aero.plugin.AeroPlugin;
 import org.bukkit.command.PluginCommand;
 
@@ -55,6 +59,53 @@ public interface AeroCommandHandler<T extends AeroPlugin<T>> {
 
     public void setPermissionHandler(AeroPermissionHandler permissionHandler);
 
+    /**
+     * Returns the cache of command permission decisions used by this handler.
+     *
+     * @return The cache, or null if this handler does not cache permission decisions.
+     */
+    public default PermissionCache<T> getPermissionCache() {
+        return null;
+    }
+
+    /**
+     * Returns the completion engine used to complete command arguments.
+     *
+     * @return The engine, or null to use the default completions of Bukkit.
+     */
+    public default CompletionEngine<T> getCompletions() {
+        return null;
+    }
+
+    /**
+     * Validates if command executions are timed.
+     *
+     * @return True if executions are timed.
+     */
+    public default boolean isTimingEnabled() {
+        return false;
+    }
+
+    /**
+     * Sets if command executions should be timed.
+     *
+     * <p>
+     * Does nothing by default, for handlers which do not support timing. Such handlers always return false from {@link #isTimingEnabled()}.</p>
+     *
+     * @param enabled If executions should be timed.
+     */
+    public default void setTimingEnabled(boolean enabled) {
+    }
+
+    /**
+     * Returns a report of the execution statistics of every command, one line per command.
+     *
+     * @return The report, empty if this handler does not keep statistics.
+     */
+    public default List<String> getStatsReport() {
+        return Collections.emptyList();
+    }
+
     public String getSuperPermission();
 
     public void setSuperPermission(String permission);
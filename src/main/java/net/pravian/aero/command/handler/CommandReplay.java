@@ -0,0 +1,193 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.handler;
+
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import net.pravian.aero.command.executor.AeroCommandExecutor;
+import net.pravian.aero.concurrent.BukkitSyncTask;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.PluginCommand;
+
+/**
+ * Represents a replay of recorded command lines through a command handler, to measure the command pipeline under load.
+ *
+ * <p>
+ * Each line of the log is one command line, with or without leading slash. Lines are dispatched on the main thread through the executors of the handler at a fixed amount per tick, so permission
+ * checks, cooldowns, async handoff and statistics behave as they do in production. Once the log is exhausted the replay reports its throughput, the allocation rate of the main thread where the JVM
+ * supports measuring it, and the latency report of the handler.</p>
+ *
+ * <p>
+ * Example:
+ * <pre>
+ * new CommandReplay(handler, Bukkit.getConsoleSender(), new File(getDataFolder(), "commands.log"), 50)
+ *         .start()
+ *         .thenAccept(report -&gt; report.forEach(getLogger()::info));
+ * </pre></p>
+ *
+ * @see AeroCommandHandler#getStatsReport()
+ */
+public class CommandReplay {
+
+    private final AeroCommandHandler<?> handler;
+    private final CommandSender sender;
+    private final List<String> lines;
+    private final int perTick;
+    private final CompletableFuture<List<String>> result = new CompletableFuture<List<String>>();
+    private final ReplayTask task;
+    //
+    private int position = 0;
+    private int dispatched = 0;
+    private int unknown = 0;
+    private long nanos = 0;
+    private long allocated = 0;
+
+    /**
+     * Creates a new CommandReplay instance.
+     *
+     * @param handler The handler to dispatch the commands through. Its commands must be registered.
+     * @param sender The sender to run the commands as.
+     * @param log The file containing one command line per line.
+     * @param perTick The amount of command lines to dispatch per tick.
+     * @throws IOException If the log could not be read.
+     */
+    public CommandReplay(AeroCommandHandler<?> handler, CommandSender sender, File log, int perTick) throws IOException {
+        this(handler, sender, Files.readAllLines(log.toPath(), StandardCharsets.UTF_8), perTick);
+    }
+
+    public CommandReplay(AeroCommandHandler<?> handler, CommandSender sender, List<String> lines, int perTick) {
+        Preconditions.checkArgument(perTick > 0, "Commands per tick must be positive!");
+        this.handler = Preconditions.checkNotNull(handler, "Handler may not be null!");
+        this.sender = Preconditions.checkNotNull(sender, "Sender may not be null!");
+        this.lines = new ArrayList<String>(lines);
+        this.perTick = perTick;
+        this.task = new ReplayTask();
+    }
+
+    /**
+     * Starts the replay. The statistics of the handler are not reset.
+     *
+     * @return The future which completes with the report once all lines have been dispatched.
+     */
+    public CompletableFuture<List<String>> start() {
+        task.start(1, 1);
+        return result;
+    }
+
+    /**
+     * Stops the replay early and completes its report.
+     */
+    public void stop() {
+        Bukkit.getScheduler().cancelTask(task.getTaskId());
+        complete();
+    }
+
+    private void tick() {
+        final long allocatedBefore = getAllocatedBytes();
+        final long start = System.nanoTime();
+
+        final int end = Math.min(lines.size(), position + perTick);
+        for (; position < end; position++) {
+            dispatch(lines.get(position));
+        }
+
+        nanos += System.nanoTime() - start;
+        if (allocatedBefore >= 0) {
+            allocated += getAllocatedBytes() - allocatedBefore;
+        }
+
+        if (position >= lines.size()) {
+            stop();
+        }
+    }
+
+    private void dispatch(String line) {
+        line = line.trim();
+        if (line.startsWith("/")) {
+            line = line.substring(1);
+        }
+
+        if (line.isEmpty() || line.startsWith("#")) {
+            return;
+        }
+
+        final String[] parts = line.split(" ");
+        final String label = parts[0].toLowerCase();
+        final AeroCommandExecutor<?> executor = handler.getExecutorMap().get(label);
+        final PluginCommand command = handler.getRegisteredCommandsMap().get(label);
+        if (executor == null || command == null) {
+            unknown++;
+            return;
+        }
+
+        executor.onCommand(sender, command, label, Arrays.copyOfRange(parts, 1, parts.length));
+        dispatched++;
+    }
+
+    private void complete() {
+        if (result.isDone()) {
+            return;
+        }
+
+        final List<String> report = new ArrayList<String>();
+        final double seconds = nanos / 1000000000.0;
+        report.add("Replayed " + dispatched + " commands (" + unknown + " unknown) in " + String.format("%.3f", seconds) + "s of main thread time");
+        if (seconds > 0) {
+            report.add("Throughput: " + String.format("%.0f", dispatched / seconds) + " commands/s");
+        }
+        if (getAllocatedBytes() >= 0 && dispatched > 0) {
+            report.add("Allocated: " + (allocated / dispatched) + " bytes/command, " + String.format("%.1f", allocated / 1048576.0 / Math.max(seconds, 1e-9)) + " MiB/s");
+        }
+        report.addAll(handler.getStatsReport());
+        result.complete(report);
+    }
+
+    // Returns -1 if the JVM does not support measuring allocations
+    private static long getAllocatedBytes() {
+        final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+
+        final com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+        if (!sunBean.isThreadAllocatedMemorySupported() || !sunBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return sunBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private class ReplayTask extends BukkitSyncTask {
+
+        private ReplayTask() {
+            super(CommandReplay.this.handler.getPlugin());
+        }
+
+        @Override
+        public void run() {
+            tick();
+        }
+    }
+
+}
@@ -19,23 +19,36 @@ import com.google.common.collect.Maps;
 import com.google.common.reflect.ClassPath;
 import com.google.common.reflect.ClassPath.ClassInfo;
 import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
+import lombok.Getter;
 import lombok.Setter;
 import net.pravian.aero.command.AeroCommandBase;
+import net.pravian.aero.command.CommandOptions;
 import net.pravian.aero.command.CommandReflection;
+import net.pravian.aero.command.dynamic.DynamicCommand;
+import net.pravian.aero.command.dynamic.parser.CustomParser;
+import net.pravian.aero.command.dynamic.parser.DefaultParser;
 import net.pravian.aero.command.executor.AeroCommandExecutor;
 import net.pravian.aero.command.executor.AeroCommandExecutorFactory;
+import net.pravian.aero.command.executor.LazyCommandExecutor;
 import net.pravian.aero.command.executor.SimpleCommandExecutor;
+import net.pravian.aero.command.index.CommandIndex;
 import net.pravian.aero.plugin.AeroLogger;
 import net.pravian.aero.plugin.AeroPlugin;
 import org.bukkit.command.Command;
@@ -49,10 +62,24 @@ import org.bukkit.command.PluginCommand;
  */
 public class SimpleCommandHandler<T extends AeroPlugin<T>> extends AbstractCommandHandler<T> {
 
+    private static final int MAX_LOADER_THREADS = 4;
+    //
     private final Map<String, AeroCommandExecutor<?>> commands = Maps.newHashMap();
     private final Map<String, PluginCommand> registeredCommands = Maps.newHashMap();
     @Setter
     private AeroCommandExecutorFactory executorFactory;
+    /**
+     * Whether commands loaded with {@link #loadFrom(Package)} are instantiated on first use instead of immediately.
+     *
+     * <p>
+     * Commands which could fail to load are still instantiated immediately, so they are reported when they are loaded rather than on first use. This includes command classes without a public
+     * zero-argument constructor, and dynamic commands of which a command method does not return a boolean or takes an argument without a custom or builtin parser.</p>
+     *
+     * @see LazyCommandExecutor
+     */
+    @Getter
+    @Setter
+    private boolean lazyLoading = false;
 
     public SimpleCommandHandler(T plugin) {
         this(plugin, plugin.getPluginLogger());
@@ -74,8 +101,69 @@ public class SimpleCommandHandler<T extends AeroPlugin<T>> extends AbstractComma
         commands.clear();
     }
 
+    private List<Class<?>> loadIndexedClasses(Package pack) {
+        final CommandIndex index;
+        try {
+            index = CommandIndex.load(plugin);
+        } catch (IOException ex) {
+            logger.warning("Could not read command index! Falling back to scanning the plugin file.");
+            return null;
+        }
+
+        if (index == null) {
+            return null;
+        }
+
+        final List<String> names = new ArrayList<>();
+        for (CommandIndex.Entry entry : index.getEntries(pack.getName())) {
+            names.add(entry.getClassName());
+        }
+
+        return resolveClasses(names);
+    }
+
+    // Loads the classes in parallel, without initializing them. Failures are reported on the calling thread.
+    private List<Class<?>> resolveClasses(List<String> names) {
+        final List<Class<?>> classes = new ArrayList<>();
+        if (names.isEmpty()) {
+            return classes;
+        }
+
+        final ClassLoader loader = plugin.getClass().getClassLoader();
+        final int threads = Math.min(names.size(), Math.min(MAX_LOADER_THREADS, Runtime.getRuntime().availableProcessors()));
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            final Thread thread = new Thread(runnable, "Aero Command Loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            final List<Future<Class<?>>> futures = new ArrayList<>(names.size());
+            for (String name : names) {
+                futures.add(executor.submit(() -> Class.forName(name, false, loader)));
+            }
+
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    classes.add(futures.get(i).get());
+                } catch (ExecutionException ex) {
+                    logger.severe("Could not load command class: " + names.get(i) + "! Class not found.");
+                    logger.severe(ex.getCause());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    logger.severe("Interrupted whilst loading command classes!");
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        return classes;
+    }
+
     private List<Class<?>> loadClasses(Package pack) {
-        List<Class<?>> classes = new ArrayList<>();
+        List<String> names = new ArrayList<>();
 
         String prefix = pack.getName().replace('.', '/');
 
@@ -118,28 +206,23 @@ public class SimpleCommandHandler<T extends AeroPlugin<T>> extends AbstractComma
                 continue;
             }
 
-            String loadName = name.substring(0, name.length() - 6).replace('/', '.');
-
-            Class<?> loadClass;
-            try {
-                loadClass = Class.forName(loadName, true, plugin.getClass().getClassLoader());
-            } catch (ClassNotFoundException ex) {
-                logger.severe("Could not load command class: " + loadName + "! Class not found.");
-                logger.severe(ex);
-                continue;
-            }
-
-            classes.add(loadClass);
-
+            names.add(name.substring(0, name.length() - 6).replace('/', '.'));
         }
 
-        return classes;
+        return resolveClasses(names);
     }
 
     @Override
     @SuppressWarnings("unchecked")
     public int loadFrom(Package pack) {
-        List<Class<?>> classes = loadClasses(pack);
+        List<Class<?>> classes = loadIndexedClasses(pack);
+        if (classes == null) {
+            classes = loadClasses(pack);
+        }
+
+        if (classes == null) {
+            return 0;
+        }
 
         int loaded = 0;
         for (Class<?> clazz : classes) {
@@ -156,6 +239,19 @@ public class SimpleCommandHandler<T extends AeroPlugin<T>> extends AbstractComma
                 continue;
             }
 
+            if (lazyLoading) {
+                if (!AeroCommandBase.class.isAssignableFrom(clazz) || clazz.isInterface() || Modifier.isAbstract(clazz.getModifiers())) {
+                    logger.warning("Skipping command class: " + className + ". Class is not a command!");
+                    continue;
+                }
+
+                if (canLoadLazily(clazz)) {
+                    commands.put(commandName, new LazyCommandExecutor<T>(this, commandName, (Class<? extends AeroCommandBase<T>>) clazz));
+                    loaded++;
+                    continue;
+                }
+            }
+
             AeroCommandBase<T> command;
             try {
                 command = (AeroCommandBase<T>) clazz.newInstance();
@@ -178,6 +274,47 @@ public class SimpleCommandHandler<T extends AeroPlugin<T>> extends AbstractComma
         return loaded;
     }
 
+    // Validates what can be validated without instantiating the command
+    @SuppressWarnings("deprecation")
+    private boolean canLoadLazily(Class<?> clazz) {
+        if (!Modifier.isPublic(clazz.getModifiers()) || !hasPublicConstructor(clazz)) {
+            return false;
+        }
+
+        if (!DynamicCommand.class.isAssignableFrom(clazz)) {
+            return true;
+        }
+
+        // Argument parsers registered by the command itself are only known once it is instantiated
+        for (Method method : clazz.getMethods()) {
+            if (method.getAnnotation(CommandOptions.class) == null) {
+                continue;
+            }
+
+            if (method.getReturnType() != boolean.class && method.getReturnType() != Boolean.class) {
+                return false;
+            }
+
+            for (Class<?> type : method.getParameterTypes()) {
+                final CustomParser parser = type.getAnnotation(CustomParser.class);
+                if (parser == null ? DefaultParser.forClass(type) == null : !hasPublicConstructor(parser.value())) {
+                    return false;
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean hasPublicConstructor(Class<?> clazz) {
+        try {
+            clazz.getConstructor();
+            return true;
+        } catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+
     @Override
     public void add(AeroCommandBase<T> command, String name) {
         if (name == null) {
@@ -225,6 +362,7 @@ public class SimpleCommandHandler<T extends AeroPlugin<T>> extends AbstractComma
 
         // Used to unregister old commands when force-registering
         Map<String, Command> mapKnownCommands = null;
+        Map<Command, List<String>> labelIndex = null;
 
         for (String name : commands.keySet()) {
             final PluginCommand command = CommandReflection.newPluginCommand(name, plugin);
@@ -253,11 +391,18 @@ public class SimpleCommandHandler<T extends AeroPlugin<T>> extends AbstractComma
                     prevCommand.unregister(map);
 
                     // Remove any references to the old command
-                    for (String label : new HashSet<>(mapKnownCommands.keySet())) {
-                        Command loopCommand = mapKnownCommands.get(label);
-                        if (prevCommand.equals(loopCommand)) {
-                            mapKnownCommands.remove(label);
+                    if (labelIndex == null) {
+                        labelIndex = indexLabels(mapKnownCommands);
+                    }
+
+                    final List<String> labels = labelIndex.remove(prevCommand);
+                    if (labels != null) {
+                        for (String label : labels) {
+                            mapKnownCommands.remove(label, prevCommand);
                         }
+                    } else {
+                        // Registered during this batch, so not indexed
+                        mapKnownCommands.values().removeIf(prevCommand::equals);
                     }
                 }
             }
@@ -273,6 +418,20 @@ public class SimpleCommandHandler<T extends AeroPlugin<T>> extends AbstractComma
         return true;
     }
 
+    // Reverse index of the known commands, built once per registerAll call
+    private static Map<Command, List<String>> indexLabels(Map<String, Command> knownCommands) {
+        final Map<Command, List<String>> index = new IdentityHashMap<>();
+        for (Map.Entry<String, Command> entry : knownCommands.entrySet()) {
+            List<String> labels = index.get(entry.getValue());
+            if (labels == null) {
+                labels = new ArrayList<>(2);
+                index.put(entry.getValue(), labels);
+            }
+            labels.add(entry.getKey());
+        }
+        return index;
+    }
+
     @Override
     public Map<String, AeroCommandExecutor<?>> getExecutorMap() {
         return Collections.unmodifiableMap(commands);
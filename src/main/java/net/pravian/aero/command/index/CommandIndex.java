@@ -0,0 +1,232 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.index;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Getter;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Represents the index of command classes in a plugin, generated at compile time.
+ *
+ * <p>
+ * The index is written to {@value #RESOURCE} by the {@link CommandIndexProcessor} and lists every concrete command class together with its {@link net.pravian.aero.command.CommandOptions}. Reading
+ * the index replaces scanning the plugin jar for command classes.</p>
+ *
+ * @see net.pravian.aero.command.handler.AeroCommandHandler#loadFrom(Package)
+ */
+public class CommandIndex {
+
+    public static final String RESOURCE = "META-INF/aero/commands.idx";
+    //
+    @Getter
+    private final List<Entry> entries;
+
+    private CommandIndex(List<Entry> entries) {
+        this.entries = Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * Loads the command index of a plugin.
+     *
+     * @param plugin The plugin.
+     * @return The index, or null if the plugin has no command index.
+     * @throws IOException If the index could not be read.
+     */
+    public static CommandIndex load(Plugin plugin) throws IOException {
+        final InputStream in = plugin.getResource(RESOURCE);
+        if (in == null) {
+            return null;
+        }
+
+        try {
+            return read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Reads a command index.
+     *
+     * @param in The stream to read from.
+     * @return The index.
+     * @throws IOException If the index could not be read.
+     */
+    public static CommandIndex read(InputStream in) throws IOException {
+        final List<Entry> entries = new ArrayList<>();
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            final String[] fields = line.split("\t", -1);
+            final Map<String, String> options = new LinkedHashMap<>();
+            for (int i = 1; i < fields.length; i++) {
+                final int index = fields[i].indexOf('=');
+                if (index == -1) {
+                    throw new IOException("Invalid command index entry: " + line);
+                }
+                options.put(fields[i].substring(0, index), unescape(fields[i].substring(index + 1)));
+            }
+
+            entries.add(new Entry(fields[0], Collections.unmodifiableMap(options)));
+        }
+
+        return new CommandIndex(entries);
+    }
+
+    /**
+     * Returns the entries of all command classes in a package and its subpackages.
+     *
+     * @param pack The name of the package.
+     * @return The entries.
+     */
+    public List<Entry> getEntries(String pack) {
+        final String prefix = pack + ".";
+        final List<Entry> packageEntries = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.getClassName().startsWith(prefix)) {
+                packageEntries.add(entry);
+            }
+        }
+        return packageEntries;
+    }
+
+    static String format(Entry entry) {
+        final StringBuilder line = new StringBuilder(entry.getClassName());
+        for (Map.Entry<String, String> option : entry.getOptions().entrySet()) {
+            line.append('\t')
+                    .append(option.getKey())
+                    .append('=')
+                    .append(escape(option.getValue()));
+        }
+        return line.toString();
+    }
+
+    static String escape(String value) {
+        final StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                default:
+                    builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    static String unescape(String value) {
+        if (value.indexOf('\\') == -1) {
+            return value;
+        }
+
+        final StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            if (c != '\\' || i + 1 == value.length()) {
+                builder.append(c);
+                continue;
+            }
+
+            final char next = value.charAt(++i);
+            switch (next) {
+                case 't':
+                    builder.append('\t');
+                    break;
+                case 'n':
+                    builder.append('\n');
+                    break;
+                case 'r':
+                    builder.append('\r');
+                    break;
+                default:
+                    builder.append(next);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Represents an indexed command class.
+     */
+    public static class Entry {
+
+        @Getter
+        private final String className;
+        @Getter
+        private final Map<String, String> options;
+
+        private Entry(String className, Map<String, String> options) {
+            this.className = className;
+            this.options = options;
+        }
+
+        /**
+         * Returns the simple name of the command class.
+         *
+         * @return The simple name.
+         */
+        public String getSimpleName() {
+            final String name = className.substring(className.lastIndexOf('.') + 1);
+            return name.substring(name.lastIndexOf('$') + 1);
+        }
+
+        /**
+         * Returns the value of a CommandOptions element.
+         *
+         * @param name The name of the element, for example "aliases".
+         * @return The value, or null if the class has no CommandOptions annotation.
+         */
+        public String getOption(String name) {
+            return options.get(name);
+        }
+
+        /**
+         * Validates if the command class is annotated with CommandOptions.
+         *
+         * @return True if the class has CommandOptions.
+         */
+        public boolean hasOptions() {
+            return !options.isEmpty();
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Represents the annotation processor which generates the {@link CommandIndex} of a plugin at compile time.
+ *
+ * <p>
+ * The processor is registered as a service in the Aero artifact, and runs automatically when compiling against Aero. It indexes every concrete class extending
+ * {@link net.pravian.aero.command.AeroCommandBase}, without initializing any of them.</p>
+ *
+ * <p>
+ * When only some classes are recompiled, the entries of the previous index are kept for every class which was not recompiled and still exists.</p>
+ */
+@SupportedAnnotationTypes("*")
+public class CommandIndexProcessor extends AbstractProcessor {
+
+    private static final String COMMAND_BASE = "net.pravian.aero.command.AeroCommandBase";
+    private static final String COMMAND_OPTIONS = "net.pravian.aero.command.CommandOptions";
+    //
+    private final Map<String, String> entries = new TreeMap<>();
+    private final Set<String> scanned = new HashSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            write();
+            return false;
+        }
+
+        final TypeElement commandBase = processingEnv.getElementUtils().getTypeElement(COMMAND_BASE);
+        if (commandBase == null) {
+            return false;
+        }
+
+        final TypeMirror commandType = processingEnv.getTypeUtils().erasure(commandBase.asType());
+        for (Element element : roundEnv.getRootElements()) {
+            scan(element, commandType);
+        }
+        return false;
+    }
+
+    private void scan(Element element, TypeMirror commandType) {
+        if (!element.getKind().isClass() && !element.getKind().isInterface()) {
+            return;
+        }
+
+        for (Element enclosed : element.getEnclosedElements()) {
+            scan(enclosed, commandType);
+        }
+
+        scanned.add(processingEnv.getElementUtils().getBinaryName((TypeElement) element).toString());
+
+        if (element.getKind() != ElementKind.CLASS
+                || element.getModifiers().contains(Modifier.ABSTRACT)
+                || !processingEnv.getTypeUtils().isAssignable(processingEnv.getTypeUtils().erasure(element.asType()), commandType)) {
+            return;
+        }
+
+        final TypeElement type = (TypeElement) element;
+        final StringBuilder entry = new StringBuilder(processingEnv.getElementUtils().getBinaryName(type));
+
+        for (AnnotationMirror mirror : type.getAnnotationMirrors()) {
+            if (!((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(COMMAND_OPTIONS)) {
+                continue;
+            }
+
+            final Map<? extends ExecutableElement, ? extends AnnotationValue> values = processingEnv.getElementUtils().getElementValuesWithDefaults(mirror);
+            for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> value : values.entrySet()) {
+                entry.append('\t')
+                        .append(value.getKey().getSimpleName())
+                        .append('=')
+                        .append(CommandIndex.escape(toString(value.getValue())));
+            }
+        }
+
+        entries.put(processingEnv.getElementUtils().getBinaryName(type).toString(), entry.toString());
+    }
+
+    private String toString(AnnotationValue value) {
+        final Object object = value.getValue();
+
+        if (object instanceof VariableElement) { // Enum constant
+            return ((VariableElement) object).getSimpleName().toString();
+        }
+
+        if (object instanceof List) {
+            final StringBuilder builder = new StringBuilder();
+            for (Object item : (List<?>) object) {
+                if (builder.length() > 0) {
+                    builder.append(',');
+                }
+                builder.append(toString((AnnotationValue) item));
+            }
+            return builder.toString();
+        }
+
+        return String.valueOf(object);
+    }
+
+    private void write() {
+        // Incremental compilation only processes the changed classes, keep the entries of all others
+        if (!merge()) {
+            return;
+        }
+
+        try {
+            final FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", CommandIndex.RESOURCE);
+            try (Writer writer = new OutputStreamWriter(file.openOutputStream(), StandardCharsets.UTF_8)) {
+                writer.write("# Aero command index, generated at compile time\n");
+                for (String entry : entries.values()) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException ex) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Could not write Aero command index: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Adds the entries of the previous index for every class which was not scanned in this compilation and still exists.
+     *
+     * @return True if the index has to be written.
+     */
+    private boolean merge() {
+        final CommandIndex previous;
+        try {
+            final FileObject file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", CommandIndex.RESOURCE);
+            try (InputStream in = file.openInputStream()) {
+                previous = CommandIndex.read(in);
+            }
+        } catch (IOException | IllegalArgumentException ex) {
+            return !entries.isEmpty(); // No previous index
+        }
+
+        int merged = 0;
+        boolean changed = false;
+        for (CommandIndex.Entry entry : previous.getEntries()) {
+            final String className = entry.getClassName();
+            if (scanned.contains(className)) {
+                changed |= !entries.containsKey(className);
+                continue;
+            }
+
+            if (processingEnv.getElementUtils().getTypeElement(className.replace('$', '.')) == null) {
+                changed = true; // Deleted
+                continue;
+            }
+
+            entries.put(className, CommandIndex.format(entry));
+            merged++;
+        }
+
+        return changed || merged < entries.size();
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.permission;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.Getter;
+import lombok.Setter;
+import net.pravian.aero.component.PluginListener;
+import net.pravian.aero.plugin.AeroPlugin;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerCommandSendEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Represents a cache of command permission decisions per player.
+ *
+ * <p>
+ * The cache is disabled by default, and must be enabled with {@link #setEnabled(boolean)}.</p>
+ *
+ * <p>
+ * Decisions are dropped when a player joins, changes worlds or quits, when the server resends the command list to a player, and at the latest once the expiry time has passed. The command list
+ * is resent when a player is opped or deopped and when the permissions of a player are recalculated, but not every permission plugin triggers a recalculation. Plugins which change permissions at
+ * runtime should therefore call {@link #invalidate(Player)} or {@link #invalidateAll()} after doing so. Otherwise, a revoked permission may keep working until the decision expires.</p>
+ *
+ * @param <T> Optional: Type safety for the plugin.
+ */
+public class PermissionCache<T extends AeroPlugin<T>> extends PluginListener<T> {
+
+    private final Map<UUID, Decisions> decisions = new ConcurrentHashMap<>();
+    @Getter
+    @Setter
+    private boolean enabled = false;
+    @Getter
+    @Setter
+    private long expiry = TimeUnit.SECONDS.toMillis(30);
+
+    public PermissionCache(T plugin) {
+        super(plugin);
+    }
+
+    /**
+     * Returns the cached decision for a player and command.
+     *
+     * @param player The player.
+     * @param command The name of the command.
+     * @return The decision, or null if no decision is cached.
+     */
+    public Boolean get(Player player, String command) {
+        if (!enabled) {
+            return null;
+        }
+
+        final Decisions playerDecisions = decisions.get(player.getUniqueId());
+        if (playerDecisions == null) {
+            return null;
+        }
+
+        if (System.currentTimeMillis() >= playerDecisions.expires) {
+            decisions.remove(player.getUniqueId(), playerDecisions);
+            return null;
+        }
+
+        return playerDecisions.values.get(command);
+    }
+
+    /**
+     * Caches the decision for a player and command.
+     *
+     * @param player The player.
+     * @param command The name of the command.
+     * @param decision The decision.
+     */
+    public void put(Player player, String command, boolean decision) {
+        if (!enabled) {
+            return;
+        }
+
+        if (!registered) {
+            register();
+        }
+
+        decisions.computeIfAbsent(player.getUniqueId(), uuid -> new Decisions(System.currentTimeMillis() + expiry))
+                .values.put(command, decision);
+    }
+
+    public void invalidate(Player player) {
+        invalidate(player.getUniqueId());
+    }
+
+    public void invalidate(UUID uuid) {
+        decisions.remove(uuid);
+    }
+
+    public void invalidateAll() {
+        decisions.clear();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerCommandSend(PlayerCommandSendEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        invalidate(event.getPlayer());
+    }
+
+    private static class Decisions {
+
+        private final long expires;
+        private final Map<String, Boolean> values = new ConcurrentHashMap<>();
+
+        private Decisions(long expires) {
+            this.expires = expires;
+        }
+    }
+
+}
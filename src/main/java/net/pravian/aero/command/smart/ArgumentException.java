@@ -2,6 +2,12 @@ package net.pravian.aero.command.smart;
 
 import net.pravian.aero.command.CommandException;
 
+/**
+ * Thrown to stop a SmartCommand and send a message to the sender.
+ *
+ * <p>
+ * Argument exceptions are control flow and are always caught by {@link SmartCommand}, so no stack trace is recorded.</p>
+ */
 public class ArgumentException extends CommandException {
 
     private static final long serialVersionUID = 123006501712L;
@@ -10,4 +16,19 @@ public class ArgumentException extends CommandException {
         super(message);
     }
 
+    /**
+     * Creates an exception which may be shared between threads and invocations.
+     *
+     * @param message The message.
+     * @param shared True to disable suppressed exceptions.
+     */
+    protected ArgumentException(String message, boolean shared) {
+        super(message, null, !shared, false);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
 }
@@ -21,6 +21,9 @@ public class ReturnException extends ArgumentException {
 
     private static final long serialVersionUID = -29222346432700134L;
 
+    private static final ReturnException TRUE = new ReturnException(true, true);
+    private static final ReturnException FALSE = new ReturnException(false, true);
+    //
     @Getter
     private final boolean returnValue;
 
@@ -33,4 +36,19 @@ public class ReturnException extends ArgumentException {
         this.returnValue = returnValue;
     }
 
+    private ReturnException(boolean returnValue, boolean shared) {
+        super(null, shared);
+        this.returnValue = returnValue;
+    }
+
+    /**
+     * Returns a shared exception without a message.
+     *
+     * @param returnValue The value the command returns.
+     * @return The exception.
+     */
+    public static ReturnException of(boolean returnValue) {
+        return returnValue ? TRUE : FALSE;
+    }
+
 }
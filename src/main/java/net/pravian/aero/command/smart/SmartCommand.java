@@ -1,6 +1,9 @@
 package net.pravian.aero.command.smart;
 
+import net.pravian.aero.command.CommandContext;
 import net.pravian.aero.command.TooledCommandBase;
+import net.pravian.aero.command.dynamic.parser.Numbers;
+import net.pravian.aero.command.dynamic.parser.ParseResult;
 import net.pravian.aero.plugin.AeroPlugin;
 import net.pravian.aero.util.Players;
 import net.pravian.aero.util.Plugins;
@@ -21,11 +24,12 @@ public abstract class SmartCommand<T extends AeroPlugin<T>> extends TooledComman
     }
 
     @Override
-    public final boolean runCommand(final CommandSender sender, final Command command, final String label, final String[] args) {
-        setVariables(sender, command, label, args);
+    public final boolean runCommand(final CommandContext context) {
+        final CommandContext previous = enterContext(context);
+        final CommandSender sender = context.getSender();
 
         try {
-            return onCommand(sender, command, label, args);
+            return onCommand(context);
         } catch (ArgumentException ex) {
             boolean value = true;
             if (ex instanceof ReturnException) {
@@ -39,12 +43,28 @@ public abstract class SmartCommand<T extends AeroPlugin<T>> extends TooledComman
 
             return value;
         } catch (Exception ex) {
-            plugin.handleException("Uncaught exception executing command: " + command.getName(), ex);
+            context.fail();
+            plugin.handleException("Uncaught exception executing command: " + context.getCommand().getName(), ex);
             sender.sendMessage(ChatColor.RED + "Command error: " + (ex.getMessage() == null ? "Unknown cause" : ex.getMessage()));
             return true;
+        } finally {
+            exitContext(previous);
         }
     }
 
+    /**
+     * Executed when the command is being ran.
+     *
+     * <p>
+     * Override this method instead of {@link #onCommand(CommandSender, Command, String, String[])} to receive the context of the invocation directly.</p>
+     *
+     * @param context The context of the invocation.
+     * @return true/false depending if the command executed successfully.
+     */
+    protected boolean onCommand(final CommandContext context) {
+        return onCommand(context.getSender(), context.getCommand(), context.getLabel(), context.getArgs());
+    }
+
     protected Player toPlayer(final String name) {
         Player player = Players.getPlayer(name);
         if (player == null) {
@@ -88,49 +108,173 @@ public abstract class SmartCommand<T extends AeroPlugin<T>> extends TooledComman
     }
 
     protected int toInt(String arg) {
-        try {
-            return Integer.parseInt(arg);
-        } catch (NumberFormatException ex) {
+        final ParseResult<Integer> result = new ParseResult<Integer>();
+        if (!Numbers.parseInt(arg, 0, result)) {
             throw new ArgumentException("Invalid number: " + arg);
         }
+        return result.getValue();
     }
 
     protected double toDouble(String arg) {
-        try {
-            return Double.parseDouble(arg);
-        } catch (NumberFormatException ex) {
+        if (!Numbers.isDecimal(arg)) {
             throw new ArgumentException("Invalid number: " + arg);
         }
+        return Double.parseDouble(arg);
     }
 
     protected void length(int length) {
-        if (length != args.length) {
-            throw new ReturnException(false);
+        if (length != getArgs().length) {
+            throw ReturnException.of(false);
         }
     }
 
     protected void minLength(int length) {
-        if (length > args.length) {
-            throw new ReturnException(false);
+        if (length > getArgs().length) {
+            throw ReturnException.of(false);
         }
     }
 
     protected void maxLength(int length) {
-        if (args.length > length) {
-            throw new ReturnException(false);
+        if (getArgs().length > length) {
+            throw ReturnException.of(false);
+        }
+    }
+
+    /**
+     * Validates if the command has exactly the amount of arguments given.
+     *
+     * <p>
+     * Unlike {@link #length(int)}, this method does not throw. Example:</p>
+     * <pre>
+     * if (!hasLength(2)) {
+     *     return false;
+     * }
+     * </pre>
+     *
+     * @param length The amount of arguments.
+     * @return True if the amount of arguments matches.
+     */
+    protected boolean hasLength(int length) {
+        return getArgs().length == length;
+    }
+
+    /**
+     * Validates if the command has at least the amount of arguments given.
+     *
+     * <p>
+     * Unlike {@link #minLength(int)}, this method does not throw.</p>
+     *
+     * @param length The minimum amount of arguments.
+     * @return True if there are at least as many arguments.
+     */
+    protected boolean hasMinLength(int length) {
+        return getArgs().length >= length;
+    }
+
+    /**
+     * Validates if the command has at most the amount of arguments given.
+     *
+     * <p>
+     * Unlike {@link #maxLength(int)}, this method does not throw.</p>
+     *
+     * @param length The maximum amount of arguments.
+     * @return True if there are at most as many arguments.
+     */
+    protected boolean hasMaxLength(int length) {
+        return getArgs().length <= length;
+    }
+
+    /**
+     * Parses an integer, sending the sender an error message if it is invalid.
+     *
+     * <p>
+     * Unlike {@link #toInt(String)}, this method does not throw. Example:</p>
+     * <pre>
+     * final Integer amount = parseInt(args[0]);
+     * if (amount == null) {
+     *     return true;
+     * }
+     * </pre>
+     *
+     * @param arg The argument.
+     * @return The integer, or null if the argument is not a valid integer.
+     */
+    protected Integer parseInt(String arg) {
+        final ParseResult<Integer> result = new ParseResult<Integer>();
+        if (!Numbers.parseInt(arg, 0, result)) {
+            msg("Invalid number: " + arg, ChatColor.RED);
+            return null;
+        }
+        return result.getValue();
+    }
+
+    /**
+     * Parses a decimal number, sending the sender an error message if it is invalid.
+     *
+     * <p>
+     * Unlike {@link #toDouble(String)}, this method does not throw.</p>
+     *
+     * @param arg The argument.
+     * @return The number, or null if the argument is not a valid number.
+     */
+    protected Double parseDouble(String arg) {
+        if (!Numbers.isDecimal(arg)) {
+            msg("Invalid number: " + arg, ChatColor.RED);
+            return null;
+        }
+        return Double.parseDouble(arg);
+    }
+
+    /**
+     * Searches an online player by (partial)name, sending the sender an error message if the player could not be found.
+     *
+     * <p>
+     * Unlike {@link #toPlayer(String)}, this method does not throw.</p>
+     *
+     * @param name The (partial)name.
+     * @return The player, or null if the player could not be found.
+     */
+    protected Player findPlayer(String name) {
+        final Player player = Players.getPlayer(name);
+        if (player == null) {
+            msg("Could not find player: " + name, ChatColor.RED);
         }
+        return player;
+    }
+
+    /**
+     * Searches a world by name, sending the sender an error message if the world could not be found.
+     *
+     * <p>
+     * Unlike {@link #toWorld(String)}, this method does not throw.</p>
+     *
+     * @param name The name of the world.
+     * @return The world, or null if the world could not be found.
+     */
+    protected World findWorld(String name) {
+        final World world = Worlds.getWorld(name);
+        if (world == null) {
+            msg("Could not find world: " + name, ChatColor.RED);
+        }
+        return world;
     }
 
     protected String concat(String[] params) {
-        return StringUtils.join(args, " ");
+        return StringUtils.join(getArgs(), " ");
     }
 
     protected String concat(String[] params, int begin) {
-        return StringUtils.join(args, " ", begin, params.length);
+        return StringUtils.join(getArgs(), " ", begin, params.length);
     }
 
     protected String concat(String[] params, int begin, int end) {
-        return StringUtils.join(args, " ", begin, end);
+        return StringUtils.join(getArgs(), " ", begin, end);
+    }
+
+    @SuppressWarnings("deprecation")
+    private String[] getArgs() {
+        final CommandContext context = getContext();
+        return context != null ? context.getArgs() : args;
     }
 
 }
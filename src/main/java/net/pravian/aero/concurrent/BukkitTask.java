@@ -66,10 +66,12 @@ public abstract class BukkitTask implements Runnable, Cloneable {
     }
 
     /**
-     * Stops the task.
+     * Stops the task, including a task which is waiting for its next run.
+     *
+     * @return true if the task was stopped
      */
     public synchronized boolean stop() {
-        if (!isRunning()) {
+        if (!isRunning() && !isQueued()) {
             return false;
         }
 
@@ -0,0 +1,93 @@
+package net.pravian.aero.concurrent;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Represents the shared, bounded pool of worker threads used to run work off the main thread.
+ *
+ * <p>
+ * The pool has a fixed number of daemon threads and a bounded queue. Work which does not fit in the queue is rejected instead of piling up, so a flood of submissions can not exhaust memory. Bukkit
+ * API calls from a worker should be handed back to the main thread with {@link #runSync(Plugin, Runnable)} or {@link #callSync(Plugin, Callable)}.</p>
+ */
+public class WorkerPool {
+
+    private static final int THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+    private static final int QUEUE = 1024;
+    private static final ExecutorService EXECUTOR;
+
+    static {
+        final AtomicInteger count = new AtomicInteger();
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(THREADS, THREADS, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(QUEUE), runnable -> {
+            final Thread thread = new Thread(runnable, "Aero Worker #" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        EXECUTOR = executor;
+    }
+
+    private WorkerPool() {
+    }
+
+    /**
+     * Runs a task on a worker thread.
+     *
+     * @param task The task to run.
+     * @return True if the task was accepted, false if the pool is saturated.
+     */
+    public static boolean submit(Runnable task) {
+        try {
+            EXECUTOR.execute(task);
+            return true;
+        } catch (RejectedExecutionException ex) {
+            return false;
+        }
+    }
+
+    /**
+     * Runs a task on the main thread. If called from the main thread, the task is ran immediately.
+     *
+     * @param plugin The plugin scheduling the task.
+     * @param task The task to run.
+     */
+    public static void runSync(Plugin plugin, Runnable task) {
+        if (Bukkit.isPrimaryThread()) {
+            task.run();
+            return;
+        }
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+
+    /**
+     * Computes a value on the main thread. If called from the main thread, the value is computed immediately.
+     *
+     * <p>
+     * <b>Warning</b>: Blocking on the returned future from the main thread will deadlock.</p>
+     *
+     * @param <T> The type of the value.
+     * @param plugin The plugin scheduling the task.
+     * @param task The task computing the value.
+     * @return The future which completes with the value.
+     */
+    public static <T> CompletableFuture<T> callSync(Plugin plugin, Callable<T> task) {
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+        runSync(plugin, () -> {
+            try {
+                future.complete(task.call());
+            } catch (Throwable ex) {
+                future.completeExceptionally(ex);
+            }
+        });
+        return future;
+    }
+
+}
@@ -0,0 +1,353 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import net.pravian.aero.plugin.AeroLogger;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+/**
+ * Represents the binary cache of parsed configuration files.
+ *
+ * <p>
+ * The cache is stored in a sidecar file next to the configuration file, and is keyed by the size, modification time and checksum of the configuration file. While the configuration file does not
+ * change, loading it reads the compact binary tree instead of parsing YAML. When it does change, the YAML is parsed and the cache is regenerated on the config writer thread.</p>
+ *
+ * <p>
+ * Configurations containing values other than strings, numbers, booleans, lists and maps (such as serialized ItemStacks) are not cached. A cache file which cannot be read, for example because it
+ * is corrupt, is ignored and the YAML is parsed instead.</p>
+ *
+ * @see YamlConfig#setBinaryCache(boolean)
+ */
+public class ConfigCache {
+
+    private static final int MAGIC = 0x4145524F; // AERO
+    private static final int FORMAT = 1;
+    //
+    private static final byte NULL = 0;
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte DOUBLE = 4;
+    private static final byte BOOLEAN = 5;
+    private static final byte LIST = 6;
+    private static final byte MAP = 7;
+    private static final byte SECTION = 8;
+
+    private ConfigCache() {
+    }
+
+    /**
+     * Returns the cache file used for a configuration file.
+     *
+     * @param file The configuration file.
+     * @return The cache file.
+     */
+    public static File getCacheFile(File file) {
+        return new File(file.getParentFile(), file.getName() + ".cache");
+    }
+
+    /**
+     * Loads a configuration file into a config, using the cache if it matches the file.
+     *
+     * @param config The config to load into.
+     * @param file The configuration file.
+     * @param logger The logger to report cache failures to.
+     * @throws IOException If the configuration file could not be read.
+     * @throws InvalidConfigurationException If the configuration file is not valid YAML.
+     */
+    static void load(YamlConfig config, File file, AeroLogger logger) throws IOException, InvalidConfigurationException {
+        final byte[] contents = Files.readAllBytes(file.toPath());
+        final Key key = Key.of(file, contents);
+        final File cacheFile = getCacheFile(file);
+
+        if (read(config, cacheFile, key)) {
+            return;
+        }
+
+        final YamlConfiguration parsed = new YamlConfiguration();
+        parsed.options().pathSeparator(config.options().pathSeparator());
+        parsed.loadFromString(new String(contents, StandardCharsets.UTF_8));
+
+        final String header = parsed.options().header();
+        final ConfigSnapshot.Node root = ConfigSnapshot.build(parsed);
+
+        if (header != null) {
+            config.options().header(header);
+        }
+        apply(config, root);
+
+        write(cacheFile, key, header, root, logger);
+    }
+
+    private static boolean read(YamlConfig config, File cacheFile, Key key) {
+        if (!cacheFile.exists()) {
+            return false;
+        }
+
+        final String header;
+        final ConfigSnapshot.Node root;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(cacheFile.toPath())))) {
+            if (in.readInt() != MAGIC
+                    || in.readInt() != FORMAT
+                    || in.readLong() != key.size
+                    || in.readLong() != key.modified
+                    || in.readLong() != key.checksum) {
+                return false;
+            }
+
+            header = in.readBoolean() ? readString(in) : null;
+            if (in.readByte() != SECTION) {
+                return false;
+            }
+            root = readNode(in);
+        } catch (IOException | RuntimeException ex) {
+            return false; // Corrupt or unreadable, parse the YAML instead
+        }
+
+        if (header != null) {
+            config.options().header(header);
+        }
+        apply(config, root);
+        return true;
+    }
+
+    private static void write(File cacheFile, Key key, String header, ConfigSnapshot.Node root, AeroLogger logger) {
+        ConfigWriter.execute(() -> {
+            try {
+                final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                final DataOutputStream out = new DataOutputStream(bytes);
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeLong(key.size);
+                out.writeLong(key.modified);
+                out.writeLong(key.checksum);
+                out.writeBoolean(header != null);
+                if (header != null) {
+                    writeString(out, header);
+                }
+                writeValue(out, root);
+                out.flush();
+
+                ConfigWriter.writeAtomic(cacheFile, bytes.toByteArray());
+            } catch (IOException | RuntimeException ex) {
+                logger.debug("Could not write configuration cache: " + cacheFile.getName() + ". " + ex.getMessage());
+                cacheFile.delete();
+            }
+        });
+    }
+
+    /**
+     * Sets all values of a node on a section.
+     *
+     * @param section The section.
+     * @param node The node.
+     */
+    static void apply(ConfigurationSection section, ConfigSnapshot.Node node) {
+        for (Map.Entry<String, Object> entry : node.getEntries().entrySet()) {
+            if (entry.getValue() instanceof ConfigSnapshot.Node) {
+                apply(section.createSection(entry.getKey()), (ConfigSnapshot.Node) entry.getValue());
+            } else {
+                section.set(entry.getKey(), thaw(entry.getValue()));
+            }
+        }
+    }
+
+    private static Object thaw(Object value) {
+        if (value instanceof List) {
+            final List<Object> list = new ArrayList<Object>();
+            for (Object item : (List<?>) value) {
+                list.add(thaw(item));
+            }
+            return list;
+        }
+
+        if (value instanceof Map) {
+            final Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(entry.getKey(), thaw(entry.getValue()));
+            }
+            return map;
+        }
+
+        return value;
+    }
+
+    /**
+     * Writes a value in the binary cache format.
+     *
+     * @param out The stream to write to.
+     * @param value The value.
+     * @throws IOException If the value is not supported or could not be written.
+     */
+    static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value == null) {
+            out.writeByte(NULL);
+        } else if (value instanceof String) {
+            out.writeByte(STRING);
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte(LONG);
+            out.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            out.writeByte(BOOLEAN);
+            out.writeBoolean((Boolean) value);
+        } else if (value instanceof List) {
+            final List<?> list = (List<?>) value;
+            out.writeByte(LIST);
+            out.writeInt(list.size());
+            for (Object item : list) {
+                writeValue(out, item);
+            }
+        } else if (value instanceof Map) {
+            final Map<?, ?> map = (Map<?, ?>) value;
+            out.writeByte(MAP);
+            out.writeInt(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeValue(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else if (value instanceof ConfigSnapshot.Node) {
+            final Map<String, Object> entries = ((ConfigSnapshot.Node) value).getEntries();
+            out.writeByte(SECTION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                writeString(out, entry.getKey());
+                writeValue(out, entry.getValue());
+            }
+        } else {
+            throw new IOException("Unsupported value type: " + value.getClass().getName());
+        }
+    }
+
+    /**
+     * Reads a value in the binary cache format. Lists and maps are returned as mutable copies.
+     *
+     * <p>
+     * Lengths are checked against the remaining bytes of the stream, so the stream must report them from {@link DataInputStream#available()}, as a stream over a byte array does.</p>
+     *
+     * @param in The stream to read from.
+     * @return The value.
+     * @throws IOException If the value could not be read.
+     */
+    static Object readValue(DataInputStream in) throws IOException {
+        final byte type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString(in);
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case BOOLEAN:
+                return in.readBoolean();
+            case LIST: {
+                final int size = readLength(in, 1);
+                final List<Object> list = new ArrayList<Object>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readValue(in));
+                }
+                return list;
+            }
+            case MAP: {
+                final int size = readLength(in, 2);
+                final Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+                for (int i = 0; i < size; i++) {
+                    map.put(readValue(in), readValue(in));
+                }
+                return map;
+            }
+            case SECTION:
+                return readNode(in);
+            default:
+                throw new IOException("Unknown value type: " + type);
+        }
+    }
+
+    private static ConfigSnapshot.Node readNode(DataInputStream in) throws IOException {
+        final int size = readLength(in, 5);
+        final Map<String, Object> entries = new LinkedHashMap<String, Object>();
+        for (int i = 0; i < size; i++) {
+            entries.put(readString(in), readValue(in));
+        }
+        return new ConfigSnapshot.Node(entries);
+    }
+
+    static void writeString(DataOutputStream out, String string) throws IOException {
+        final byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[readLength(in, 1)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Rejects lengths which cannot fit in the rest of the stream before anything is allocated for them
+    private static int readLength(DataInputStream in, int minElementSize) throws IOException {
+        final int length = in.readInt();
+        if (length < 0 || length > in.available() / minElementSize) {
+            throw new IOException("Invalid length: " + length);
+        }
+        return length;
+    }
+
+    private static final class Key {
+
+        private final long size;
+        private final long modified;
+        private final long checksum;
+
+        private Key(long size, long modified, long checksum) {
+            this.size = size;
+            this.modified = modified;
+            this.checksum = checksum;
+        }
+
+        private static Key of(File file, byte[] contents) {
+            final CRC32 crc = new CRC32();
+            crc.update(contents, 0, contents.length);
+            return new Key(contents.length, file.lastModified(), crc.getValue());
+        }
+    }
+
+}
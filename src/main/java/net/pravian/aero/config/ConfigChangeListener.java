@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+/**
+ * Represents a listener which is notified when a watched configuration value changes on disk.
+ *
+ * @see YamlConfig#addChangeListener(PathContainer, ConfigChangeListener)
+ */
+public interface ConfigChangeListener {
+
+    /**
+     * Called on the main thread after a changed value has been applied to the configuration.
+     *
+     * @param path The full path of the value which changed.
+     * @param oldValue The previous value, or null if the value was added.
+     * @param newValue The new value, or null if the value was removed.
+     */
+    public void onChange(String path, Object oldValue, Object newValue);
+
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+/**
+ * Represents a conversion between a typed value and the value stored in a configuration.
+ *
+ * <p>
+ * When used for map keys, the encoded value is stored as its String representation and decoded from that String.</p>
+ *
+ * @param <T> The type of the value.
+ * @see ConfigCodecs
+ * @see YamlConfig#getMap(String, ConfigCodec, ConfigCodec)
+ */
+public interface ConfigCodec<T> {
+
+    /**
+     * Converts a value to the value which should be stored.
+     *
+     * @param value The value.
+     * @return The value to store.
+     */
+    public Object encode(T value);
+
+    /**
+     * Converts a stored value back to its type.
+     *
+     * @param value The stored value.
+     * @return The value, or null if the stored value could not be converted.
+     */
+    public T decode(Object value);
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+/**
+ * Represents the built-in configuration codecs.
+ *
+ * @see ConfigCodec
+ */
+public class ConfigCodecs {
+
+    /**
+     * Leaves values as they are stored.
+     */
+    public static final ConfigCodec<Object> RAW = new ConfigCodec<Object>() {
+
+        @Override
+        public Object encode(Object value) {
+            return value;
+        }
+
+        @Override
+        public Object decode(Object value) {
+            return value;
+        }
+    };
+
+    /**
+     * Encodes Strings as they are, and decodes any value to its String representation.
+     */
+    public static final ConfigCodec<String> STRING = new ConfigCodec<String>() {
+
+        @Override
+        public Object encode(String value) {
+            return value;
+        }
+
+        @Override
+        public String decode(Object value) {
+            return value == null ? null : value.toString();
+        }
+    };
+
+    /**
+     * Encodes UUIDs as their String representation.
+     */
+    public static final ConfigCodec<java.util.UUID> UUID = new ConfigCodec<java.util.UUID>() {
+
+        @Override
+        public Object encode(java.util.UUID value) {
+            return value.toString();
+        }
+
+        @Override
+        public java.util.UUID decode(Object value) {
+            if (value instanceof java.util.UUID) {
+                return (java.util.UUID) value;
+            }
+
+            if (!(value instanceof String)) {
+                return null;
+            }
+
+            try {
+                return java.util.UUID.fromString((String) value);
+            } catch (IllegalArgumentException ex) {
+                return null;
+            }
+        }
+    };
+
+    /**
+     * Encodes Integers as numbers, and decodes numbers and numeric Strings.
+     */
+    public static final ConfigCodec<Integer> INTEGER = new ConfigCodec<Integer>() {
+
+        @Override
+        public Object encode(Integer value) {
+            return value;
+        }
+
+        @Override
+        public Integer decode(Object value) {
+            if (value instanceof Number) {
+                return ((Number) value).intValue();
+            }
+
+            if (!(value instanceof String)) {
+                return null;
+            }
+
+            try {
+                return Integer.parseInt((String) value);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+    };
+
+    /**
+     * Encodes Longs as numbers, and decodes numbers and numeric Strings.
+     */
+    public static final ConfigCodec<Long> LONG = new ConfigCodec<Long>() {
+
+        @Override
+        public Object encode(Long value) {
+            return value;
+        }
+
+        @Override
+        public Long decode(Object value) {
+            if (value instanceof Number) {
+                return ((Number) value).longValue();
+            }
+
+            if (!(value instanceof String)) {
+                return null;
+            }
+
+            try {
+                return Long.parseLong((String) value);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+    };
+
+    /**
+     * Encodes Doubles as numbers, and decodes numbers and numeric Strings.
+     */
+    public static final ConfigCodec<Double> DOUBLE = new ConfigCodec<Double>() {
+
+        @Override
+        public Object encode(Double value) {
+            return value;
+        }
+
+        @Override
+        public Double decode(Object value) {
+            if (value instanceof Number) {
+                return ((Number) value).doubleValue();
+            }
+
+            if (!(value instanceof String)) {
+                return null;
+            }
+
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException ex) {
+                return null;
+            }
+        }
+    };
+
+    /**
+     * Encodes Booleans as they are, and decodes Booleans and the Strings "true" and "false".
+     */
+    public static final ConfigCodec<Boolean> BOOLEAN = new ConfigCodec<Boolean>() {
+
+        @Override
+        public Object encode(Boolean value) {
+            return value;
+        }
+
+        @Override
+        public Boolean decode(Object value) {
+            if (value instanceof Boolean) {
+                return (Boolean) value;
+            }
+
+            if ("true".equals(value)) {
+                return true;
+            }
+
+            if ("false".equals(value)) {
+                return false;
+            }
+
+            return null;
+        }
+    };
+
+    private ConfigCodecs() {
+    }
+
+}
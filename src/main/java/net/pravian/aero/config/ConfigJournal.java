@@ -0,0 +1,385 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.zip.CRC32;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Represents the write-ahead journal of a configuration.
+ *
+ * <p>
+ * Every value set on a journaled configuration is appended to the journal as a checksummed record on the config writer thread. The configuration file itself is only rewritten when the journal is
+ * compacted, after which the journal is cleared. Loading the configuration replays the journal on top of the configuration file. A partially written record at the end of the journal is discarded.</p>
+ *
+ * @see YamlConfig#setJournaled(boolean)
+ */
+public class ConfigJournal {
+
+    private static final int MAGIC = 0x4145524A; // AERJ
+    private static final int FORMAT = 1;
+    private static final int HEADER = 8;
+    private static final int RECORD_HEADER = 12;
+    //
+    private static final byte VALUE = 0;
+    private static final byte YAML = 1;
+    //
+    private static final Set<ConfigJournal> OPEN = Collections.newSetFromMap(new ConcurrentHashMap<ConfigJournal, Boolean>());
+    //
+    private final YamlConfig config;
+    private final File file;
+    private long size; // Main thread
+    private long lastCompaction = System.currentTimeMillis(); // Main thread
+    private FileChannel channel = null; // Writer thread
+
+    ConfigJournal(YamlConfig config) {
+        this.config = config;
+        this.file = getJournalFile(config.getFile());
+        this.size = file.length();
+        OPEN.add(this);
+    }
+
+    /**
+     * Returns the journal file used for a configuration file.
+     *
+     * @param file The configuration file.
+     * @return The journal file.
+     */
+    public static File getJournalFile(File file) {
+        return new File(file.getParentFile(), file.getName() + ".journal");
+    }
+
+    /**
+     * Closes the journals of all configurations belonging to a plugin.
+     *
+     * @param plugin The plugin.
+     */
+    public static void close(Plugin plugin) {
+        for (ConfigJournal journal : OPEN) {
+            if (journal.config.getPlugin() == plugin) {
+                journal.close();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes appended to the journal since it was last compacted.
+     *
+     * @return The size.
+     */
+    long getSize() {
+        return size;
+    }
+
+    /**
+     * Appends a value to the journal, compacting the journal if it has grown past its limit or interval.
+     *
+     * @param path The path of the value.
+     * @param value The value.
+     */
+    void append(String path, Object value) {
+        final byte[] record;
+        try {
+            record = encode(path, value);
+        } catch (IOException ex) {
+            config.getPlugin().handleException("Could not journal configuration value: " + path, ex);
+            return;
+        }
+
+        size += record.length;
+        ConfigWriter.execute(() -> {
+            try {
+                final FileChannel out = open();
+                final ByteBuffer buffer = ByteBuffer.wrap(record);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            } catch (IOException ex) {
+                config.getPlugin().handleException("Could not write configuration journal: " + file.getName(), ex);
+            }
+        });
+
+        if (size >= config.getJournalLimit() || System.currentTimeMillis() - lastCompaction >= config.getJournalInterval()) {
+            compact();
+        }
+    }
+
+    /**
+     * Forces all appended records to disk.
+     */
+    void sync() {
+        ConfigWriter.execute(() -> {
+            if (channel == null) {
+                return;
+            }
+
+            try {
+                channel.force(false);
+            } catch (IOException ex) {
+                config.getPlugin().handleException("Could not write configuration journal: " + file.getName(), ex);
+            }
+        });
+    }
+
+    /**
+     * Rewrites the configuration file and clears the journal.
+     */
+    void compact() {
+        final YamlConfiguration snapshot = config.snapshot();
+        size = 0;
+        lastCompaction = System.currentTimeMillis();
+
+        ConfigWriter.execute(() -> {
+            try {
+                ConfigWriter.writeNow(config.getFile(), snapshot.saveToString());
+
+                final FileChannel out = open();
+                out.truncate(HEADER);
+                out.force(true);
+            } catch (IOException ex) {
+                config.getPlugin().handleException("Could not compact configuration journal: " + file.getName(), ex);
+            }
+        });
+    }
+
+    /**
+     * Applies all records in the journal to the configuration.
+     *
+     * @return The number of records applied.
+     * @throws IOException If the journal could not be read.
+     */
+    int replay() throws IOException {
+        ConfigWriter.await(); // Wait for records which are still queued
+
+        final int[] records = {0};
+        size = read(file, (path, value) -> {
+            apply(path, value);
+            records[0]++;
+        });
+        return records[0];
+    }
+
+    /**
+     * Closes the journal file. The journal is reopened once a value is appended.
+     */
+    void close() {
+        OPEN.remove(this);
+        ConfigWriter.execute(this::closeChannel);
+    }
+
+    /**
+     * Closes and deletes the journal file.
+     */
+    void delete() {
+        size = 0;
+        ConfigWriter.execute(() -> {
+            closeChannel();
+            file.delete();
+        });
+    }
+
+    private void apply(String path, Object value) {
+        if (value instanceof ConfigurationSection) {
+            value = ConfigSnapshot.build((ConfigurationSection) value);
+        }
+
+        if (value instanceof ConfigSnapshot.Node) {
+            ConfigCache.apply(config.createSection(path), (ConfigSnapshot.Node) value);
+        } else {
+            config.set(path, value);
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        if (channel != null) {
+            return channel;
+        }
+
+        file.getAbsoluteFile().getParentFile().mkdirs();
+        final long valid = read(file, null);
+        final FileChannel opened = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+
+        if (valid == 0) {
+            opened.truncate(0);
+            writeHeader(opened);
+        } else if (opened.size() > valid) {
+            // Discard a partially written record
+            opened.truncate(valid);
+        }
+
+        channel = opened;
+        OPEN.add(this);
+        return opened;
+    }
+
+    static void writeHeader(FileChannel out) throws IOException {
+        final ByteBuffer header = ByteBuffer.allocate(HEADER);
+        header.putInt(MAGIC).putInt(FORMAT).flip();
+        while (header.hasRemaining()) {
+            out.write(header);
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.force(true);
+            channel.close();
+        } catch (IOException ex) {
+            config.getPlugin().handleException("Could not close configuration journal: " + file.getName(), ex);
+        }
+        channel = null;
+    }
+
+    /**
+     * Encodes a value as a checksummed journal record.
+     *
+     * @param path The path of the value.
+     * @param value The value.
+     * @return The record.
+     * @throws IOException If the value could not be encoded.
+     */
+    static byte[] encode(String path, Object value) throws IOException {
+        if (value instanceof ConfigurationSection) {
+            value = ConfigSnapshot.build((ConfigurationSection) value);
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(VALUE);
+            ConfigCache.writeString(out, path);
+            ConfigCache.writeValue(out, value);
+        } catch (IOException ex) {
+            // Not a plain value, such as an ItemStack
+            final YamlConfiguration yaml = new YamlConfiguration();
+            yaml.set("value", value);
+
+            bytes.reset();
+            out.writeByte(YAML);
+            ConfigCache.writeString(out, path);
+            ConfigCache.writeString(out, yaml.saveToString());
+        }
+        out.flush();
+
+        final byte[] payload = bytes.toByteArray();
+        final CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER + payload.length);
+        record.putInt(payload.length).putLong(crc.getValue()).put(payload);
+        return record.array();
+    }
+
+    /**
+     * Reads all valid records in a journal file, stopping at the first partially written or corrupted record.
+     *
+     * @param file The journal file.
+     * @param consumer The consumer of the records, or null to only validate them.
+     * @return The length of the valid part of the journal, or 0 if the journal is missing or invalid.
+     * @throws IOException If the journal could not be read.
+     */
+    static long read(File file, BiConsumer<String, Object> consumer) throws IOException {
+        if (!file.exists() || file.length() < HEADER) {
+            return 0;
+        }
+
+        final long length = file.length();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT) {
+                return 0;
+            }
+
+            final CRC32 crc = new CRC32();
+            long valid = HEADER;
+            while (true) {
+                final byte[] payload;
+                final long checksum;
+                try {
+                    final int size = in.readInt();
+                    checksum = in.readLong();
+                    if (size < 0 || size > length - valid - RECORD_HEADER) {
+                        break;
+                    }
+
+                    payload = new byte[size];
+                    in.readFully(payload);
+                } catch (EOFException ex) {
+                    break;
+                }
+
+                crc.reset();
+                crc.update(payload, 0, payload.length);
+                if (crc.getValue() != checksum) {
+                    break;
+                }
+
+                if (consumer != null) {
+                    try {
+                        decode(payload, consumer);
+                    } catch (IOException | InvalidConfigurationException ex) {
+                        break;
+                    }
+                }
+                valid += RECORD_HEADER + payload.length;
+            }
+            return valid;
+        }
+    }
+
+    private static void decode(byte[] payload, BiConsumer<String, Object> consumer) throws IOException, InvalidConfigurationException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        final byte type = in.readByte();
+        final String path = ConfigCache.readString(in);
+
+        switch (type) {
+            case VALUE:
+                consumer.accept(path, ConfigCache.readValue(in));
+                break;
+            case YAML: {
+                final YamlConfiguration yaml = new YamlConfiguration();
+                yaml.loadFromString(ConfigCache.readString(in));
+                consumer.accept(path, yaml.get("value"));
+                break;
+            }
+            default:
+                throw new IOException("Unknown record type: " + type);
+        }
+    }
+
+}
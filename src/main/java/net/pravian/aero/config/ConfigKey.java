@@ -0,0 +1,367 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import com.google.common.base.Preconditions;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Represents a compiled, typed accessor for a single configuration path.
+ *
+ * <p>
+ * The value is looked up once and cached until the config is modified, after which the next read looks it up again. Reading an unchanged value is therefore a field load instead of a path split
+ * and section walk.</p>
+ *
+ * <p>
+ * Example:
+ * <pre>
+ * private final ConfigKey.IntKey maxHomes = ConfigKey.ofInt(config, ConfigPath.MAX_HOMES);
+ *
+ * if (homes.size() >= maxHomes.getInt()) { ... }
+ * </pre></p>
+ *
+ * @param <T> The type of the value.
+ * @see YamlConfig#getGeneration()
+ */
+public class ConfigKey<T> {
+
+    protected final YamlConfig config;
+    protected final String path;
+    private final BiFunction<? super YamlConfig, String, T> getter;
+    private volatile Cached<T> cached = null;
+
+    protected ConfigKey(YamlConfig config, String path, BiFunction<? super YamlConfig, String, T> getter) {
+        this.config = Preconditions.checkNotNull(config, "Config may not be null!");
+        this.path = Preconditions.checkNotNull(path, "Path may not be null!");
+        this.getter = getter;
+    }
+
+    /**
+     * Returns the config this key reads from.
+     *
+     * @return The config.
+     */
+    public YamlConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns the path of this key.
+     *
+     * @return The path.
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Returns the value at the path of this key.
+     *
+     * @return The value.
+     */
+    public T get() {
+        final int generation = config.getGeneration();
+
+        Cached<T> current = cached;
+        if (current == null || current.generation != generation) {
+            current = new Cached<T>(generation, getter.apply(config, path));
+            cached = current;
+        }
+
+        return current.value;
+    }
+
+    /**
+     * Sets the value at the path of this key.
+     *
+     * @param value The value.
+     */
+    public void set(T value) {
+        config.set(path, value);
+    }
+
+    /**
+     * Creates a key which reads its value with the given getter.
+     *
+     * @param <T> The type of the value.
+     * @param config The config to read from.
+     * @param path The path to read.
+     * @param getter The getter, called with the config and the path.
+     * @return The key.
+     */
+    public static <T> ConfigKey<T> of(YamlConfig config, PathContainer path, BiFunction<? super YamlConfig, String, T> getter) {
+        return new ConfigKey<T>(config, path.getPath(), getter);
+    }
+
+    /**
+     * Creates a key which reads a String value.
+     *
+     * @param config The config to read from.
+     * @param path The path to read.
+     * @return The key.
+     */
+    public static ConfigKey<String> ofString(YamlConfig config, PathContainer path) {
+        return of(config, path, YamlConfig::getString);
+    }
+
+    /**
+     * Creates a key which reads a String list value.
+     *
+     * @param config The config to read from.
+     * @param path The path to read.
+     * @return The key.
+     */
+    public static ConfigKey<List<String>> ofStringList(YamlConfig config, PathContainer path) {
+        return of(config, path, YamlConfig::getStringList);
+    }
+
+    /**
+     * Creates a key which reads an int value.
+     *
+     * @param config The config to read from.
+     * @param path The path to read.
+     * @return The key.
+     */
+    public static IntKey ofInt(YamlConfig config, PathContainer path) {
+        return new IntKey(config, path.getPath());
+    }
+
+    /**
+     * Creates a key which reads a long value.
+     *
+     * @param config The config to read from.
+     * @param path The path to read.
+     * @return The key.
+     */
+    public static LongKey ofLong(YamlConfig config, PathContainer path) {
+        return new LongKey(config, path.getPath());
+    }
+
+    /**
+     * Creates a key which reads a double value.
+     *
+     * @param config The config to read from.
+     * @param path The path to read.
+     * @return The key.
+     */
+    public static DoubleKey ofDouble(YamlConfig config, PathContainer path) {
+        return new DoubleKey(config, path.getPath());
+    }
+
+    /**
+     * Creates a key which reads a boolean value.
+     *
+     * @param config The config to read from.
+     * @param path The path to read.
+     * @return The key.
+     */
+    public static BooleanKey ofBoolean(YamlConfig config, PathContainer path) {
+        return new BooleanKey(config, path.getPath());
+    }
+
+    private static class Cached<T> {
+
+        private final int generation;
+        private final T value;
+
+        private Cached(int generation, T value) {
+            this.generation = generation;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Represents an int key which caches its value unboxed.
+     */
+    public static class IntKey extends ConfigKey<Integer> {
+
+        private volatile CachedInt cached = null;
+
+        protected IntKey(YamlConfig config, String path) {
+            super(config, path, YamlConfig::getInt);
+        }
+
+        /**
+         * Returns the value at the path of this key, without boxing it.
+         *
+         * @return The value.
+         */
+        public int getInt() {
+            final int generation = config.getGeneration();
+
+            CachedInt current = cached;
+            if (current == null || current.generation != generation) {
+                current = new CachedInt(generation, config.getInt(path));
+                cached = current;
+            }
+
+            return current.value;
+        }
+
+        @Override
+        public Integer get() {
+            return getInt();
+        }
+
+        private static class CachedInt {
+
+            private final int generation;
+            private final int value;
+
+            private CachedInt(int generation, int value) {
+                this.generation = generation;
+                this.value = value;
+            }
+        }
+    }
+
+    /**
+     * Represents a long key which caches its value unboxed.
+     */
+    public static class LongKey extends ConfigKey<Long> {
+
+        private volatile CachedLong cached = null;
+
+        protected LongKey(YamlConfig config, String path) {
+            super(config, path, YamlConfig::getLong);
+        }
+
+        /**
+         * Returns the value at the path of this key, without boxing it.
+         *
+         * @return The value.
+         */
+        public long getLong() {
+            final int generation = config.getGeneration();
+
+            CachedLong current = cached;
+            if (current == null || current.generation != generation) {
+                current = new CachedLong(generation, config.getLong(path));
+                cached = current;
+            }
+
+            return current.value;
+        }
+
+        @Override
+        public Long get() {
+            return getLong();
+        }
+
+        private static class CachedLong {
+
+            private final int generation;
+            private final long value;
+
+            private CachedLong(int generation, long value) {
+                this.generation = generation;
+                this.value = value;
+            }
+        }
+    }
+
+    /**
+     * Represents a double key which caches its value unboxed.
+     */
+    public static class DoubleKey extends ConfigKey<Double> {
+
+        private volatile CachedDouble cached = null;
+
+        protected DoubleKey(YamlConfig config, String path) {
+            super(config, path, YamlConfig::getDouble);
+        }
+
+        /**
+         * Returns the value at the path of this key, without boxing it.
+         *
+         * @return The value.
+         */
+        public double getDouble() {
+            final int generation = config.getGeneration();
+
+            CachedDouble current = cached;
+            if (current == null || current.generation != generation) {
+                current = new CachedDouble(generation, config.getDouble(path));
+                cached = current;
+            }
+
+            return current.value;
+        }
+
+        @Override
+        public Double get() {
+            return getDouble();
+        }
+
+        private static class CachedDouble {
+
+            private final int generation;
+            private final double value;
+
+            private CachedDouble(int generation, double value) {
+                this.generation = generation;
+                this.value = value;
+            }
+        }
+    }
+
+    /**
+     * Represents a boolean key which caches its value unboxed.
+     */
+    public static class BooleanKey extends ConfigKey<Boolean> {
+
+        private volatile CachedBoolean cached = null;
+
+        protected BooleanKey(YamlConfig config, String path) {
+            super(config, path, YamlConfig::getBoolean);
+        }
+
+        /**
+         * Returns the value at the path of this key, without boxing it.
+         *
+         * @return The value.
+         */
+        public boolean getBoolean() {
+            final int generation = config.getGeneration();
+
+            CachedBoolean current = cached;
+            if (current == null || current.generation != generation) {
+                current = new CachedBoolean(generation, config.getBoolean(path));
+                cached = current;
+            }
+
+            return current.value;
+        }
+
+        @Override
+        public Boolean get() {
+            return getBoolean();
+        }
+
+        private static class CachedBoolean {
+
+            private final int generation;
+            private final boolean value;
+
+            private CachedBoolean(int generation, boolean value) {
+                this.generation = generation;
+                this.value = value;
+            }
+        }
+    }
+
+}
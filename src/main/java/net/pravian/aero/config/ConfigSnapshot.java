@@ -0,0 +1,521 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.inventory.ItemStack;
+
+/**
+ * Represents an immutable snapshot of a configuration.
+ *
+ * <p>
+ * Snapshots may be read from any thread without locking. When a new snapshot is published after a batch of changes, only the sections containing changed values are copied; all unchanged sections
+ * are shared with the previous snapshot.</p>
+ *
+ * <p>
+ * ItemStacks are mutable, so every read of an ItemStack, or of a list or map containing ItemStacks, returns a new copy.</p>
+ *
+ * @see YamlConfig#getSnapshot()
+ * @see YamlConfig#publishSnapshot()
+ */
+public final class ConfigSnapshot {
+
+    static final Node EMPTY = new Node(Collections.<String, Object>emptyMap());
+    //
+    private final Node values;
+    private final Node defaults;
+    private final char separator;
+    private final int generation;
+
+    ConfigSnapshot(Node values, Node defaults, char separator, int generation) {
+        this.values = values;
+        this.defaults = defaults;
+        this.separator = separator;
+        this.generation = generation;
+    }
+
+    Node getValues() {
+        return values;
+    }
+
+    Node getDefaults() {
+        return defaults;
+    }
+
+    /**
+     * Returns the generation of the config at the time this snapshot was published.
+     *
+     * @return The generation.
+     * @see YamlConfig#getGeneration()
+     */
+    public int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Returns the keys in this snapshot, without defaults.
+     *
+     * @param deep If the keys of nested sections should be included.
+     * @return The keys.
+     */
+    public Set<String> getKeys(boolean deep) {
+        final Set<String> keys = new LinkedHashSet<String>();
+        collectKeys(values, "", deep, keys);
+        return keys;
+    }
+
+    /**
+     * Returns if this snapshot or its defaults contain a value at a path.
+     *
+     * @param path The path.
+     * @return True if a value is present.
+     */
+    public boolean contains(String path) {
+        return get(path) != null;
+    }
+
+    /**
+     * Returns if this snapshot contains a value at a path, ignoring defaults.
+     *
+     * @param path The path.
+     * @return True if a value is set.
+     */
+    public boolean isSet(String path) {
+        return find(values, path) != null;
+    }
+
+    /**
+     * Returns the value at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or null if not present.
+     */
+    public Object get(PathContainer path) {
+        return get(path.getPath());
+    }
+
+    /**
+     * Returns the value at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or null if not present.
+     */
+    public Object get(String path) {
+        Object value = find(values, path);
+        if (value == null) {
+            value = find(defaults, path);
+        }
+        return wrap(value, path);
+    }
+
+    /**
+     * Returns the value at a path, ignoring defaults.
+     *
+     * @param path The path.
+     * @param def The value to return if no value is set.
+     * @return The value.
+     */
+    public Object get(String path, Object def) {
+        final Object value = find(values, path);
+        return value == null ? def : wrap(value, path);
+    }
+
+    /**
+     * Returns the section at a path as a snapshot.
+     *
+     * @param path The path.
+     * @return The section, or null if the value is not a section.
+     */
+    public ConfigSnapshot getSection(PathContainer path) {
+        return getSection(path.getPath());
+    }
+
+    /**
+     * Returns the section at a path as a snapshot.
+     *
+     * @param path The path.
+     * @return The section, or null if the value is not a section.
+     */
+    public ConfigSnapshot getSection(String path) {
+        final Object value = get(path);
+        return value instanceof ConfigSnapshot ? (ConfigSnapshot) value : null;
+    }
+
+    /**
+     * Returns the String at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or null if not present.
+     */
+    public String getString(PathContainer path) {
+        return getString(path.getPath());
+    }
+
+    /**
+     * Returns the String at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or null if not present.
+     */
+    public String getString(String path) {
+        final Object value = get(path);
+        return value == null || value instanceof ConfigSnapshot ? null : value.toString();
+    }
+
+    /**
+     * Returns the boolean at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or false if not present.
+     */
+    public boolean getBoolean(PathContainer path) {
+        return getBoolean(path.getPath());
+    }
+
+    /**
+     * Returns the boolean at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or false if not present.
+     */
+    public boolean getBoolean(String path) {
+        final Object value = get(path);
+        return value instanceof Boolean ? (Boolean) value : false;
+    }
+
+    /**
+     * Returns the int at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or 0 if not present.
+     */
+    public int getInt(PathContainer path) {
+        return getInt(path.getPath());
+    }
+
+    /**
+     * Returns the int at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or 0 if not present.
+     */
+    public int getInt(String path) {
+        final Object value = get(path);
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+
+    /**
+     * Returns the long at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or 0 if not present.
+     */
+    public long getLong(PathContainer path) {
+        return getLong(path.getPath());
+    }
+
+    /**
+     * Returns the long at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or 0 if not present.
+     */
+    public long getLong(String path) {
+        final Object value = get(path);
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+
+    /**
+     * Returns the double at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or 0 if not present.
+     */
+    public double getDouble(PathContainer path) {
+        return getDouble(path.getPath());
+    }
+
+    /**
+     * Returns the double at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The value, or 0 if not present.
+     */
+    public double getDouble(String path) {
+        final Object value = get(path);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    /**
+     * Returns the list at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The immutable list, or null if not present.
+     */
+    public List<?> getList(PathContainer path) {
+        return getList(path.getPath());
+    }
+
+    /**
+     * Returns the list at a path, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The immutable list, or null if not present.
+     */
+    public List<?> getList(String path) {
+        final Object value = get(path);
+        return value instanceof List ? (List<?>) value : null;
+    }
+
+    /**
+     * Returns the list at a path as Strings, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The Strings, or an empty list if not present.
+     */
+    public List<String> getStringList(PathContainer path) {
+        return getStringList(path.getPath());
+    }
+
+    /**
+     * Returns the list at a path as Strings, falling back to the defaults.
+     *
+     * @param path The path.
+     * @return The Strings, or an empty list if not present.
+     */
+    public List<String> getStringList(String path) {
+        final List<?> list = getList(path);
+        if (list == null) {
+            return Collections.emptyList();
+        }
+
+        final List<String> result = new ArrayList<String>();
+        for (Object item : list) {
+            if (item instanceof String || item instanceof Number || item instanceof Boolean || item instanceof Character) {
+                result.add(String.valueOf(item));
+            }
+        }
+        return result;
+    }
+
+    private Object wrap(Object value, String path) {
+        if (!(value instanceof Node)) {
+            return containsItems(value) ? freeze(value) : value;
+        }
+
+        final Object sectionDefaults = find(defaults, path);
+        return new ConfigSnapshot((Node) value, sectionDefaults instanceof Node ? (Node) sectionDefaults : EMPTY, separator, generation);
+    }
+
+    private Object find(Node node, String path) {
+        int start = 0;
+        while (node != null) {
+            final int end = path.indexOf(separator, start);
+            if (end == -1) {
+                return node.entries.get(path.substring(start));
+            }
+
+            final Object child = node.entries.get(path.substring(start, end));
+            if (!(child instanceof Node)) {
+                return null;
+            }
+
+            node = (Node) child;
+            start = end + 1;
+        }
+        return null;
+    }
+
+    /**
+     * Returns every value in this snapshot which is not a section, by its full path.
+     *
+     * @return The values.
+     */
+    Map<String, Object> getLeaves() {
+        final Map<String, Object> leaves = new HashMap<String, Object>();
+        collectLeaves(values, "", leaves);
+        return leaves;
+    }
+
+    private void collectLeaves(Node node, String prefix, Map<String, Object> leaves) {
+        for (Map.Entry<String, Object> entry : node.entries.entrySet()) {
+            if (entry.getValue() instanceof Node) {
+                collectLeaves((Node) entry.getValue(), prefix + entry.getKey() + separator, leaves);
+            } else {
+                leaves.put(prefix + entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private void collectKeys(Node node, String prefix, boolean deep, Set<String> keys) {
+        for (Map.Entry<String, Object> entry : node.entries.entrySet()) {
+            final String key = prefix + entry.getKey();
+            keys.add(key);
+            if (deep && entry.getValue() instanceof Node) {
+                collectKeys((Node) entry.getValue(), key + separator, true, keys);
+            }
+        }
+    }
+
+    /**
+     * Builds a new immutable node from a section.
+     *
+     * @param section The section, may be null.
+     * @return The node.
+     */
+    static Node build(ConfigurationSection section) {
+        if (section == null) {
+            return EMPTY;
+        }
+
+        final Map<String, Object> entries = new LinkedHashMap<String, Object>();
+        for (String key : section.getKeys(false)) {
+            final Object value = section.get(key, null);
+            if (value instanceof ConfigurationSection) {
+                entries.put(key, build((ConfigurationSection) value));
+            } else if (value != null) {
+                entries.put(key, freeze(value));
+            }
+        }
+        return new Node(Collections.unmodifiableMap(entries));
+    }
+
+    /**
+     * Builds a new immutable node from a section, sharing every child of the previous node which has no changed paths below it.
+     *
+     * @param section The section.
+     * @param previous The node built from the section before the changes.
+     * @param changed The changed paths, relative to the section.
+     * @param separator The path separator.
+     * @return The node.
+     */
+    static Node rebuild(ConfigurationSection section, Node previous, Collection<String> changed, char separator) {
+        // Group changed paths by their first key
+        final Map<String, List<String>> children = new HashMap<String, List<String>>();
+        for (String path : changed) {
+            final int index = path.indexOf(separator);
+            final String key = index == -1 ? path : path.substring(0, index);
+
+            List<String> rest = children.get(key);
+            if (index == -1) {
+                children.put(key, null); // The key itself changed, rebuild it entirely
+                continue;
+            }
+
+            if (rest == null) {
+                if (children.containsKey(key)) {
+                    continue;
+                }
+                rest = new ArrayList<String>();
+                children.put(key, rest);
+            }
+            rest.add(path.substring(index + 1));
+        }
+
+        final Map<String, Object> entries = new LinkedHashMap<String, Object>(previous.entries);
+        for (Map.Entry<String, List<String>> child : children.entrySet()) {
+            final String key = child.getKey();
+            final Object value = section.get(key, null);
+            final Object previousValue = previous.entries.get(key);
+
+            if (value == null) {
+                entries.remove(key);
+            } else if (!(value instanceof ConfigurationSection)) {
+                entries.put(key, freeze(value));
+            } else if (child.getValue() == null || !(previousValue instanceof Node)) {
+                entries.put(key, build((ConfigurationSection) value));
+            } else {
+                entries.put(key, rebuild((ConfigurationSection) value, (Node) previousValue, child.getValue(), separator));
+            }
+        }
+
+        return new Node(Collections.unmodifiableMap(entries));
+    }
+
+    /**
+     * Returns an immutable copy of a configuration value.
+     *
+     * @param value The value.
+     * @return The immutable value.
+     */
+    static Object freeze(Object value) {
+        if (value instanceof List) {
+            final List<Object> list = new ArrayList<Object>();
+            for (Object item : (List<?>) value) {
+                list.add(freeze(item));
+            }
+            return Collections.unmodifiableList(list);
+        }
+
+        if (value instanceof Map) {
+            final Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                map.put(entry.getKey(), freeze(entry.getValue()));
+            }
+            return Collections.unmodifiableMap(map);
+        }
+
+        if (value instanceof ItemStack) {
+            return ((ItemStack) value).clone();
+        }
+
+        return value;
+    }
+
+    private static boolean containsItems(Object value) {
+        if (value instanceof ItemStack) {
+            return true;
+        }
+
+        if (value instanceof List) {
+            for (Object item : (List<?>) value) {
+                if (containsItems(item)) {
+                    return true;
+                }
+            }
+        } else if (value instanceof Map) {
+            for (Object item : ((Map<?, ?>) value).values()) {
+                if (containsItems(item)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    static final class Node {
+
+        private final Map<String, Object> entries;
+
+        Node(Map<String, Object> entries) {
+            this.entries = entries;
+        }
+
+        Map<String, Object> getEntries() {
+            return entries;
+        }
+    }
+
+}
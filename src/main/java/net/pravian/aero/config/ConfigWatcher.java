@@ -0,0 +1,262 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Represents the shared file watcher used to hot reload configuration files.
+ *
+ * <p>
+ * A single {@link WatchService} thread watches the directories of all watched configurations. Changed files are reparsed on a separate daemon thread, after which only the changed values are
+ * applied to the configuration on the main thread.</p>
+ *
+ * @see YamlConfig#setWatching(boolean)
+ */
+public class ConfigWatcher {
+
+    /**
+     * The time in milliseconds to wait for further file events before reloading a file.
+     */
+    public static final long DEBOUNCE = 100;
+    //
+    private static final Map<Path, YamlConfig> CONFIGS = new HashMap<Path, YamlConfig>(); // Guarded by CONFIGS
+    private static final Map<Path, WatchKey> KEYS = new HashMap<Path, WatchKey>(); // Guarded by CONFIGS
+    private static final Map<Path, ScheduledFuture<?>> PENDING = new HashMap<Path, ScheduledFuture<?>>(); // Guarded by PENDING
+    private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "Aero Config Reloader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static WatchService service = null; // Guarded by CONFIGS
+
+    private ConfigWatcher() {
+    }
+
+    /**
+     * Starts watching the file of a configuration.
+     *
+     * @param config The configuration to watch.
+     * @throws IOException If the directory of the configuration could not be watched.
+     */
+    public static void watch(YamlConfig config) throws IOException {
+        final Path file = getPath(config);
+        final Path dir = file.getParent();
+
+        synchronized (CONFIGS) {
+            if (service == null) {
+                service = FileSystems.getDefault().newWatchService();
+                final Thread thread = new Thread(ConfigWatcher::poll, "Aero Config Watcher");
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+            if (!KEYS.containsKey(dir)) {
+                Files.createDirectories(dir);
+                KEYS.put(dir, dir.register(service,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_MODIFY));
+            }
+
+            CONFIGS.put(file, config);
+        }
+    }
+
+    /**
+     * Stops watching the file of a configuration.
+     *
+     * @param config The configuration to stop watching.
+     */
+    public static void unwatch(YamlConfig config) {
+        synchronized (CONFIGS) {
+            final Path file = getPath(config);
+            if (CONFIGS.get(file) == config) {
+                CONFIGS.remove(file);
+                cancelUnusedKeys();
+            }
+        }
+    }
+
+    /**
+     * Stops watching all configurations which belong to a plugin.
+     *
+     * @param plugin The plugin.
+     */
+    public static void unwatch(Plugin plugin) {
+        synchronized (CONFIGS) {
+            final Iterator<YamlConfig> it = CONFIGS.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().getPlugin() == plugin) {
+                    it.remove();
+                }
+            }
+            cancelUnusedKeys();
+        }
+    }
+
+    /**
+     * Validates if the file of a configuration is being watched.
+     *
+     * @param config The configuration.
+     * @return True if the configuration is being watched.
+     */
+    public static boolean isWatching(YamlConfig config) {
+        synchronized (CONFIGS) {
+            return CONFIGS.get(getPath(config)) == config;
+        }
+    }
+
+    private static void cancelUnusedKeys() {
+        final Iterator<Map.Entry<Path, WatchKey>> it = KEYS.entrySet().iterator();
+        while (it.hasNext()) {
+            final Map.Entry<Path, WatchKey> entry = it.next();
+
+            boolean used = false;
+            for (Path file : CONFIGS.keySet()) {
+                if (file.getParent().equals(entry.getKey())) {
+                    used = true;
+                    break;
+                }
+            }
+
+            if (!used) {
+                entry.getValue().cancel();
+                it.remove();
+            }
+        }
+    }
+
+    private static void poll() {
+        final WatchService watchService;
+        synchronized (CONFIGS) {
+            watchService = service;
+        }
+
+        while (true) {
+            final WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException ex) {
+                return;
+            }
+
+            final Path dir = (Path) key.watchable();
+            for (WatchEvent<?> event : key.pollEvents()) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    final List<Path> files = new ArrayList<Path>();
+                    synchronized (CONFIGS) {
+                        for (Path file : CONFIGS.keySet()) {
+                            if (file.getParent().equals(dir)) {
+                                files.add(file);
+                            }
+                        }
+                    }
+                    for (Path file : files) {
+                        schedule(file);
+                    }
+                    continue;
+                }
+
+                schedule(dir.resolve((Path) event.context()));
+            }
+
+            key.reset();
+        }
+    }
+
+    private static void schedule(Path file) {
+        synchronized (CONFIGS) {
+            if (!CONFIGS.containsKey(file)) {
+                return;
+            }
+        }
+
+        synchronized (PENDING) {
+            final ScheduledFuture<?> pending = PENDING.get(file);
+            if (pending != null) {
+                pending.cancel(false);
+            }
+
+            PENDING.put(file, EXECUTOR.schedule(() -> reload(file), DEBOUNCE, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    private static void reload(Path file) {
+        synchronized (PENDING) {
+            PENDING.remove(file);
+        }
+
+        final YamlConfig config;
+        synchronized (CONFIGS) {
+            config = CONFIGS.get(file);
+        }
+
+        if (config == null || !Files.exists(file)) {
+            return;
+        }
+
+        final String contents;
+        try {
+            contents = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            config.getPlugin().getPluginLogger().warning("Could not read changed configuration file: " + file.getFileName());
+            return;
+        }
+
+        // Ignore the event caused by our own save
+        if (ConfigWriter.isWritten(file.toFile(), contents)) {
+            return;
+        }
+
+        final YamlConfiguration parsed = new YamlConfiguration();
+        parsed.options().pathSeparator(config.options().pathSeparator());
+        try {
+            parsed.loadFromString(contents);
+        } catch (InvalidConfigurationException ex) {
+            // Probably still being written, a later event will follow
+            config.getPlugin().getPluginLogger().warning("Could not parse changed configuration file: " + file.getFileName());
+            return;
+        }
+
+        config.applyChanges(parsed);
+    }
+
+    private static Path getPath(YamlConfig config) {
+        return config.getFile().toPath().toAbsolutePath().normalize();
+    }
+
+}
@@ -0,0 +1,480 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+/**
+ * Represents the shared I/O pipeline used to write configuration files.
+ *
+ * <p>
+ * Writes are serialized and performed on a single dedicated daemon thread. Repeated writes to the same file which are queued within the save window are coalesced into one write of the most recent
+ * snapshot. Every write goes to a temporary file first, which is then atomically moved over the target file.</p>
+ */
+public class ConfigWriter {
+
+    private static final ScheduledExecutorService EXECUTOR;
+    private static final Map<File, FileState> STATES = new ConcurrentHashMap<File, FileState>();
+    private static final AtomicLong VERSION = new AtomicLong();
+
+    static {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "Aero Config Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        EXECUTOR = executor;
+    }
+
+    private ConfigWriter() {
+    }
+
+    /**
+     * Schedules a snapshot to be serialized and written to a file.
+     *
+     * <p>
+     * If a write for the same file is already pending, the pending snapshot is replaced and the pending future is returned.</p>
+     *
+     * @param file The file to write to.
+     * @param snapshot The snapshot to write. Must not be modified after being passed in.
+     * @param window The time in milliseconds to wait for further writes before writing.
+     * @return The future which completes once the data has been written to disk.
+     */
+    public static CompletableFuture<Void> write(File file, YamlConfiguration snapshot, long window) {
+        final long version = VERSION.incrementAndGet();
+
+        while (true) {
+            final FileState state = getState(file);
+            synchronized (state) {
+                if (state.released) {
+                    continue; // Released concurrently, use a new state
+                }
+
+                PendingWrite write = state.pending;
+                if (write != null) {
+                    write.snapshot = snapshot;
+                    write.version = version;
+                    return write.future;
+                }
+
+                write = new PendingWrite(snapshot, version);
+                state.pending = write;
+
+                final PendingWrite scheduled = write;
+                write.task = EXECUTOR.schedule(() -> run(state, scheduled), Math.max(0, window), TimeUnit.MILLISECONDS);
+                return write.future;
+            }
+        }
+    }
+
+    /**
+     * Serializes and writes a snapshot to a file on the calling thread.
+     *
+     * <p>
+     * Any pending write for the same file is superseded by this write and completed with it.</p>
+     *
+     * @param file The file to write to.
+     * @param contents The serialized contents to write.
+     * @throws IOException If the file could not be written.
+     */
+    public static void writeNow(File file, String contents) throws IOException {
+        final long version = VERSION.incrementAndGet();
+
+        FileState state;
+        PendingWrite superseded;
+        while (true) {
+            state = getState(file);
+            synchronized (state) {
+                if (state.released) {
+                    continue; // Released concurrently, use a new state
+                }
+
+                superseded = state.pending;
+                state.pending = null;
+                state.writing++;
+                break;
+            }
+        }
+
+        if (superseded != null) {
+            superseded.task.cancel(false);
+        }
+
+        try {
+            write(state, contents, version);
+        } catch (IOException ex) {
+            if (superseded != null) {
+                superseded.future.completeExceptionally(ex);
+            }
+            throw ex;
+        } finally {
+            finishWriting(state);
+        }
+
+        if (superseded != null) {
+            superseded.future.complete(null);
+        }
+    }
+
+    /**
+     * Schedules a file to be deleted, after any write to it which is already in progress.
+     *
+     * <p>
+     * Any pending write for the same file is superseded by the deletion and completed with it.</p>
+     *
+     * @param file The file to delete.
+     * @return The future which completes once the file has been deleted.
+     */
+    public static CompletableFuture<Void> delete(File file) {
+        final long version = VERSION.incrementAndGet();
+
+        FileState state;
+        PendingWrite superseded;
+        while (true) {
+            state = getState(file);
+            synchronized (state) {
+                if (state.released) {
+                    continue; // Released concurrently, use a new state
+                }
+
+                superseded = state.pending;
+                state.pending = null;
+                state.writing++;
+                break;
+            }
+        }
+
+        if (superseded != null) {
+            superseded.task.cancel(false);
+        }
+
+        final FileState deleting = state;
+        final PendingWrite supersededWrite = superseded;
+        final CompletableFuture<Void> future = new CompletableFuture<Void>();
+        EXECUTOR.execute(() -> {
+            Throwable error = null;
+            try {
+                delete(deleting, version);
+            } catch (Throwable ex) {
+                error = ex;
+            } finally {
+                finishWriting(deleting);
+            }
+
+            if (error == null) {
+                future.complete(null);
+                if (supersededWrite != null) {
+                    supersededWrite.future.complete(null);
+                }
+            } else {
+                future.completeExceptionally(error);
+                if (supersededWrite != null) {
+                    supersededWrite.future.completeExceptionally(error);
+                }
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Writes a pending snapshot for a file immediately on the calling thread.
+     *
+     * @param file The file for which to flush the pending write.
+     */
+    public static void flush(File file) {
+        final FileState state = STATES.get(getKey(file));
+        if (state != null) {
+            flush(state);
+        }
+    }
+
+    /**
+     * Releases the state kept for a file, if it has no pending or running write.
+     *
+     * <p>
+     * Should be called once a file will not be written for a while, such as when the config it belongs to is unloaded. Afterwards, {@link #isWritten(File, String)} returns false for the file until it
+     * is written again.</p>
+     *
+     * @param file The file.
+     * @return True if the state was released, or no state was kept for the file.
+     */
+    public static boolean release(File file) {
+        final File key = getKey(file);
+        final FileState state = STATES.get(key);
+        if (state == null) {
+            return true;
+        }
+
+        synchronized (state) {
+            if (state.pending != null || state.writing > 0) {
+                return false;
+            }
+
+            state.released = true;
+            STATES.remove(key, state);
+            return true;
+        }
+    }
+
+    /**
+     * Validates if the specified contents are what was last written to a file by this writer.
+     *
+     * @param file The file.
+     * @param contents The contents of the file.
+     * @return True if the contents were last written by this writer.
+     */
+    public static boolean isWritten(File file, String contents) {
+        final FileState state = STATES.get(getKey(file));
+        if (state == null) {
+            return false;
+        }
+
+        synchronized (state.lock) {
+            return state.writtenLength == contents.length() && state.writtenHash == contents.hashCode();
+        }
+    }
+
+    /**
+     * Writes all pending snapshots immediately on the calling thread.
+     *
+     * <p>
+     * This should be called before the server shuts down, as the writer thread does not keep the server alive.</p>
+     */
+    public static void flushAll() {
+        for (FileState state : new ArrayList<FileState>(STATES.values())) {
+            flush(state);
+        }
+
+        // Wait for any write which was already in progress
+        await();
+    }
+
+    /**
+     * Waits until all tasks queued on the config writer thread have completed.
+     */
+    static void await() {
+        try {
+            EXECUTOR.submit(() -> {
+            }).get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+        }
+    }
+
+    private static void flush(FileState state) {
+        final PendingWrite write;
+        synchronized (state) {
+            write = state.pending;
+            state.pending = null;
+            if (write != null) {
+                state.writing++;
+            }
+        }
+
+        if (write == null) {
+            return;
+        }
+
+        write.task.cancel(false);
+        complete(state, write);
+    }
+
+    private static void run(FileState state, PendingWrite write) {
+        synchronized (state) {
+            if (state.pending != write) {
+                return; // Flushed or superseded
+            }
+            state.pending = null;
+            state.writing++;
+        }
+
+        complete(state, write);
+    }
+
+    private static void complete(FileState state, PendingWrite write) {
+        final YamlConfiguration snapshot;
+        final long version;
+        synchronized (state) {
+            snapshot = write.snapshot;
+            version = write.version;
+        }
+
+        Throwable error = null;
+        try {
+            write(state, snapshot.saveToString(), version);
+        } catch (Throwable ex) {
+            error = ex;
+        } finally {
+            finishWriting(state); // Before completing, so the state can be released from the future
+        }
+
+        if (error == null) {
+            write.future.complete(null);
+        } else {
+            write.future.completeExceptionally(error);
+        }
+    }
+
+    private static void finishWriting(FileState state) {
+        synchronized (state) {
+            state.writing--;
+        }
+    }
+
+    private static void write(FileState state, String contents, long version) throws IOException {
+        synchronized (state.lock) {
+            // Never overwrite newer data with an older snapshot
+            if (version < state.written) {
+                return;
+            }
+
+            writeAtomic(state.file, contents);
+            state.written = version;
+            state.writtenLength = contents.length();
+            state.writtenHash = contents.hashCode();
+        }
+    }
+
+    private static void delete(FileState state, long version) throws IOException {
+        synchronized (state.lock) {
+            // Never delete data which was written after the deletion was requested
+            if (version < state.written) {
+                return;
+            }
+
+            Files.deleteIfExists(state.file.toPath());
+            state.written = version;
+            state.writtenLength = -1;
+            state.writtenHash = 0;
+        }
+    }
+
+    /**
+     * Runs a task on the config writer thread.
+     *
+     * @param task The task.
+     */
+    static void execute(Runnable task) {
+        EXECUTOR.execute(task);
+    }
+
+    private static void writeAtomic(File file, String contents) throws IOException {
+        writeAtomic(file, contents.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Writes data to a temporary file and atomically moves it over the target file.
+     *
+     * @param file The file to write to.
+     * @param data The data.
+     * @throws IOException If the file could not be written.
+     */
+    static void writeAtomic(File file, byte[] data) throws IOException {
+        final Path target = file.toPath().toAbsolutePath();
+        final Path parent = target.getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        final Path temp = Files.createTempFile(parent, file.getName(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                final ByteBuffer buffer = ByteBuffer.wrap(data);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static FileState getState(File file) {
+        final File key = getKey(file);
+        FileState state = STATES.get(key);
+        if (state == null) {
+            final FileState newState = new FileState(key);
+            state = STATES.putIfAbsent(key, newState);
+            if (state == null) {
+                state = newState;
+            }
+        }
+        return state;
+    }
+
+    private static File getKey(File file) {
+        return file.toPath().toAbsolutePath().normalize().toFile();
+    }
+
+    private static class FileState {
+
+        private final File file;
+        private final Object lock = new Object();
+        private PendingWrite pending; // Guarded by this
+        private int writing; // Guarded by this
+        private boolean released; // Guarded by this
+        private long written; // Guarded by lock
+        private int writtenLength = -1; // Guarded by lock
+        private int writtenHash; // Guarded by lock
+
+        private FileState(File file) {
+            this.file = file;
+        }
+    }
+
+    private static class PendingWrite {
+
+        private final CompletableFuture<Void> future = new CompletableFuture<Void>();
+        private ScheduledFuture<?> task;
+        private YamlConfiguration snapshot; // Guarded by FileState
+        private long version; // Guarded by FileState
+
+        private PendingWrite(YamlConfiguration snapshot, long version) {
+            this.snapshot = snapshot;
+            this.version = version;
+        }
+    }
+
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import net.pravian.aero.plugin.AeroPlugin;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Represents the cache of default configurations stored in plugin jar-files.
+ *
+ * <p>
+ * Every default configuration is read and parsed once per plugin, and shared between all configs using the same resource as an immutable map of its values. The cache for a plugin is invalidated
+ * when the plugin is disabled.</p>
+ *
+ * @see YamlConfig#getDefaultConfig()
+ */
+public class DefaultConfigCache {
+
+    private static final Map<Plugin, Map<String, Entry>> CACHE = new ConcurrentHashMap<Plugin, Map<String, Entry>>();
+
+    private DefaultConfigCache() {
+    }
+
+    /**
+     * Returns the values of a default configuration in the jar-file of a plugin.
+     *
+     * <p>
+     * The returned map is keyed by full path and only contains values, except for empty sections which are contained as empty maps. The values are shared between all callers, so they must be
+     * copied before being modified.</p>
+     *
+     * @param plugin The plugin.
+     * @param resource The name of the resource.
+     * @return The immutable values, or null if the default configuration could not be loaded.
+     */
+    public static Map<String, Object> get(AeroPlugin<?> plugin, String resource) {
+        final Map<String, Entry> entries = CACHE.computeIfAbsent(plugin, key -> new ConcurrentHashMap<String, Entry>());
+
+        Entry entry = entries.get(resource);
+        if (entry != null) {
+            entry.hits.incrementAndGet();
+            return entry.values;
+        }
+
+        try {
+            entry = load(plugin, resource);
+        } catch (Throwable ex) {
+            plugin.handleException("Could not load default configuration: " + resource, ex);
+            return null;
+        }
+
+        final Entry existing = entries.putIfAbsent(resource, entry);
+        if (existing != null) {
+            existing.hits.incrementAndGet();
+            return existing.values;
+        }
+
+        return entry.values;
+    }
+
+    /**
+     * Discards all cached default configurations of a plugin.
+     *
+     * @param plugin The plugin.
+     */
+    public static void invalidate(AeroPlugin<?> plugin) {
+        final Map<String, Entry> entries = CACHE.remove(plugin);
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        plugin.getPluginLogger().debug("Default configuration cache saved "
+                + getBytesSaved(entries.values()) + " bytes and "
+                + TimeUnit.NANOSECONDS.toMillis(getTimeSaved(entries.values())) + "ms of parsing");
+    }
+
+    /**
+     * Returns the amount of jar-file bytes which did not have to be read and parsed because of this cache.
+     *
+     * @param plugin The plugin.
+     * @return The amount of bytes.
+     */
+    public static long getBytesSaved(Plugin plugin) {
+        final Map<String, Entry> entries = CACHE.get(plugin);
+        return entries == null ? 0 : getBytesSaved(entries.values());
+    }
+
+    /**
+     * Returns the estimated time which was not spent reading and parsing because of this cache.
+     *
+     * @param plugin The plugin.
+     * @param unit The unit of the returned time.
+     * @return The time.
+     */
+    public static long getTimeSaved(Plugin plugin, TimeUnit unit) {
+        final Map<String, Entry> entries = CACHE.get(plugin);
+        return entries == null ? 0 : unit.convert(getTimeSaved(entries.values()), TimeUnit.NANOSECONDS);
+    }
+
+    private static long getBytesSaved(Iterable<Entry> entries) {
+        long bytes = 0;
+        for (Entry entry : entries) {
+            bytes += entry.bytes * entry.hits.get();
+        }
+        return bytes;
+    }
+
+    private static long getTimeSaved(Iterable<Entry> entries) {
+        long nanos = 0;
+        for (Entry entry : entries) {
+            nanos += entry.nanos * entry.hits.get();
+        }
+        return nanos;
+    }
+
+    private static Entry load(AeroPlugin<?> plugin, String resource) throws Exception {
+        final long start = System.nanoTime();
+
+        final InputStream in = plugin.getResource(resource);
+        if (in == null) {
+            throw new IOException("Resource not found in plugin jar-file!");
+        }
+
+        final byte[] bytes;
+        try {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buf = new byte[4096];
+            int len;
+            while ((len = in.read(buf)) > 0) {
+                out.write(buf, 0, len);
+            }
+            bytes = out.toByteArray();
+        } finally {
+            in.close();
+        }
+
+        final YamlConfiguration config = new YamlConfiguration();
+        config.loadFromString(new String(bytes, StandardCharsets.UTF_8));
+
+        final Map<String, Object> values = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, Object> value : config.getValues(true).entrySet()) {
+            if (!(value.getValue() instanceof ConfigurationSection)) {
+                values.put(value.getKey(), ConfigSnapshot.freeze(value.getValue()));
+            } else if (((ConfigurationSection) value.getValue()).getKeys(false).isEmpty()) {
+                values.put(value.getKey(), Collections.emptyMap());
+            }
+        }
+
+        return new Entry(Collections.unmodifiableMap(values), bytes.length, System.nanoTime() - start);
+    }
+
+    private static class Entry {
+
+        private final Map<String, Object> values;
+        private final long bytes;
+        private final long nanos;
+        private final AtomicLong hits = new AtomicLong();
+
+        private Entry(Map<String, Object> values, long bytes, long nanos) {
+            this.values = values;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+    }
+
+}
@@ -0,0 +1,395 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import com.google.common.base.Preconditions;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import net.pravian.aero.base.ConfigLoadable;
+import net.pravian.aero.base.ConfigSavable;
+import net.pravian.aero.concurrent.BukkitSyncTask;
+import net.pravian.aero.plugin.AeroPlugin;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
+
+/**
+ * Represents a store of per-entity data, kept in many small configuration files instead of one large one.
+ *
+ * <p>
+ * Each key is either stored in its own file, or in one of a fixed number of shard files selected by the hash of the key. Shards are loaded on first access and a bounded number of them is kept in
+ * memory, least recently used shards are evicted. Only shards which were modified are written back, which happens asynchronously on the config writer thread. When every key is stored in its
+ * own file, removing a key deletes its file.</p>
+ *
+ * <p>
+ * A section handed out by {@link #get(Object)} or {@link #getOrCreate(Object)} keeps its shard loaded until {@link #markDirty(Object)} is called for its key, or until the next periodic
+ * write-back. Sections may therefore not be kept across write-backs.</p>
+ *
+ * <p>
+ * Example:
+ * <pre>
+ * ShardedConfigStore&lt;UUID&gt; players = new ShardedConfigStore&lt;UUID&gt;(this, new File(getDataFolder(), "players"), ConfigCodecs.UUID, 0, 256);
+ * players.start(20 * 60);
+ *
+ * players.load(player.getUniqueId(), playerData);
+ * players.save(player.getUniqueId(), playerData);
+ * </pre></p>
+ *
+ * <p>
+ * <b>Note</b>: A store may only be used from the main thread.</p>
+ *
+ * @param <K> The type of the keys.
+ * @see ConfigLoadable
+ * @see ConfigSavable
+ */
+public class ShardedConfigStore<K> {
+
+    private final AeroPlugin<?> plugin;
+    private final File directory;
+    private final ConfigCodec<K> keyCodec;
+    private final int buckets;
+    private final int maxLoaded;
+    private final Map<String, Shard> shards;
+    private final Map<String, CompletableFuture<Void>> writing = new ConcurrentHashMap<String, CompletableFuture<Void>>();
+    private final WriteBackTask writeBackTask;
+
+    /**
+     * Creates a new ShardedConfigStore instance.
+     *
+     * @param plugin The plugin to which the store belongs.
+     * @param directory The directory in which the shard files are stored.
+     * @param keyCodec The codec used to convert keys to their String-form. The String-form may not contain the path separator.
+     * @param buckets The amount of shard files to hash the keys into, or 0 to store every key in its own file.
+     * @param maxLoaded The maximum amount of shards to keep in memory.
+     */
+    public ShardedConfigStore(AeroPlugin<?> plugin, File directory, ConfigCodec<K> keyCodec, int buckets, int maxLoaded) {
+        Preconditions.checkArgument(buckets >= 0, "Buckets may not be negative!");
+        Preconditions.checkArgument(maxLoaded > 0, "Max loaded shards must be positive!");
+
+        this.plugin = Preconditions.checkNotNull(plugin, "Plugin may not be null!");
+        this.directory = Preconditions.checkNotNull(directory, "Directory may not be null!");
+        this.keyCodec = Preconditions.checkNotNull(keyCodec, "Key codec may not be null!");
+        this.buckets = buckets;
+        this.maxLoaded = maxLoaded;
+        this.shards = new LinkedHashMap<String, Shard>(16, .75f, true);
+        this.writeBackTask = new WriteBackTask();
+    }
+
+    /**
+     * Starts writing back modified shards periodically.
+     *
+     * @param interval The interval in ticks between write-backs.
+     * @return True if the write-back task was started.
+     */
+    public boolean start(long interval) {
+        return writeBackTask.start(interval, interval);
+    }
+
+    /**
+     * Stops writing back modified shards periodically, and writes back all modified shards.
+     *
+     * @return True if the write-back task was stopped.
+     */
+    public boolean stop() {
+        final boolean stopped = writeBackTask.stop();
+        flush();
+        return stopped;
+    }
+
+    /**
+     * Returns the section in which the data for a key is stored, loading its shard if required.
+     *
+     * <p>
+     * If the section is modified, {@link #markDirty(Object)} must be called for the changes to be written back. The shard is kept loaded until then, or until the next periodic write-back.</p>
+     *
+     * @param key The key.
+     * @return The section, or null if no data is stored for the key in a shard file.
+     * @see #getOrCreate(Object)
+     */
+    public ConfigurationSection get(K key) {
+        final String name = encode(key);
+        final Shard shard = getShard(name);
+        final ConfigurationSection section = getSection(shard, name, false);
+        if (section != null) {
+            shard.pins++;
+        }
+        return section;
+    }
+
+    /**
+     * Returns the section in which the data for a key is stored, creating it if required.
+     *
+     * <p>
+     * If the section is modified, {@link #markDirty(Object)} must be called for the changes to be written back. The shard is kept loaded until then, or until the next periodic write-back.</p>
+     *
+     * @param key The key.
+     * @return The section.
+     */
+    public ConfigurationSection getOrCreate(K key) {
+        final String name = encode(key);
+        final Shard shard = getShard(name);
+        shard.pins++;
+        return getSection(shard, name, true);
+    }
+
+    /**
+     * Validates if data is stored for a key, loading its shard if required.
+     *
+     * @param key The key.
+     * @return True if data is stored for the key.
+     */
+    public boolean contains(K key) {
+        final String name = encode(key);
+        final YamlConfig config = getShard(name).config;
+        return buckets == 0 ? !config.getKeys(false).isEmpty() : config.isConfigurationSection(name);
+    }
+
+    /**
+     * Loads the data for a key into a ConfigLoadable.
+     *
+     * @param key The key.
+     * @param loadable The object to load the data into.
+     */
+    public void load(K key, ConfigLoadable loadable) {
+        final String name = encode(key);
+        final ConfigurationSection section = getSection(getShard(name), name, false);
+        loadable.loadFrom(section != null ? section : new MemoryConfiguration());
+    }
+
+    /**
+     * Saves the data of a ConfigSavable for a key, and marks its shard as modified.
+     *
+     * @param key The key.
+     * @param savable The object to save the data of.
+     */
+    public void save(K key, ConfigSavable savable) {
+        final String name = encode(key);
+        final Shard shard = getShard(name);
+        savable.saveTo(getSection(shard, name, true));
+        shard.dirty = true;
+    }
+
+    /**
+     * Deletes the data for a key.
+     *
+     * @param key The key.
+     */
+    public void remove(K key) {
+        final String name = encode(key);
+        if (buckets == 0) {
+            delete(name);
+            return;
+        }
+
+        final Shard shard = getShard(name);
+        shard.config.set(name, null);
+        shard.dirty = true;
+    }
+
+    /**
+     * Marks the shard containing a key as modified, so it is written back, and releases the section handed out for the key.
+     *
+     * @param key The key.
+     * @throws IllegalStateException If the shard is no longer loaded, because the section was kept across a write-back. The changes to the section are lost.
+     */
+    public void markDirty(K key) {
+        final String name = encode(key);
+        final Shard shard = shards.get(getShardName(name));
+        if (shard == null) {
+            throw new IllegalStateException("Could not mark key as modified: " + name + ". Its shard was unloaded, changes to sections kept across a write-back are lost!");
+        }
+
+        shard.dirty = true;
+        if (shard.pins > 0) {
+            shard.pins--;
+        }
+    }
+
+    /**
+     * Returns the amount of shards currently in memory.
+     *
+     * @return The amount of loaded shards.
+     */
+    public int getLoaded() {
+        return shards.size();
+    }
+
+    /**
+     * Writes back all modified shards asynchronously.
+     *
+     * @return The future which completes once all modified shards have been written to disk.
+     */
+    public CompletableFuture<Void> flush() {
+        final List<CompletableFuture<Void>> futures = new ArrayList<CompletableFuture<Void>>();
+        for (Shard shard : shards.values()) {
+            final CompletableFuture<Void> future = writeBack(shard);
+            if (future != null) {
+                futures.add(future);
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]));
+    }
+
+    /**
+     * Writes back all modified shards and unloads every shard.
+     */
+    public void unloadAll() {
+        for (Shard shard : shards.values()) {
+            unload(shard);
+        }
+        shards.clear();
+    }
+
+    private String encode(K key) {
+        return String.valueOf(keyCodec.encode(Preconditions.checkNotNull(key, "Key may not be null!")));
+    }
+
+    private String getShardName(String name) {
+        return buckets == 0 ? name : "shard-" + Math.floorMod(name.hashCode(), buckets);
+    }
+
+    private ConfigurationSection getSection(Shard shard, String name, boolean create) {
+        if (buckets == 0) {
+            return shard.config;
+        }
+
+        final ConfigurationSection section = shard.config.getConfigurationSection(name);
+        return section != null || !create ? section : shard.config.createSection(name);
+    }
+
+    private Shard getShard(String name) {
+        final String shardName = getShardName(name);
+
+        Shard shard = shards.get(shardName);
+        if (shard != null) {
+            return shard;
+        }
+
+        final File file = new File(directory, shardName + ".yml");
+
+        // An evicted shard may still be written back
+        final CompletableFuture<Void> write = writing.get(shardName);
+        if (write != null) {
+            ConfigWriter.flush(file);
+            try {
+                write.join();
+            } catch (CompletionException ignored) {
+                // Already reported by YamlConfig#saveAsync()
+            }
+        }
+
+        final YamlConfig config = new YamlConfig(plugin, file, false);
+        config.setAsyncSave(true);
+        config.load();
+
+        shard = new Shard(shardName, config);
+        shards.put(shardName, shard);
+        evict(shard);
+        return shard;
+    }
+
+    private void evict(Shard keep) {
+        final Iterator<Shard> it = shards.values().iterator();
+        while (shards.size() > maxLoaded && it.hasNext()) {
+            final Shard shard = it.next();
+            if (shard == keep || shard.pins > 0) {
+                continue; // Still in use
+            }
+
+            unload(shard);
+            it.remove();
+        }
+    }
+
+    // Deletes the file of a key once any write-back of it has completed, instead of writing back an empty file
+    private void delete(String name) {
+        shards.remove(name);
+
+        final File file = new File(directory, name + ".yml");
+        final CompletableFuture<Void> future = ConfigWriter.delete(file);
+        writing.put(name, future);
+        future.whenComplete((result, ex) -> {
+            writing.remove(name, future);
+            ConfigWriter.release(file);
+            if (ex != null) {
+                plugin.handleException("Could not delete data file: " + file.getName(), ex);
+            }
+        });
+    }
+
+    private void unload(Shard shard) {
+        final File file = shard.config.getFile();
+        final CompletableFuture<Void> future = writeBack(shard);
+        if (future == null) {
+            ConfigWriter.release(file);
+        } else {
+            future.whenComplete((result, ex) -> ConfigWriter.release(file));
+        }
+    }
+
+    private CompletableFuture<Void> writeBack(Shard shard) {
+        if (!shard.dirty && shard.config.getGeneration() == shard.generation) {
+            return null;
+        }
+
+        shard.dirty = false;
+        shard.generation = shard.config.getGeneration();
+
+        final CompletableFuture<Void> future = shard.config.saveAsync();
+        writing.put(shard.name, future);
+        future.whenComplete((result, ex) -> writing.remove(shard.name, future));
+        return future;
+    }
+
+    private static class Shard {
+
+        private final String name;
+        private final YamlConfig config;
+        private int generation;
+        private boolean dirty = false;
+        private int pins = 0;
+
+        private Shard(String name, YamlConfig config) {
+            this.name = name;
+            this.config = config;
+            this.generation = config.getGeneration();
+        }
+    }
+
+    private class WriteBackTask extends BukkitSyncTask {
+
+        private WriteBackTask() {
+            super(ShardedConfigStore.this.plugin);
+        }
+
+        @Override
+        public void run() {
+            // Sections may not be kept across write-backs
+            for (Shard shard : shards.values()) {
+                shard.pins = 0;
+            }
+            evict(null);
+            flush();
+        }
+    }
+
+}
@@ -3,18 +3,34 @@ package net.pravian.aero.config;
 import com.google.common.base.Preconditions;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.lang.reflect.Constructor;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import net.pravian.aero.plugin.AeroLogger;
 import net.pravian.aero.plugin.AeroPlugin;
+import net.pravian.aero.serializable.SerializableFactory;
+import net.pravian.aero.serializable.SerializableInventory;
 import net.pravian.aero.serializable.SerializableObject;
 import net.pravian.aero.util.Plugins;
+import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.MemoryConfiguration;
 import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
@@ -27,10 +43,26 @@ import org.bukkit.util.Vector;
  */
 public class YamlConfig extends YamlConfiguration implements ConfigurationContainer<YamlConfig> {
 
+    private static final int PARALLEL_THRESHOLD = 1024;
+    //
+
     private final AeroPlugin<?> plugin;
     private final AeroLogger logger;
     private final File configFile;
     private final boolean copyDefaults;
+    private boolean asyncSave = false;
+    private long saveWindow = 0;
+    private boolean binaryCache = false;
+    private ConfigJournal journal = null;
+    private long journalLimit = 1024 * 1024;
+    private long journalInterval = TimeUnit.MINUTES.toMillis(5);
+    private boolean loading = false;
+    private volatile int generation = 0;
+    private volatile ConfigSnapshot snapshot = null;
+    private final Set<String> changedPaths = new HashSet<String>();
+    private boolean rebuildSnapshot = true;
+    private boolean rebuildDefaults = true;
+    private final Map<String, List<ConfigChangeListener>> changeListeners = new ConcurrentHashMap<String, List<ConfigChangeListener>>();
 
     /**
      * Creates a new YamlConfig instance.
@@ -129,6 +161,10 @@ public class YamlConfig extends YamlConfiguration implements ConfigurationContai
      */
     @Override
     public void load() {
+        rebuildSnapshot = true;
+        changedPaths.clear();
+        loading = true;
+
         try {
             if (copyDefaults) {
                 if (!exists()) {
@@ -141,14 +177,48 @@ public class YamlConfig extends YamlConfiguration implements ConfigurationContai
                     logger.info("Installed default configuration " + configFile.getName());
                 }
 
-                super.addDefaults(getDefaultConfig());
+                final Map<String, Object> defaults = DefaultConfigCache.get(plugin, configFile.getName());
+                if (defaults != null) {
+                    addCachedDefaults(defaults);
+                }
             }
 
             if (configFile.exists()) {
-                super.load(configFile);
+                if (binaryCache) {
+                    ConfigCache.load(this, configFile, logger);
+                } else {
+                    super.load(configFile);
+                }
+            }
+
+            if (journal != null) {
+                journal.replay();
             }
         } catch (Exception ex) {
             plugin.handleException("Could not load configuration file: " + configFile.getName(), ex);
+        } finally {
+            loading = false;
+        }
+
+        // Snapshots are only built once they have been asked for
+        if (snapshot != null) {
+            publishSnapshot();
+        }
+    }
+
+    private void addCachedDefaults(Map<String, Object> defaults) {
+        for (Map.Entry<String, Object> entry : defaults.entrySet()) {
+            if (!(entry.getValue() instanceof Map)) {
+                addDefault(entry.getKey(), copyValue(entry.getValue()));
+                continue;
+            }
+
+            // Empty section
+            if (getDefaults() == null) {
+                setDefaults(new MemoryConfiguration());
+            }
+            getDefaults().createSection(entry.getKey());
+            rebuildDefaults = true;
         }
     }
 
@@ -159,19 +229,453 @@ public class YamlConfig extends YamlConfiguration implements ConfigurationContai
      */
     @Override
     public void save() {
+        if (journal != null) {
+            journal.sync();
+            return;
+        }
+
+        if (asyncSave) {
+            saveAsync();
+            return;
+        }
+
         try {
-            super.save(configFile);
+            ConfigWriter.writeNow(configFile, saveToString());
         } catch (Exception ex) {
             plugin.handleException("Could not save configuration file: " + configFile.getName(), ex);
         }
     }
 
+    /**
+     * Saves the configuration to the predefined file asynchronously.
+     *
+     * <p>
+     * The configuration is copied on the calling thread, then serialized and written on the Aero config writer thread. Saves which are requested within the save window of each other are coalesced
+     * into a single write.</p>
+     *
+     * @return The future which completes once the configuration has been written to disk.
+     * @see #setSaveWindow(long)
+     * @see ConfigWriter
+     */
+    public CompletableFuture<Void> saveAsync() {
+        final CompletableFuture<Void> future = ConfigWriter.write(configFile, snapshot(), saveWindow);
+        future.whenComplete((result, ex) -> {
+            if (ex != null) {
+                plugin.handleException("Could not save configuration file: " + configFile.getName(), ex);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Writes any pending asynchronous save to disk on the calling thread.
+     */
+    public void flush() {
+        ConfigWriter.flush(configFile);
+    }
+
+    /**
+     * Validates if {@link #save()} saves asynchronously.
+     *
+     * @return True if saving is asynchronous.
+     */
+    public boolean isAsyncSave() {
+        return asyncSave;
+    }
+
+    /**
+     * Sets if {@link #save()} should save asynchronously.
+     *
+     * @param asyncSave If saving should be asynchronous.
+     * @see #saveAsync()
+     */
+    public void setAsyncSave(boolean asyncSave) {
+        this.asyncSave = asyncSave;
+    }
+
+    /**
+     * Returns the time in milliseconds asynchronous saves wait for further saves before writing.
+     *
+     * @return The save window.
+     */
+    public long getSaveWindow() {
+        return saveWindow;
+    }
+
+    /**
+     * Sets the time in milliseconds asynchronous saves wait for further saves before writing.
+     *
+     * @param saveWindow The save window.
+     */
+    public void setSaveWindow(long saveWindow) {
+        this.saveWindow = saveWindow;
+    }
+
+    /**
+     * Returns a detached copy of this configuration which can safely be serialized on another thread.
+     *
+     * @return The copy.
+     */
+    protected YamlConfiguration snapshot() {
+        final YamlConfiguration snapshot = new YamlConfiguration();
+        snapshot.options()
+                .header(options().header())
+                .copyHeader(options().copyHeader())
+                .indent(options().indent());
+        copySection(this, snapshot);
+        return snapshot;
+    }
+
+    private static void copySection(ConfigurationSection from, ConfigurationSection to) {
+        for (Map.Entry<String, Object> entry : from.getValues(false).entrySet()) {
+            final Object value = entry.getValue();
+            if (value instanceof ConfigurationSection) {
+                copySection((ConfigurationSection) value, to.createSection(entry.getKey()));
+            } else {
+                to.set(entry.getKey(), copyValue(value));
+            }
+        }
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof List) {
+            final List<Object> copy = new ArrayList<Object>();
+            for (Object item : (List<?>) value) {
+                copy.add(copyValue(item));
+            }
+            return copy;
+        }
+
+        if (value instanceof Map) {
+            final Map<Object, Object> copy = new LinkedHashMap<Object, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                copy.put(entry.getKey(), copyValue(entry.getValue()));
+            }
+            return copy;
+        }
+
+        if (value instanceof ItemStack) {
+            return ((ItemStack) value).clone();
+        }
+
+        return value;
+    }
+
+    /**
+     * Validates if {@link #load()} uses a binary cache of the parsed configuration.
+     *
+     * @return True if the binary cache is used.
+     */
+    public boolean isBinaryCache() {
+        return binaryCache;
+    }
+
+    /**
+     * Sets if {@link #load()} should use a binary cache of the parsed configuration.
+     *
+     * <p>
+     * While the configuration file is unchanged, loading reads the cache instead of parsing YAML. The cache is stored next to the configuration file.</p>
+     *
+     * @param binaryCache If the binary cache should be used.
+     * @see ConfigCache
+     */
+    public void setBinaryCache(boolean binaryCache) {
+        this.binaryCache = binaryCache;
+    }
+
+    /**
+     * Validates if changes to this configuration are written to a journal.
+     *
+     * @return True if the configuration is journaled.
+     */
+    public boolean isJournaled() {
+        return journal != null;
+    }
+
+    /**
+     * Sets if changes to this configuration should be written to a journal.
+     *
+     * <p>
+     * When journaled, every change made through {@link #set(String, Object)} is appended to a journal file next to the configuration file, instead of rewriting the whole file on {@link #save()}.
+     * The configuration file is only rewritten when the journal is compacted, which happens once the journal has grown past the journal limit or once the journal interval has passed. Saving forces
+     * the journal to disk. Loading replays the journal on top of the configuration file, so journaling should be enabled before loading.</p>
+     *
+     * <p>
+     * <b>Note</b>: Values set directly on a nested section are not journaled.</p>
+     *
+     * <p>
+     * Disabling journaling compacts and deletes the journal.</p>
+     *
+     * @param journaled If the configuration should be journaled.
+     * @see ConfigJournal
+     */
+    public void setJournaled(boolean journaled) {
+        if (journaled == (journal != null)) {
+            return;
+        }
+
+        if (journaled) {
+            journal = new ConfigJournal(this);
+            return;
+        }
+
+        journal.compact();
+        journal.delete();
+        journal.close();
+        journal = null;
+    }
+
+    /**
+     * Returns the size in bytes after which the journal is compacted.
+     *
+     * @return The journal limit.
+     */
+    public long getJournalLimit() {
+        return journalLimit;
+    }
+
+    /**
+     * Sets the size in bytes after which the journal is compacted.
+     *
+     * @param journalLimit The journal limit.
+     */
+    public void setJournalLimit(long journalLimit) {
+        this.journalLimit = journalLimit;
+    }
+
+    /**
+     * Returns the time in milliseconds after which the journal is compacted on the next change.
+     *
+     * @return The journal interval.
+     */
+    public long getJournalInterval() {
+        return journalInterval;
+    }
+
+    /**
+     * Sets the time in milliseconds after which the journal is compacted on the next change.
+     *
+     * @param journalInterval The journal interval.
+     */
+    public void setJournalInterval(long journalInterval) {
+        this.journalInterval = journalInterval;
+    }
+
+    /**
+     * Rewrites the configuration file and clears the journal.
+     *
+     * <p>
+     * If this configuration is not journaled, this is equivalent to {@link #save()}.</p>
+     */
+    public void compact() {
+        if (journal != null) {
+            journal.compact();
+        } else {
+            save();
+        }
+    }
+
+    private boolean isJournaling() {
+        return journal != null && !loading;
+    }
+
+    /**
+     * Validates if this configuration is reloaded when its file is changed externally.
+     *
+     * @return True if the file is being watched.
+     */
+    public boolean isWatching() {
+        return ConfigWatcher.isWatching(this);
+    }
+
+    /**
+     * Sets if this configuration should be reloaded when its file is changed externally.
+     *
+     * <p>
+     * When watching, external changes are reparsed and diffed against the last published snapshot off the main thread. Only the changed values are then applied on the main thread, after which the
+     * change listeners registered for those values are notified. Sections left empty by removed values are removed as well.</p>
+     *
+     * <p>
+     * <b>Note</b>: Values set since the last published snapshot are only overwritten if the file changed them.</p>
+     *
+     * @param watching If the file should be watched.
+     * @see #addChangeListener(PathContainer, ConfigChangeListener)
+     */
+    public void setWatching(boolean watching) {
+        if (!watching) {
+            ConfigWatcher.unwatch(this);
+            return;
+        }
+
+        if (snapshot == null) {
+            publishSnapshot(); // Changes are diffed against the published snapshot
+        }
+
+        try {
+            ConfigWatcher.watch(this);
+        } catch (IOException ex) {
+            plugin.handleException("Could not watch configuration file: " + configFile.getName(), ex);
+        }
+    }
+
+    /**
+     * Registers a listener for changes to a path and every path below it.
+     *
+     * @param path The path to listen to.
+     * @param listener The listener.
+     * @see #setWatching(boolean)
+     */
+    public void addChangeListener(PathContainer path, ConfigChangeListener listener) {
+        addChangeListener(path.getPath(), listener);
+    }
+
+    /**
+     * Registers a listener for changes to a path and every path below it.
+     *
+     * <p>
+     * An empty path listens to every change in this configuration.</p>
+     *
+     * @param path The path to listen to.
+     * @param listener The listener.
+     * @see #setWatching(boolean)
+     */
+    public void addChangeListener(String path, ConfigChangeListener listener) {
+        Preconditions.checkNotNull(path, "Path may not be null!");
+        Preconditions.checkNotNull(listener, "Listener may not be null!");
+
+        changeListeners.computeIfAbsent(path, key -> new CopyOnWriteArrayList<ConfigChangeListener>()).add(listener);
+    }
+
+    /**
+     * Unregisters a change listener from all paths.
+     *
+     * @param listener The listener.
+     */
+    public void removeChangeListener(ConfigChangeListener listener) {
+        for (List<ConfigChangeListener> listeners : changeListeners.values()) {
+            listeners.remove(listener);
+        }
+    }
+
+    /**
+     * Applies the values of an externally reloaded configuration.
+     *
+     * <p>
+     * Called from the config watcher thread. The values are flattened and diffed against the last published snapshot on the calling thread, after which only the changed paths are applied to this
+     * configuration on the main thread.</p>
+     *
+     * @param parsed The reloaded configuration.
+     */
+    void applyChanges(YamlConfiguration parsed) {
+        final ConfigSnapshot current = snapshot;
+        final Map<String, Object> changes = diff(current == null ? Collections.<String, Object>emptyMap() : current.getLeaves(), getLeaves(parsed));
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        try {
+            Bukkit.getScheduler().runTask(plugin, () -> applyChanges(changes));
+        } catch (Exception ex) {
+            // Plugin disabled in the meantime
+        }
+    }
+
+    private void applyChanges(Map<String, Object> changes) {
+        final char separator = options().pathSeparator();
+
+        for (Map.Entry<String, Object> entry : changes.entrySet()) {
+            final String path = entry.getKey();
+            final Object oldValue = get(path, null);
+            final Object newValue = entry.getValue();
+
+            // The snapshot may be older than the values in memory
+            if (Objects.equals(oldValue, newValue)) {
+                continue;
+            }
+
+            set(path, newValue);
+            if (newValue == null) {
+                pruneSections(path, separator);
+            }
+            fireChange(path, oldValue instanceof ConfigurationSection ? null : oldValue, newValue, separator);
+        }
+
+        publishSnapshot();
+    }
+
+    private void pruneSections(String path, char separator) {
+        int end = path.lastIndexOf(separator);
+        while (end > 0) {
+            final String parent = path.substring(0, end);
+            final Object section = get(parent, null);
+            if (!(section instanceof ConfigurationSection) || !((ConfigurationSection) section).getKeys(false).isEmpty()) {
+                return;
+            }
+
+            set(parent, null);
+            end = path.lastIndexOf(separator, end - 1);
+        }
+    }
+
+    private static Map<String, Object> diff(Map<String, Object> previous, Map<String, Object> values) {
+        // Removed values first, so a value replaced by a section is not removed after the section is created
+        final Map<String, Object> changes = new LinkedHashMap<String, Object>();
+        for (String path : previous.keySet()) {
+            if (!values.containsKey(path)) {
+                changes.put(path, null);
+            }
+        }
+
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            if (!Objects.equals(previous.get(entry.getKey()), entry.getValue())) {
+                changes.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return changes;
+    }
+
+    private void fireChange(String path, Object oldValue, Object newValue, char separator) {
+        if (changeListeners.isEmpty()) {
+            return;
+        }
+
+        // Walk the prefixes of the path: "a.b.c", "a.b", "a" and ""
+        int end = path.length();
+        while (true) {
+            final List<ConfigChangeListener> listeners = changeListeners.get(path.substring(0, end));
+            if (listeners != null) {
+                for (ConfigChangeListener listener : listeners) {
+                    try {
+                        listener.onChange(path, oldValue, newValue);
+                    } catch (Exception ex) {
+                        plugin.handleException("Unhandled exception in change listener for: " + path, ex);
+                    }
+                }
+            }
+
+            if (end == 0) {
+                break;
+            }
+            end = Math.max(0, path.lastIndexOf(separator, end - 1));
+        }
+    }
+
+    private static Map<String, Object> getLeaves(ConfigurationSection section) {
+        final Map<String, Object> leaves = new HashMap<String, Object>();
+        for (Map.Entry<String, Object> entry : section.getValues(true).entrySet()) {
+            if (!(entry.getValue() instanceof ConfigurationSection)) {
+                leaves.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return leaves;
+    }
+
     /**
      * Deletes all the values in the config.
      */
     public void clear() {
         for (String key : super.getKeys(false)) {
-            super.set(key, null);
+            set(key, null);
         }
     }
 
@@ -179,11 +683,33 @@ public class YamlConfig extends YamlConfiguration implements ConfigurationContai
      * Deletes the config if it exists.
      */
     public void delete() {
+        if (journal != null) {
+            journal.delete();
+        }
+
         if (exists()) {
             configFile.delete();
         }
     }
 
+    /**
+     * Returns the plugin to which this config belongs.
+     *
+     * @return The plugin.
+     */
+    public AeroPlugin<?> getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Returns the file this config is loaded from and saved to.
+     *
+     * @return The file.
+     */
+    public File getFile() {
+        return configFile;
+    }
+
     /**
      * Returns the raw YamlConfiguration this config is based on.
      *
@@ -198,17 +724,137 @@ public class YamlConfig extends YamlConfiguration implements ConfigurationContai
     /**
      * Returns the default configuration as been stored in the jar-file of the owning plugin.
      *
+     * <p>
+     * The default configuration is only parsed once per plugin, the returned configuration is a fresh copy which may be modified.</p>
+     *
      * @return The default configuration.
+     * @see DefaultConfigCache
      */
     public YamlConfiguration getDefaultConfig() {
-        final YamlConfiguration DEFAULT_CONFIG = new YamlConfiguration();
-        try {
-            DEFAULT_CONFIG.load(new InputStreamReader(plugin.getResource(configFile.getName())));
-        } catch (Throwable ex) {
-            plugin.handleException("Could not load default configuration: " + configFile.getName(), ex);
+        final Map<String, Object> defaults = DefaultConfigCache.get(plugin, configFile.getName());
+        if (defaults == null) {
             return null;
         }
-        return DEFAULT_CONFIG;
+
+        final YamlConfiguration defaultConfig = new YamlConfiguration();
+        for (Map.Entry<String, Object> entry : defaults.entrySet()) {
+            if (entry.getValue() instanceof Map) {
+                defaultConfig.createSection(entry.getKey());
+            } else {
+                defaultConfig.set(entry.getKey(), copyValue(entry.getValue()));
+            }
+        }
+        return defaultConfig;
+    }
+
+    @Override
+    public void set(String path, Object value) {
+        super.set(path, value);
+        generation++;
+        markChanged(path);
+
+        if (isJournaling()) {
+            journal.append(path, value);
+        }
+    }
+
+    @Override
+    public ConfigurationSection createSection(String path) {
+        final ConfigurationSection section = super.createSection(path);
+        generation++;
+        markChanged(path);
+
+        if (isJournaling()) {
+            journal.append(path, section);
+        }
+        return section;
+    }
+
+    @Override
+    public void addDefault(String path, Object value) {
+        super.addDefault(path, value);
+        generation++;
+        rebuildDefaults = true;
+    }
+
+    private void markChanged(String path) {
+        if (rebuildSnapshot) {
+            return;
+        }
+
+        // Past this point a full rebuild is cheaper than grouping the changes
+        if (changedPaths.size() >= 4096) {
+            rebuildSnapshot = true;
+            changedPaths.clear();
+            return;
+        }
+
+        changedPaths.add(path);
+    }
+
+    /**
+     * Returns the last published snapshot of this config.
+     *
+     * <p>
+     * Snapshots are immutable and may be read from any thread without locking, while the main thread keeps modifying this config.</p>
+     *
+     * <p>
+     * <b>Note</b>: No snapshot is built until one is asked for. The first call to this method or {@link #publishSnapshot()} must therefore be made from the thread which modifies this config,
+     * usually the main thread.</p>
+     *
+     * @return The snapshot.
+     * @see #publishSnapshot()
+     */
+    public ConfigSnapshot getSnapshot() {
+        final ConfigSnapshot current = snapshot;
+        return current != null ? current : publishSnapshot();
+    }
+
+    /**
+     * Publishes a new snapshot containing all changes made to this config since the last snapshot.
+     *
+     * <p>
+     * Once a snapshot has been published, a new one is published automatically after every {@link #load()}. After a batch of {@link #set(String, Object)} calls, this method should be called from the thread which made the changes. Only the
+     * sections containing changed values are copied, all other sections are shared with the previous snapshot.</p>
+     *
+     * @return The published snapshot.
+     * @see #getSnapshot()
+     */
+    public ConfigSnapshot publishSnapshot() {
+        final ConfigSnapshot previous = snapshot;
+        final char separator = options().pathSeparator();
+
+        final ConfigSnapshot.Node values;
+        if (rebuildSnapshot || previous == null) {
+            values = ConfigSnapshot.build(this);
+        } else if (changedPaths.isEmpty()) {
+            values = previous.getValues();
+        } else {
+            values = ConfigSnapshot.rebuild(this, previous.getValues(), changedPaths, separator);
+        }
+
+        final ConfigSnapshot.Node defaultValues = rebuildDefaults || previous == null ? ConfigSnapshot.build(getDefaults()) : previous.getDefaults();
+
+        rebuildSnapshot = false;
+        rebuildDefaults = false;
+        changedPaths.clear();
+
+        final ConfigSnapshot published = new ConfigSnapshot(values, defaultValues, separator, generation);
+        snapshot = published;
+        return published;
+    }
+
+    /**
+     * Returns a counter which changes whenever this config is modified.
+     *
+     * <p>
+     * <b>Note</b>: Only modifications made through this config, such as {@link #set(String, Object)} and {@link #load()} are tracked. Values set directly on a nested section are not.</p>
+     *
+     * @return The generation.
+     * @see ConfigKey
+     */
+    public int getGeneration() {
+        return generation;
     }
 
     /**
@@ -216,7 +862,7 @@ public class YamlConfig extends YamlConfiguration implements ConfigurationContai
      */
     @Override
     public void set(PathContainer path, Object value) {
-        super.set(path.getPath(), value);
+        set(path.getPath(), value);
     }
 
     /**
@@ -404,7 +1050,7 @@ public class YamlConfig extends YamlConfiguration implements ConfigurationContai
      */
     @Override
     public void setSerializable(String path, SerializableObject<?> object) {
-        super.set(path, object.serialize());
+        set(path, object.serialize());
     }
 
     /**
@@ -430,24 +1076,116 @@ public class YamlConfig extends YamlConfiguration implements ConfigurationContai
             return null;
         }
 
-        final Constructor<T> cons;
         try {
-            cons = type.getDeclaredConstructor(String.class);
+            return SerializableFactory.of(type).create(serialized);
         } catch (Exception ex) {
             plugin.handleException(ex);
             return null;
         }
+    }
+
+    /**
+     * @see #setSerializableList(java.lang.String, java.util.List)
+     */
+    public void setSerializableList(PathContainer path, List<? extends SerializableObject<?>> objects) {
+        setSerializableList(path.getPath(), objects);
+    }
+
+    /**
+     * Stores a list of SerializableObjects.
+     *
+     * @param path The path at which the list should be stored.
+     * @param objects The objects to store.
+     * @see #getAeroSerializableList(String, Class)
+     */
+    public void setSerializableList(String path, List<? extends SerializableObject<?>> objects) {
+        final List<String> serialized = new ArrayList<String>(objects.size());
+        for (SerializableObject<?> object : objects) {
+            serialized.add(object.serialize());
+        }
+        set(path, serialized);
+    }
+
+    /**
+     * @see #getAeroSerializableList(java.lang.String, java.lang.Class)
+     */
+    public <T extends SerializableObject<?>> List<T> getAeroSerializableList(PathContainer path, Class<T> type) {
+        return getAeroSerializableList(path.getPath(), type);
+    }
+
+    /**
+     * Retrieves a stored list of SerializableObjects.
+     *
+     * @param <T> The type of the SerializableObjects.
+     * @param path The path where the list is stored.
+     * @param type The class of the SerializableObjects.
+     * @return The retrieved objects, empty if no list is stored.
+     * @see #getAeroSerializableList(String, Class, boolean)
+     */
+    public <T extends SerializableObject<?>> List<T> getAeroSerializableList(String path, Class<T> type) {
+        return getAeroSerializableList(path, type, false);
+    }
 
-        final T object;
+    /**
+     * @see #getAeroSerializableList(java.lang.String, java.lang.Class, boolean)
+     */
+    public <T extends SerializableObject<?>> List<T> getAeroSerializableList(PathContainer path, Class<T> type, boolean parallel) {
+        return getAeroSerializableList(path.getPath(), type, parallel);
+    }
+
+    /**
+     * Retrieves a stored list of SerializableObjects.
+     *
+     * <p>
+     * If parallel is true, large lists are deserialized on multiple threads. This requires the String constructor of the type to be thread-safe. Of the SerializableObjects in Aero, this is the case
+     * for the location and block types, which only parse the String. {@link SerializableInventory} creates its inventory through the server, so lists of inventories are always deserialized on the
+     * calling thread.</p>
+     *
+     * <p>
+     * <b>Note</b>: Any items which couldn't be deserialized won't be returned in the list.</p>
+     *
+     * @param <T> The type of the SerializableObjects.
+     * @param path The path where the list is stored.
+     * @param type The class of the SerializableObjects.
+     * @param parallel If large lists may be deserialized in parallel.
+     * @return The retrieved objects, empty if no list is stored.
+     * @see SerializableFactory
+     */
+    public <T extends SerializableObject<?>> List<T> getAeroSerializableList(String path, Class<T> type, boolean parallel) {
+        final List<?> list = super.getList(path);
+        if (list == null) {
+            return new ArrayList<T>();
+        }
+
+        final SerializableFactory<T> factory = SerializableFactory.of(type);
+        if (parallel && list.size() >= PARALLEL_THRESHOLD && !SerializableInventory.class.isAssignableFrom(type)) {
+            return list.parallelStream()
+                    .map(item -> createSerializable(factory, item))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        final List<T> objects = new ArrayList<T>(list.size());
+        for (Object item : list) {
+            final T object = createSerializable(factory, item);
+            if (object != null) {
+                objects.add(object);
+            }
+        }
+        return objects;
+    }
+
+    private <T extends SerializableObject<?>> T createSerializable(SerializableFactory<T> factory, Object serialized) {
+        if (serialized == null) {
+            return null;
+        }
 
         try {
-            object = cons.newInstance(serialized);
+            return factory.create(serialized.toString());
         } catch (Exception ex) {
             plugin.handleException(ex);
             return null;
         }
-
-        return object;
     }
 
     /**
@@ -466,6 +1204,9 @@ public class YamlConfig extends YamlConfiguration implements ConfigurationContai
     /**
      * Stores a Map of any generic type.
      *
+     * <p>
+     * The section at the path is resolved once, after which every entry is set directly on it.</p>
+     *
      * @param <K> The key type to the map.
      * @param <V> The value type to the map.
      * @param path The path at which the map should be stored.
@@ -473,9 +1214,63 @@ public class YamlConfig extends YamlConfiguration implements ConfigurationContai
      */
     @Override
     public <K, V> void setMap(String path, Map<K, V> map) {
-        for (K key : map.keySet()) {
-            super.set(path + "." + key.toString(), map.get(key));
+        final ConfigurationSection section = getOrCreateSection(path);
+        final String prefix = getJournalPrefix(path);
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            final String key = entry.getKey().toString();
+            section.set(key, entry.getValue());
+
+            if (prefix != null) {
+                journal.append(prefix + key, entry.getValue());
+            }
+        }
+        generation++;
+        markChanged(path);
+    }
+
+    /**
+     * Stores a Map, encoding its keys and values using codecs.
+     *
+     * @param <K> The key type to the map.
+     * @param <V> The value type to the map.
+     * @param path The path at which the map should be stored.
+     * @param map The map to store.
+     * @param keyCodec The codec used to encode the keys.
+     * @param valueCodec The codec used to encode the values.
+     * @see ConfigCodecs
+     */
+    public <K, V> void setMap(PathContainer path, Map<K, V> map, ConfigCodec<K> keyCodec, ConfigCodec<V> valueCodec) {
+        setMap(path.getPath(), map, keyCodec, valueCodec);
+    }
+
+    /**
+     * Stores a Map, encoding its keys and values using codecs.
+     *
+     * <p>
+     * The section at the path is resolved once, after which every entry is set directly on it.</p>
+     *
+     * @param <K> The key type to the map.
+     * @param <V> The value type to the map.
+     * @param path The path at which the map should be stored.
+     * @param map The map to store.
+     * @param keyCodec The codec used to encode the keys.
+     * @param valueCodec The codec used to encode the values.
+     * @see ConfigCodecs
+     */
+    public <K, V> void setMap(String path, Map<K, V> map, ConfigCodec<K> keyCodec, ConfigCodec<V> valueCodec) {
+        final ConfigurationSection section = getOrCreateSection(path);
+        final String prefix = getJournalPrefix(path);
+        for (Map.Entry<K, V> entry : map.entrySet()) {
+            final String key = String.valueOf(keyCodec.encode(entry.getKey()));
+            final Object value = valueCodec.encode(entry.getValue());
+            section.set(key, value);
+
+            if (prefix != null) {
+                journal.append(prefix + key, value);
+            }
         }
+        generation++;
+        markChanged(path);
     }
 
     /**
@@ -498,28 +1293,164 @@ public class YamlConfig extends YamlConfiguration implements ConfigurationContai
      * Retrieves a Map of any generic type.
      *
      * <p>
-     * <b>Note</b>: Any objects which couldn't be casted won't be returned in the map.</p>
+     * <b>Note</b>: The keys and values are not converted. Use {@link #getMap(String, ConfigCodec, ConfigCodec)} to retrieve a map of a specific type.</p>
      *
      * @param <K> The key type to the map.
      * @param <V> The value type to the map.
      * @param path The path where the map is stored.
-     * @return The map.
+     * @return The map, empty if there is no section at the path.
      */
     @SuppressWarnings("unchecked")
     @Override
-    // TODO fix
     public <K, V> Map<K, V> getMap(String path) {
-        final Map<K, V> keyMap = new HashMap<K, V>();
+        final ConfigurationSection section = findSection(path);
+        if (section == null) {
+            return new HashMap<K, V>();
+        }
+
+        return (Map<K, V>) section.getValues(false);
+    }
+
+    /**
+     * Retrieves a Map, decoding its keys and values using codecs.
+     *
+     * @param <K> The key type to the map.
+     * @param <V> The value type to the map.
+     * @param path The path where the map is stored.
+     * @param keyCodec The codec used to decode the keys.
+     * @param valueCodec The codec used to decode the values.
+     * @return The map.
+     * @see #getMap(String, ConfigCodec, ConfigCodec)
+     */
+    public <K, V> Map<K, V> getMap(PathContainer path, ConfigCodec<K> keyCodec, ConfigCodec<V> valueCodec) {
+        return getMap(path.getPath(), keyCodec, valueCodec);
+    }
 
-        for (String item : super.getConfigurationSection(path).getKeys(false)) {
-            try {
-                keyMap.put((K) item, (V) super.getConfigurationSection(path).get(item));
-            } catch (Exception ex) {
-                plugin.handleException(ex);
+    /**
+     * Retrieves a Map, decoding its keys and values using codecs.
+     *
+     * <p>
+     * <b>Note</b>: Any entries of which the key or value couldn't be decoded won't be returned in the map.</p>
+     *
+     * @param <K> The key type to the map.
+     * @param <V> The value type to the map.
+     * @param path The path where the map is stored.
+     * @param keyCodec The codec used to decode the keys.
+     * @param valueCodec The codec used to decode the values.
+     * @return The map, empty if there is no section at the path.
+     * @see ConfigCodecs
+     */
+    public <K, V> Map<K, V> getMap(String path, ConfigCodec<K> keyCodec, ConfigCodec<V> valueCodec) {
+        final ConfigurationSection section = findSection(path);
+        if (section == null) {
+            return new HashMap<K, V>();
+        }
+
+        final Map<String, Object> values = section.getValues(false);
+        final Map<K, V> map = new HashMap<K, V>(Math.max(16, (int) (values.size() / .75f) + 1));
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            final K key = keyCodec.decode(entry.getKey());
+            final V value = valueCodec.decode(entry.getValue());
+            if (key != null && value != null) {
+                map.put(key, value);
+            }
+        }
+        return map;
+    }
+
+    /**
+     * Iterates over a stored Map without decoding it up front, decoding its keys and values using codecs.
+     *
+     * @param <K> The key type to the map.
+     * @param <V> The value type to the map.
+     * @param path The path where the map is stored.
+     * @param keyCodec The codec used to decode the keys.
+     * @param valueCodec The codec used to decode the values.
+     * @return The entries.
+     * @see #iterateMap(String, ConfigCodec, ConfigCodec)
+     */
+    public <K, V> Iterable<Map.Entry<K, V>> iterateMap(PathContainer path, ConfigCodec<K> keyCodec, ConfigCodec<V> valueCodec) {
+        return iterateMap(path.getPath(), keyCodec, valueCodec);
+    }
+
+    /**
+     * Iterates over a stored Map without decoding it up front, decoding its keys and values using codecs.
+     *
+     * <p>
+     * Each entry is decoded when it is reached, no map of decoded entries is built. Any entries of which the key or value couldn't be decoded are skipped. The map should not be modified while it is being
+     * iterated.</p>
+     *
+     * <p>
+     * Example:
+     * <pre>
+     * for (Map.Entry&lt;UUID, Double&gt; entry : config.iterateMap("balances", ConfigCodecs.UUID, ConfigCodecs.DOUBLE)) {
+     *     ...
+     * }
+     * </pre></p>
+     *
+     * @param <K> The key type to the map.
+     * @param <V> The value type to the map.
+     * @param path The path where the map is stored.
+     * @param keyCodec The codec used to decode the keys.
+     * @param valueCodec The codec used to decode the values.
+     * @return The entries.
+     * @see ConfigCodecs
+     */
+    public <K, V> Iterable<Map.Entry<K, V>> iterateMap(String path, ConfigCodec<K> keyCodec, ConfigCodec<V> valueCodec) {
+        final ConfigurationSection section = findSection(path);
+        if (section == null) {
+            return Collections.emptyList();
+        }
+
+        return () -> new Iterator<Map.Entry<K, V>>() {
+
+            // Walks the values along with the keys, instead of looking up every key by path again
+            private final Iterator<Map.Entry<String, Object>> entries = section.getValues(false).entrySet().iterator();
+            private Map.Entry<K, V> next = null;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && entries.hasNext()) {
+                    final Map.Entry<String, Object> entry = entries.next();
+                    final K key = keyCodec.decode(entry.getKey());
+                    final V value = valueCodec.decode(entry.getValue());
+                    if (key != null && value != null) {
+                        next = new AbstractMap.SimpleImmutableEntry<K, V>(key, value);
+                    }
+                }
+                return next != null;
             }
+
+            @Override
+            public Map.Entry<K, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                final Map.Entry<K, V> entry = next;
+                next = null;
+                return entry;
+            }
+        };
+    }
+
+    private ConfigurationSection findSection(String path) {
+        final Object section = get(path);
+        return section instanceof ConfigurationSection ? (ConfigurationSection) section : null;
+    }
+
+    private String getJournalPrefix(String path) {
+        // Values set on the root section are journaled by set(String, Object) itself
+        if (!isJournaling() || path.isEmpty()) {
+            return null;
         }
 
-        return keyMap;
+        return path + options().pathSeparator();
+    }
+
+    private ConfigurationSection getOrCreateSection(String path) {
+        final Object section = get(path, null);
+        return section instanceof ConfigurationSection ? (ConfigurationSection) section : createSection(path);
     }
 
     @Override
@@ -15,19 +15,26 @@
  */
 package net.pravian.aero.plugin;
 
+import java.io.File;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 import net.pravian.aero.Aero;
 import net.pravian.aero.base.PluginContainer;
 import net.pravian.aero.component.PluginListener;
+import net.pravian.aero.config.ConfigJournal;
+import net.pravian.aero.config.ConfigWatcher;
+import net.pravian.aero.config.ConfigWriter;
+import net.pravian.aero.config.DefaultConfigCache;
 import net.pravian.aero.config.YamlConfig;
 import org.bukkit.Bukkit;
 import org.bukkit.Server;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.bukkit.plugin.java.JavaPluginLoader;
 
 public abstract class AeroPlugin<T extends AeroPlugin<T>> extends JavaPlugin implements PluginContainer<T>, Listener {
 
@@ -53,6 +60,27 @@ public abstract class AeroPlugin<T extends AeroPlugin<T>> extends JavaPlugin imp
         this.config = new YamlConfig(plugin, "config.yml"); // Requires logger to be present
     }
 
+    /**
+     * Creates a plugin which is not loaded by the server, such as in unit tests and benchmarks.
+     *
+     * <p>
+     * <b>Note</b>: This constructor may not be used at runtime.</p>
+     *
+     * @param loader The loader of the plugin.
+     * @param description The description of the plugin.
+     * @param dataFolder The data folder of the plugin.
+     * @param file The file of the plugin.
+     * @see JavaPlugin#JavaPlugin(JavaPluginLoader, PluginDescriptionFile, File, File)
+     */
+    @SuppressWarnings("unchecked")
+    protected AeroPlugin(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder, File file) {
+        super(loader, description, dataFolder, file);
+        this.plugin = (T) this;
+        this.server = plugin.getServer();
+        this.logger = new AeroLogger(plugin);
+        this.config = new YamlConfig(plugin, "config.yml");
+    }
+
     public final Aero getAero() {
         return aero;
     }
@@ -83,6 +111,10 @@ public abstract class AeroPlugin<T extends AeroPlugin<T>> extends JavaPlugin imp
         try {
             disable();
         } finally {
+            ConfigWatcher.unwatch(plugin);
+            ConfigJournal.close(plugin);
+            ConfigWriter.flushAll();
+            DefaultConfigCache.invalidate(plugin);
             aero.unregister(plugin);
         }
     }
@@ -27,9 +27,16 @@ import org.bukkit.entity.Player;
 
 public class Reflection {
 
-    public static String VERSION = Bukkit.getServer().getClass().getPackage().getName().split("\\.")[3];
+    public static String VERSION = findVersion();
     public static String NMS = "net.minecraft.server";
     public static String OBC = "org.bukkit.craftbukkit";
+    private static Class<?> packetClass = null;
+
+    // Returns the version of the CraftBukkit package, such as v1_15_R1, or an empty string if the server is not CraftBukkit
+    private static String findVersion() {
+        final String[] parts = Bukkit.getServer().getClass().getName().split("\\.");
+        return parts.length > 4 && parts[1].equals("bukkit") && parts[2].equals("craftbukkit") ? parts[3] : "";
+    }
 
     /**
      * Get a class from OBC.
@@ -62,22 +69,27 @@ public class Reflection {
      * @return The class within a class.
      */
     public static Class getSubClass(Class clazz, String className) {
-        if (clazz != null && className != null) {
-            try {
-                do {
-                    for (Class insideClass : clazz.getDeclaredClasses()) {
-                        if (insideClass != null && insideClass.getSimpleName().equals(className)) {
-                            return insideClass;
-                        }
+        if (clazz == null || className == null) {
+            return null;
+        }
+        return ReflectionCache.get(clazz, ReflectionCache.SUB_CLASS, className, null, () -> findSubClass(clazz, className));
+    }
+
+    private static Class findSubClass(Class clazz, String className) {
+        try {
+            do {
+                for (Class insideClass : clazz.getDeclaredClasses()) {
+                    if (insideClass != null && insideClass.getSimpleName().equals(className)) {
+                        return insideClass;
                     }
-                    for (Class insideClass : clazz.getClasses()) {
-                        if (insideClass != null && insideClass.getSimpleName().equals(className)) {
-                            return insideClass;
-                        }
+                }
+                for (Class insideClass : clazz.getClasses()) {
+                    if (insideClass != null && insideClass.getSimpleName().equals(className)) {
+                        return insideClass;
                     }
-                } while (clazz.getSuperclass() != Object.class && ((clazz = clazz.getSuperclass()) != null));
-            } catch (Exception ignore) {
-            }
+                }
+            } while (clazz.getSuperclass() != Object.class && ((clazz = clazz.getSuperclass()) != null));
+        } catch (Exception ignore) {
         }
         return null;
     }
@@ -124,31 +136,24 @@ public class Reflection {
      * @param parameterTypes - The parameter types (classes).
      * @return The constructor from a class.
      */
-    @SuppressWarnings("unchecked") // Reflection
     public static ConstructorInvoker getConstructor(Class clazz, Class... parameterTypes) {
-        if (clazz != null) {
+        if (clazz == null) {
+            return null;
+        }
+        final Constructor constructor = ReflectionCache.get(clazz, ReflectionCache.CONSTRUCTOR, null, parameterTypes, () -> findConstructor(clazz, parameterTypes));
+        return constructor == null ? null : new ConstructorInvoker(constructor);
+    }
+
+    @SuppressWarnings("unchecked") // Reflection
+    private static Constructor findConstructor(Class clazz, Class... parameterTypes) {
+        try {
+            return clazz.getConstructor(parameterTypes);
+        } catch (NoSuchMethodException ignore) {
             try {
-                Constructor constructor = clazz.getConstructor(parameterTypes);
-                if (constructor == null) {
-                    constructor = clazz.getDeclaredConstructor(parameterTypes);
-                }
-                if (constructor != null) {
-                    return new ConstructorInvoker(constructor);
-                } else if (clazz.getSuperclass() != null && clazz.getSuperclass() != Object.class) {
-                    return getConstructor(clazz.getSuperclass(), parameterTypes);
-                }
-            } catch (NoSuchMethodException ignore) {
-                try {
-                    Constructor constructor = clazz.getDeclaredConstructor(parameterTypes);
-                    if (constructor != null) {
-                        return new ConstructorInvoker(constructor);
-                    } else if (clazz.getSuperclass() != null && clazz.getSuperclass() != Object.class) {
-                        return getConstructor(clazz.getSuperclass(), parameterTypes);
-                    }
-                } catch (Exception ignored) {
-                }
-            } catch (Exception ignore) {
+                return clazz.getDeclaredConstructor(parameterTypes);
+            } catch (Exception ignored) {
             }
+        } catch (Exception ignore) {
         }
         return null;
     }
@@ -210,28 +215,25 @@ public class Reflection {
      * @return The field from a class.
      */
     public static FieldAccess getField(Class clazz, String fieldName) {
-        if (clazz != null && fieldName != null) {
-            do {
+        if (clazz == null || fieldName == null) {
+            return null;
+        }
+        final Field field = ReflectionCache.get(clazz, ReflectionCache.FIELD, fieldName, null, () -> findField(clazz, fieldName));
+        return field == null ? null : new FieldAccess(field);
+    }
+
+    private static Field findField(Class clazz, String fieldName) {
+        do {
+            try {
+                return clazz.getField(fieldName);
+            } catch (NoSuchFieldException ex) {
                 try {
-                    Field field = clazz.getField(fieldName);
-                    if (field == null) {
-                        field = clazz.getDeclaredField(fieldName);
-                    }
-                    if (field != null) {
-                        return new FieldAccess(field);
-                    }
-                } catch (NoSuchFieldException ex) {
-                    try {
-                        Field field = clazz.getDeclaredField(fieldName);
-                        if (field != null) {
-                            return new FieldAccess(field);
-                        }
-                    } catch (Exception ignored2) {
-                    }
-                } catch (Exception ignored) {
+                    return clazz.getDeclaredField(fieldName);
+                } catch (Exception ignored2) {
                 }
-            } while (clazz.getSuperclass() != Object.class && ((clazz = clazz.getSuperclass()) != null));
-        }
+            } catch (Exception ignored) {
+            }
+        } while (clazz.getSuperclass() != Object.class && ((clazz = clazz.getSuperclass()) != null));
         return null;
     }
 
@@ -244,12 +246,22 @@ public class Reflection {
      * @return The field's value for that instance.
      */
     public static <T> T getField(Object instance, String fieldName) {
-        Class<?> checkClass = instance.getClass();
+        final Class<?> clazz = instance.getClass();
+        final Field field = ReflectionCache.get(clazz, ReflectionCache.DECLARED_FIELD, fieldName, null, () -> findDeclaredField(clazz, fieldName));
+        if (field == null) {
+            return null;
+        }
+        try {
+            return (T) field.get(instance);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static Field findDeclaredField(Class<?> checkClass, String fieldName) {
         do {
             try {
-                Field field = checkClass.getDeclaredField(fieldName);
-                field.setAccessible(true);
-                return (T) field.get(instance);
+                return checkClass.getDeclaredField(fieldName);
             } catch (Exception e) {
             }
         } while (checkClass.getSuperclass() != Object.class && ((checkClass = checkClass.getSuperclass()) != null));
@@ -319,31 +331,28 @@ public class Reflection {
      * @param methodName - The name of the method.
      * @return The method from a class.
      */
-    @SuppressWarnings("unchecked")
     public static MethodInvoker getMethod(Class clazz, String methodName, boolean superClasses, Class... parameterTypes) {
-        if (clazz != null && methodName != null) {
+        if (clazz == null || methodName == null) {
+            return null;
+        }
+        final Method method = findCachedMethod(clazz, methodName, parameterTypes);
+        return method == null ? null : new MethodInvoker(method);
+    }
+
+    private static Method findCachedMethod(Class clazz, String methodName, Class... parameterTypes) {
+        return ReflectionCache.get(clazz, ReflectionCache.METHOD, methodName, parameterTypes, () -> findMethod(clazz, methodName, parameterTypes));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Method findMethod(Class clazz, String methodName, Class... parameterTypes) {
+        try {
+            return clazz.getMethod(methodName, parameterTypes);
+        } catch (NoSuchMethodException ignore) {
             try {
-                Method method = clazz.getMethod(methodName, parameterTypes);
-                if (method == null) {
-                    method = clazz.getDeclaredMethod(methodName, parameterTypes);
-                }
-                if (method != null) {
-                    return new MethodInvoker(method);
-                } else if (superClasses && clazz.getSuperclass() != null && clazz.getSuperclass() != Object.class) {
-                    return getMethod(clazz.getSuperclass(), methodName, parameterTypes);
-                }
-            } catch (NoSuchMethodException ignore) {
-                try {
-                    Method method = clazz.getDeclaredMethod(methodName, parameterTypes);
-                    if (method != null) {
-                        return new MethodInvoker(method);
-                    } else if (superClasses && clazz.getSuperclass() != null && clazz.getSuperclass() != Object.class) {
-                        return getMethod(clazz.getSuperclass(), methodName, parameterTypes);
-                    }
-                } catch (Exception ignore2) {
-                }
-            } catch (Exception ignore) {
+                return clazz.getDeclaredMethod(methodName, parameterTypes);
+            } catch (Exception ignore2) {
             }
+        } catch (Exception ignore) {
         }
         return null;
     }
@@ -431,12 +440,19 @@ public class Reflection {
     }
 
     private static Class<?> getPacketClass() {
-        return getMinecraftClass("Packet");
+        if (packetClass == null) {
+            packetClass = getMinecraftClass("Packet");
+        }
+        return packetClass;
     }
 
     public static Object getHandle(Object entity) {
         try {
-            Method method = entity.getClass().getDeclaredMethod("getHandle");
+            final Class<?> clazz = entity.getClass();
+            final Method method = ReflectionCache.get(clazz, ReflectionCache.DECLARED_METHOD, "getHandle", null, () -> findDeclaredMethod(clazz, "getHandle"));
+            if (method == null) {
+                throw new NoSuchMethodException(clazz.getName() + ".getHandle()");
+            }
             return method.invoke(entity);
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -446,8 +462,10 @@ public class Reflection {
 
     public static Object getHandle(Entity entity) {
         try {
-            Method method = entity.getClass().getMethod("getHandle");
-
+            final Method method = findCachedMethod(entity.getClass(), "getHandle");
+            if (method == null) {
+                throw new NoSuchMethodException(entity.getClass().getName() + ".getHandle()");
+            }
             return method.invoke(entity);
         } catch (Exception ex) {
             ex.printStackTrace();
@@ -458,14 +476,21 @@ public class Reflection {
     public static void sendPacket(Player player, Object packet) {
         try {
             Object entity_player = getHandle(player);
-            Field player_connection = entity_player.getClass().getField("playerConnection");
-            player_connection.setAccessible(true);
-            Object initiatedConnection = player_connection.get(entity_player);
-            Method sendPacket = initiatedConnection.getClass().getMethod("sendPacket", getPacketClass());
+            FieldAccess player_connection = getField(entity_player.getClass(), "playerConnection");
+            Object initiatedConnection = player_connection.getObject(entity_player);
+            Method sendPacket = findCachedMethod(initiatedConnection.getClass(), "sendPacket", getPacketClass());
             sendPacket.invoke(initiatedConnection, packet);
         } catch (Exception ex) {
             ex.printStackTrace();
         }
     }
 
+    private static Method findDeclaredMethod(Class<?> clazz, String methodName) {
+        try {
+            return clazz.getDeclaredMethod(methodName);
+        } catch (Exception ex) {
+            return null;
+        }
+    }
+
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.reflection;
+
+import java.lang.reflect.AccessibleObject;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Represents the memoized results of reflective lookups, held per class.
+ *
+ * <p>
+ * Results are stored in a {@link ClassValue}, so they are released together with the class they were looked up on, for example when a plugin class loader is unloaded. Lookups which found nothing are
+ * cached as well, so a repeated miss costs a map lookup instead of a thrown exception.</p>
+ */
+final class ReflectionCache {
+
+    static final char FIELD = 'f';
+    static final char DECLARED_FIELD = 'F';
+    static final char METHOD = 'm';
+    static final char DECLARED_METHOD = 'M';
+    static final char CONSTRUCTOR = 'c';
+    static final char SUB_CLASS = 's';
+    //
+    private static final Object MISSING = new Object();
+    private static final ClassValue<Map<Key, Object>> CACHES = new ClassValue<Map<Key, Object>>() {
+
+        @Override
+        protected Map<Key, Object> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<Key, Object>();
+        }
+    };
+
+    private ReflectionCache() {
+    }
+
+    /**
+     * Returns the cached result of a lookup, performing the lookup if it has not been cached yet.
+     *
+     * @param <V> The type of the result.
+     * @param owner The class the lookup is performed on.
+     * @param kind The kind of lookup.
+     * @param name The name looked up.
+     * @param parameterTypes The parameter types looked up, or null.
+     * @param lookup The lookup, returning null if nothing was found.
+     * @return The result, or null if nothing was found.
+     */
+    @SuppressWarnings("unchecked")
+    static <V> V get(Class<?> owner, char kind, String name, Class<?>[] parameterTypes, Supplier<V> lookup) {
+        final Map<Key, Object> cache = CACHES.get(owner);
+        final Key key = new Key(kind, name, parameterTypes);
+
+        Object value = cache.get(key);
+        if (value == null) {
+            final V found = lookup.get();
+            if (found instanceof AccessibleObject) {
+                makeAccessible((AccessibleObject) found);
+            }
+
+            value = found == null ? MISSING : found;
+            final Object previous = cache.putIfAbsent(key.copy(), value);
+            if (previous != null) {
+                value = previous;
+            }
+        }
+
+        return value == MISSING ? null : (V) value;
+    }
+
+    // Cached members are shared, so they are made accessible once instead of being toggled per use
+    private static void makeAccessible(AccessibleObject member) {
+        try {
+            member.setAccessible(true);
+        } catch (RuntimeException ignored) {
+        }
+    }
+
+    private static final class Key {
+
+        private final char kind;
+        private final String name;
+        private final Class<?>[] parameterTypes;
+        private final int hash;
+
+        private Key(char kind, String name, Class<?>[] parameterTypes) {
+            this.kind = kind;
+            this.name = name;
+            this.parameterTypes = parameterTypes;
+            this.hash = 31 * (31 * kind + (name == null ? 0 : name.hashCode())) + Arrays.hashCode(parameterTypes);
+        }
+
+        private Key copy() {
+            return parameterTypes == null ? this : new Key(kind, name, parameterTypes.clone());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+            return kind == other.kind
+                    && hash == other.hash
+                    && (name == null ? other.name == null : name.equals(other.name))
+                    && Arrays.equals(parameterTypes, other.parameterTypes);
+        }
+    }
+
+}
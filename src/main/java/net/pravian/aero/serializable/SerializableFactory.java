@@ -0,0 +1,96 @@
+package net.pravian.aero.serializable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Represents a cached factory which creates SerializableObjects from their serialized String-form.
+ *
+ * <p>
+ * The String constructor of each type is looked up once and kept as a method handle, so creating an object is a direct constructor call instead of a reflective lookup and invocation.</p>
+ *
+ * @param <T> The type of the SerializableObject.
+ * @see net.pravian.aero.config.YamlConfig#getAeroSerializable(String, Class)
+ */
+public final class SerializableFactory<T extends SerializableObject<?>> {
+
+    private static final ClassValue<SerializableFactory<?>> FACTORIES = new ClassValue<SerializableFactory<?>>() {
+
+        @Override
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        protected SerializableFactory<?> computeValue(Class<?> type) {
+            return new SerializableFactory(type);
+        }
+    };
+    //
+    private final Class<T> type;
+    private final MethodHandle constructor;
+    private final ReflectiveOperationException error;
+
+    private SerializableFactory(Class<T> type) {
+        this.type = type;
+
+        MethodHandle handle = null;
+        ReflectiveOperationException lookupError = null;
+        try {
+            final Constructor<T> cons = type.getDeclaredConstructor(String.class);
+            cons.setAccessible(true);
+            handle = MethodHandles.lookup().unreflectConstructor(cons).asType(MethodType.methodType(Object.class, String.class));
+        } catch (ReflectiveOperationException ex) {
+            lookupError = ex;
+        } catch (SecurityException ex) {
+            lookupError = new IllegalAccessException(ex.getMessage());
+        }
+
+        this.constructor = handle;
+        this.error = lookupError;
+    }
+
+    /**
+     * Returns the factory for a type of SerializableObject.
+     *
+     * @param <T> The type of the SerializableObject.
+     * @param type The class of the SerializableObject.
+     * @return The factory.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends SerializableObject<?>> SerializableFactory<T> of(Class<T> type) {
+        return (SerializableFactory<T>) FACTORIES.get(type);
+    }
+
+    /**
+     * Returns the type of SerializableObject this factory creates.
+     *
+     * @return The type.
+     */
+    public Class<T> getType() {
+        return type;
+    }
+
+    /**
+     * Creates a SerializableObject from its serialized String-form.
+     *
+     * <p>
+     * This method is thread-safe, as long as the String constructor of the type is.</p>
+     *
+     * @param serialized The serialized object.
+     * @return The object.
+     * @throws ReflectiveOperationException If the type has no String constructor, or if the constructor threw an exception.
+     */
+    public T create(String serialized) throws ReflectiveOperationException {
+        if (constructor == null) {
+            throw error;
+        }
+
+        try {
+            return type.cast((Object) constructor.invokeExact(serialized));
+        } catch (RuntimeException | Error ex) {
+            throw ex;
+        } catch (Throwable ex) {
+            throw new InvocationTargetException(ex);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package net.pravian.aero.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import net.pravian.aero.concurrent.BukkitSyncTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.event.vehicle.VehicleExitEvent;
+import org.bukkit.event.vehicle.VehicleMoveEvent;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Represents a spatial hash of online players per world, for radius queries without scanning every player.
+ *
+ * <p>
+ * Players are kept in square cells of {@value #CELL_SIZE} blocks on the X/Z plane. The index is updated from join, quit, move, teleport, respawn and world change events, and only touches the cells
+ * when a player crosses a cell border. Players riding a vehicle are updated from vehicle move and exit events, as they do not fire move events. Players inside a vehicle are also resynchronized
+ * every {@value #RESYNC_INTERVAL} ticks, for mounts which do not fire vehicle events. The index is only used from the main thread.</p>
+ *
+ * <p>
+ * The index is started by the first plugin calling {@link #start(Plugin)}. While it is not running, queries fall back to scanning the players of the world.</p>
+ */
+public class PlayerIndex implements Listener {
+
+    public static final int CELL_SIZE = 16;
+    public static final long RESYNC_INTERVAL = 20;
+    private static final int CELL_SHIFT = 4;
+    //
+    private static PlayerIndex instance = null;
+    //
+    private final Plugin owner;
+    private final Map<UUID, Map<Long, Set<Player>>> worlds = new HashMap<UUID, Map<Long, Set<Player>>>();
+    private final Map<UUID, Cell> cells = new HashMap<UUID, Cell>();
+    private final ResyncTask resyncTask;
+
+    private PlayerIndex(Plugin owner) {
+        this.owner = owner;
+        this.resyncTask = new ResyncTask();
+    }
+
+    /**
+     * Starts the index if it is not running yet.
+     *
+     * @param plugin The plugin to register the index listener for.
+     */
+    public static void start(Plugin plugin) {
+        if (isRunning()) {
+            return;
+        }
+
+        stop();
+        instance = new PlayerIndex(plugin);
+        Bukkit.getPluginManager().registerEvents(instance, plugin);
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            instance.update(player, player.getLocation());
+        }
+        instance.resyncTask.start(RESYNC_INTERVAL, RESYNC_INTERVAL);
+    }
+
+    /**
+     * Stops the index.
+     */
+    public static void stop() {
+        if (instance != null) {
+            HandlerList.unregisterAll(instance);
+            instance.resyncTask.stop();
+            instance = null;
+        }
+    }
+
+    /**
+     * Validates if the index is running. The index stops running when the plugin which started it is disabled.
+     *
+     * @return True if the index is running.
+     */
+    public static boolean isRunning() {
+        return instance != null && instance.owner.isEnabled();
+    }
+
+    /**
+     * Returns the players within a radius of a location.
+     *
+     * @param center The center.
+     * @param radius The radius in blocks.
+     * @return The players, in no particular order.
+     */
+    public static List<Player> getNearby(Location center, double radius) {
+        final List<Player> result = new ArrayList<Player>();
+        final World world = center.getWorld();
+        final double radiusSquared = radius * radius;
+
+        if (!isRunning()) {
+            collect(world.getPlayers(), center, radiusSquared, result);
+            return result;
+        }
+
+        final Map<Long, Set<Player>> grid = instance.worlds.get(world.getUID());
+        if (grid == null) {
+            return result;
+        }
+
+        final int minX = floor(center.getX() - radius) >> CELL_SHIFT;
+        final int maxX = floor(center.getX() + radius) >> CELL_SHIFT;
+        final int minZ = floor(center.getZ() - radius) >> CELL_SHIFT;
+        final int maxZ = floor(center.getZ() + radius) >> CELL_SHIFT;
+
+        // Scanning more cells than there are occupied cells is slower than scanning the occupied cells
+        if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) > grid.size()) {
+            for (Set<Player> players : grid.values()) {
+                collect(players, center, radiusSquared, result);
+            }
+            return result;
+        }
+
+        for (int x = minX; x <= maxX; x++) {
+            for (int z = minZ; z <= maxZ; z++) {
+                final Set<Player> players = grid.get(key(x, z));
+                if (players != null) {
+                    collect(players, center, radiusSquared, result);
+                }
+            }
+        }
+        return result;
+    }
+
+    private static void collect(Collection<? extends Player> players, Location center, double radiusSquared, List<Player> result) {
+        for (Player player : players) {
+            final Location location = player.getLocation();
+            if (location.getWorld().equals(center.getWorld()) && location.distanceSquared(center) <= radiusSquared) {
+                result.add(player);
+            }
+        }
+    }
+
+    private void update(Player player, Location to) {
+        if (to == null || to.getWorld() == null) {
+            return;
+        }
+
+        final UUID world = to.getWorld().getUID();
+        final long key = key(to.getBlockX() >> CELL_SHIFT, to.getBlockZ() >> CELL_SHIFT);
+
+        final Cell previous = cells.get(player.getUniqueId());
+        if (previous != null) {
+            if (previous.world.equals(world) && previous.key == key) {
+                return;
+            }
+            remove(player, previous);
+        }
+
+        Map<Long, Set<Player>> grid = worlds.get(world);
+        if (grid == null) {
+            grid = new HashMap<Long, Set<Player>>();
+            worlds.put(world, grid);
+        }
+
+        Set<Player> players = grid.get(key);
+        if (players == null) {
+            players = new LinkedHashSet<Player>();
+            grid.put(key, players);
+        }
+
+        players.add(player);
+        cells.put(player.getUniqueId(), new Cell(world, key));
+    }
+
+    private void remove(Player player, Cell cell) {
+        final Map<Long, Set<Player>> grid = worlds.get(cell.world);
+        if (grid == null) {
+            return;
+        }
+
+        final Set<Player> players = grid.get(cell.key);
+        if (players != null && players.remove(player) && players.isEmpty()) {
+            grid.remove(cell.key);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        update(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        final Cell cell = cells.remove(event.getPlayer().getUniqueId());
+        if (cell != null) {
+            remove(event.getPlayer(), cell);
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerMove(PlayerMoveEvent event) {
+        final Location from = event.getFrom();
+        final Location to = event.getTo();
+        if (to != null && (from.getBlockX() >> CELL_SHIFT) == (to.getBlockX() >> CELL_SHIFT) && (from.getBlockZ() >> CELL_SHIFT) == (to.getBlockZ() >> CELL_SHIFT)) {
+            return; // Same cell
+        }
+        update(event.getPlayer(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onPlayerTeleport(PlayerTeleportEvent event) {
+        update(event.getPlayer(), event.getTo());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerRespawn(PlayerRespawnEvent event) {
+        update(event.getPlayer(), event.getRespawnLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+        update(event.getPlayer(), event.getPlayer().getLocation());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onVehicleMove(VehicleMoveEvent event) {
+        final Location from = event.getFrom();
+        final Location to = event.getTo();
+        if ((from.getBlockX() >> CELL_SHIFT) == (to.getBlockX() >> CELL_SHIFT) && (from.getBlockZ() >> CELL_SHIFT) == (to.getBlockZ() >> CELL_SHIFT)) {
+            return; // Same cell
+        }
+        updatePassengers(event.getVehicle(), to);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onVehicleExit(VehicleExitEvent event) {
+        if (event.getExited() instanceof Player) {
+            update((Player) event.getExited(), event.getVehicle().getLocation());
+        }
+    }
+
+    private void updatePassengers(Entity vehicle, Location to) {
+        for (Entity passenger : vehicle.getPassengers()) {
+            if (passenger instanceof Player) {
+                update((Player) passenger, to);
+            }
+            updatePassengers(passenger, to);
+        }
+    }
+
+    private void resync() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (player.isInsideVehicle()) {
+                update(player, player.getLocation());
+            }
+        }
+    }
+
+    private static long key(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static int floor(double value) {
+        final int floor = (int) value;
+        return value < floor ? floor - 1 : floor;
+    }
+
+    private class ResyncTask extends BukkitSyncTask {
+
+        private ResyncTask() {
+            super(PlayerIndex.this.owner);
+        }
+
+        @Override
+        public void run() {
+            resync();
+        }
+    }
+
+    private static class Cell {
+
+        private final UUID world;
+        private final long key;
+
+        private Cell(UUID world, long key) {
+            this.world = world;
+            this.key = key;
+        }
+    }
+
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.completion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CompletionTrieTest {
+
+    @Test
+    public void testCompleteIgnoresCaseAndKeepsOriginal() {
+        final CompletionTrie trie = new CompletionTrie();
+        trie.add("Notch");
+        trie.add("jeb_");
+        trie.add("Dinnerbone");
+        trie.add("notchy");
+
+        assertEquals(Arrays.asList("Notch", "notchy"), trie.complete("NOT", 10));
+        assertEquals(Arrays.asList("jeb_"), trie.complete("J", 10));
+        assertEquals(Arrays.asList("Dinnerbone", "jeb_", "Notch", "notchy"), trie.complete("", 10));
+        assertTrue(trie.complete("x", 10).isEmpty());
+        assertTrue(trie.complete("notchyy", 10).isEmpty());
+    }
+
+    @Test
+    public void testLimit() {
+        final CompletionTrie trie = new CompletionTrie();
+        for (String name : Arrays.asList("a", "ab", "abc", "abd", "b")) {
+            trie.add(name);
+        }
+
+        assertEquals(Arrays.asList("a", "ab"), trie.complete("a", 2));
+        assertTrue(trie.complete("a", 0).isEmpty());
+    }
+
+    @Test
+    public void testAddAndRemove() {
+        final CompletionTrie trie = new CompletionTrie();
+        assertTrue(trie.add("Steve"));
+        assertFalse(trie.add("Steve"));
+        assertTrue(trie.add("steve")); // Different case is a different name
+        assertEquals(2, trie.size());
+        assertEquals(Arrays.asList("Steve", "steve"), trie.complete("ste", 10));
+
+        assertTrue(trie.remove("Steve"));
+        assertFalse(trie.remove("Steve"));
+        assertFalse(trie.remove("Stev"));
+        assertEquals(1, trie.size());
+        assertEquals(Arrays.asList("steve"), trie.complete("STE", 10));
+
+        trie.clear();
+        assertEquals(0, trie.size());
+        assertTrue(trie.complete("", 10).isEmpty());
+    }
+
+    @Test
+    public void testMatchesSortedScan() {
+        final Random random = new Random(7);
+        final CompletionTrie trie = new CompletionTrie();
+        final List<String> names = new ArrayList<String>();
+        for (int i = 0; i < 2000; i++) {
+            final String name = randomName(random);
+            if (trie.add(name)) {
+                names.add(name);
+            }
+        }
+
+        // Remove some names again, which prunes branches
+        for (int i = 0; i < 500; i++) {
+            final String name = names.remove(random.nextInt(names.size()));
+            assertTrue(trie.remove(name));
+        }
+        assertEquals(names.size(), trie.size());
+
+        final List<String> sorted = new ArrayList<String>(names);
+        Collections.sort(sorted, String.CASE_INSENSITIVE_ORDER); // Stable, so equal names keep insertion order
+
+        for (int i = 0; i < 200; i++) {
+            final String prefix = randomName(random).substring(0, random.nextInt(3));
+            final int limit = 1 + random.nextInt(20);
+
+            final List<String> expected = new ArrayList<String>();
+            for (String name : sorted) {
+                if (expected.size() < limit && name.toLowerCase().startsWith(prefix.toLowerCase())) {
+                    expected.add(name);
+                }
+            }
+            assertEquals(prefix, expected, trie.complete(prefix, limit));
+        }
+    }
+
+    private static String randomName(Random random) {
+        final String chars = "abcAB_";
+        final char[] name = new char[2 + random.nextInt(5)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = chars.charAt(random.nextInt(chars.length()));
+        }
+        return new String(name);
+    }
+
+}
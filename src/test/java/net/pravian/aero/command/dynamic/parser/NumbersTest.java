@@ -0,0 +1,104 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.dynamic.parser;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class NumbersTest {
+
+    private static final String[] INTEGERS = {
+        "0", "7", "-7", "+7", "007", "2147483647", "-2147483648", "2147483648", "-2147483649", "99999999999",
+        "", "-", "+", "1.0", "1e3", "0x10", " 1", "1 ", "one", "1_000", "--1", "١"
+    };
+    private static final String[] DECIMALS = {
+        "0", "1", "-1", "+1", "1.", ".5", "-.5", "1.5", "1e3", "1E-3", "1.5e+3", ".5e3", "1f", "1.5D", "1e3d",
+        "NaN", "-NaN", "+Infinity", "-Infinity", "Infinity", "0x1p3", "0X1.8P-1", "0x.8p1", "-0x1p0f", " 1.5 ",
+        "", "-", ".", "e3", "1e", "1e+", ".e3", "1.5.5", "1ee3", "f", "1.5fd", "nan", "infinity", "NaNf", "Infinityd",
+        "0x", "0x1", "0x1.8", "0xp3", "0x1p", "0x1g1", "1,5", "1 5", "0x1p3.5"
+    };
+
+    @Test
+    public void testParseIntMatchesInteger() {
+        final ParseResult<Integer> result = new ParseResult<Integer>();
+        for (String token : INTEGERS) {
+            Integer expected;
+            try {
+                expected = Integer.parseInt(token);
+            } catch (NumberFormatException ex) {
+                expected = null;
+            }
+
+            result.reset();
+            assertEquals(token, expected != null, Numbers.parseInt(token, 3, result));
+            if (expected != null) {
+                assertEquals(token, expected, result.getValue());
+                assertEquals(3, result.getOffset());
+            } else {
+                assertEquals("Could not parse integer: " + token, result.getError());
+            }
+        }
+    }
+
+    @Test
+    public void testIsIntegerMatchesForm() {
+        for (String token : INTEGERS) {
+            assertEquals(token, token.matches("[+-]?\\p{Nd}+"), Numbers.isInteger(token));
+        }
+    }
+
+    @Test
+    public void testIsDecimalMatchesDouble() {
+        for (String token : DECIMALS) {
+            boolean expected;
+            try {
+                Double.parseDouble(token);
+                expected = true;
+            } catch (NumberFormatException ex) {
+                expected = false;
+            }
+
+            assertEquals(token, expected, Numbers.isDecimal(token));
+        }
+    }
+
+    @Test
+    public void testParseDouble() {
+        final ParseResult<Double> result = new ParseResult<Double>();
+        assertTrue(Numbers.parseDouble("0x1p3", 1, result));
+        assertEquals(8, result.getValue(), 0);
+
+        result.reset();
+        assertTrue(Numbers.parseDouble("NaN", 1, result));
+        assertTrue(result.getValue().isNaN());
+
+        result.reset();
+        assertFalse(Numbers.parseDouble("1,5", 1, result));
+        assertEquals("Could not parse double: 1,5", result.getError());
+    }
+
+    @Test
+    public void testParseFloat() {
+        final ParseResult<Float> result = new ParseResult<Float>();
+        assertTrue(Numbers.parseFloat("-Infinity", 1, result));
+        assertEquals(Float.NEGATIVE_INFINITY, result.getValue(), 0);
+
+        result.reset();
+        assertFalse(Numbers.parseFloat("abc", 1, result));
+        assertEquals("Could not parse float: abc", result.getError());
+    }
+
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.executor;
+
+import java.util.UUID;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CommandCooldownTest {
+
+    private final UUID uuid = UUID.randomUUID();
+
+    @Test
+    public void testBurstIsLimitedToRate() {
+        final CommandCooldown cooldown = new CommandCooldown(60000, 3);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, cooldown.tryAcquire(uuid));
+        }
+
+        assertTrue(cooldown.tryAcquire(uuid) > 0);
+        assertEquals(1, cooldown.getDenials());
+        assertEquals(0, cooldown.tryAcquire(UUID.randomUUID())); // Buckets are per sender
+    }
+
+    @Test
+    public void testReleaseGivesBackUse() {
+        final CommandCooldown cooldown = new CommandCooldown(60000, 1);
+        assertEquals(0, cooldown.tryAcquire(uuid));
+        assertTrue(cooldown.tryAcquire(uuid) > 0);
+
+        cooldown.release(uuid);
+        assertEquals(0, cooldown.tryAcquire(uuid));
+        assertTrue(cooldown.tryAcquire(uuid) > 0);
+    }
+
+    @Test
+    public void testReleaseWithoutBucketIsIgnored() {
+        final CommandCooldown cooldown = new CommandCooldown(60000, 1);
+        cooldown.release(uuid);
+
+        assertEquals(0, cooldown.tryAcquire(uuid));
+        assertTrue(cooldown.tryAcquire(uuid) > 0);
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.executor;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CommandStatsTest {
+
+    private static final double[] FRACTIONS = {0.01, 0.1, 0.5, 0.9, 0.99, 0.999, 1};
+
+    @Test
+    public void testEmpty() {
+        final CommandStats stats = new CommandStats();
+        assertEquals(0, stats.getInvocations());
+        assertEquals(0, stats.getMax());
+        assertEquals(0, stats.getPercentile(0.5));
+        assertEquals(0, stats.getPercentile(0.99));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        final CommandStats stats = new CommandStats();
+        for (long nanos = 0; nanos < 8; nanos++) {
+            stats.record(nanos, false);
+        }
+
+        assertEquals(0, stats.getPercentile(0.1));
+        assertEquals(3, stats.getPercentile(0.5));
+        assertEquals(7, stats.getPercentile(1));
+        assertEquals(7, stats.getMax());
+    }
+
+    @Test
+    public void testPercentilesAreBoundedUpperEstimates() {
+        final Random random = new Random(42);
+        final long[] samples = new long[10000];
+        final CommandStats stats = new CommandStats();
+        for (int i = 0; i < samples.length; i++) {
+            // Log-uniform between 1µs and 1s
+            samples[i] = (long) Math.pow(10, 3 + random.nextDouble() * 6);
+            stats.record(samples[i], false);
+        }
+        Arrays.sort(samples);
+
+        for (double fraction : FRACTIONS) {
+            final long actual = samples[(int) Math.ceil(fraction * samples.length) - 1];
+            final long reported = stats.getPercentile(fraction);
+            assertTrue("p" + fraction + ": " + reported + " < " + actual, reported >= actual);
+            assertTrue("p" + fraction + ": " + reported + " > " + actual + " + 25%", reported <= actual * 1.25);
+        }
+        assertEquals(samples[samples.length - 1], stats.getMax());
+        assertEquals(stats.getMax(), stats.getPercentile(1));
+    }
+
+    @Test
+    public void testPercentilesAreMonotonic() {
+        final CommandStats stats = new CommandStats();
+        for (long nanos = 1; nanos < 100000000L; nanos = nanos * 3 / 2 + 1) {
+            stats.record(nanos, false);
+        }
+
+        long previous = 0;
+        for (int i = 1; i <= 100; i++) {
+            final long percentile = stats.getPercentile(i / 100.0);
+            assertTrue(percentile >= previous);
+            previous = percentile;
+        }
+    }
+
+    @Test
+    public void testExtremesAndReset() {
+        final CommandStats stats = new CommandStats();
+        stats.record(-5, false);
+        stats.record(Long.MAX_VALUE, true);
+
+        assertEquals(2, stats.getInvocations());
+        assertEquals(1, stats.getErrors());
+        assertEquals(0, stats.getPercentile(0.5));
+        assertEquals(Long.MAX_VALUE, stats.getPercentile(1));
+
+        stats.reset();
+        assertEquals(0, stats.getInvocations());
+        assertEquals(0, stats.getErrors());
+        assertEquals(0, stats.getPercentile(1));
+    }
+
+    @Test
+    public void testEmptyIgnoresRecords() {
+        CommandStats.EMPTY.record(1000, true);
+
+        assertEquals(0, CommandStats.EMPTY.getInvocations());
+        assertEquals(0, CommandStats.EMPTY.getErrors());
+        assertEquals(0, CommandStats.EMPTY.getPercentile(1));
+    }
+
+}
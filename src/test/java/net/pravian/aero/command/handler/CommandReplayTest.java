@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.handler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import net.pravian.aero.command.CommandOptions;
+import net.pravian.aero.command.dynamic.DynamicCommand;
+import net.pravian.aero.command.smart.SmartCommand;
+import net.pravian.aero.stub.StubPlugin;
+import net.pravian.aero.stub.StubSender;
+import net.pravian.aero.stub.StubServer;
+import org.bukkit.ChatColor;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandSender;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CommandReplayTest {
+
+    private SimpleCommandHandler<StubPlugin> handler;
+    private CommandAmount amount;
+    private CommandTotal total;
+    private StubSender sender;
+
+    @Before
+    public void setUp() {
+        StubServer.get().setPrimaryThread(Thread.currentThread());
+
+        handler = new SimpleCommandHandler<StubPlugin>(StubPlugin.get());
+        amount = new CommandAmount();
+        total = new CommandTotal();
+        handler.add(amount, "amount");
+        handler.add(total, "total");
+        assertTrue(handler.registerAll(StubPlugin.NAME, true));
+
+        sender = StubSender.player("Prozza");
+    }
+
+    @Test
+    public void testReplay() {
+        final CommandReplay replay = new CommandReplay(handler, sender.getSender(), Arrays.asList(
+                "/amount 3",
+                "amount abc",
+                "# comment",
+                "",
+                "unknown 1",
+                "total 4",
+                "total abc"), 2);
+
+        final CompletableFuture<List<String>> result = replay.start();
+        assertTrue(StubServer.get().getScheduler().tickUntil(result::isDone, 10));
+
+        final List<String> report = result.join();
+        assertTrue(report.get(0), report.get(0).startsWith("Replayed 4 commands (1 unknown)"));
+        assertTrue(report.stream().anyMatch(line -> line.startsWith("amount: 2 calls")));
+        assertTrue(report.stream().anyMatch(line -> line.startsWith("total: 2 calls")));
+
+        assertEquals(Arrays.asList(3), amount.amounts);
+        assertEquals(Arrays.asList(4), total.amounts);
+        assertEquals(Arrays.asList(ChatColor.RED + "Invalid number: abc"), sender.getMessages());
+        assertEquals(0, StubServer.get().getScheduler().getPending());
+    }
+
+    @Test
+    public void testStop() {
+        final CommandReplay replay = new CommandReplay(handler, sender.getSender(), Arrays.asList("amount 1", "amount 2", "amount 3"), 1);
+
+        final CompletableFuture<List<String>> result = replay.start();
+        StubServer.get().getScheduler().tick();
+        replay.stop();
+
+        assertTrue(result.isDone());
+        assertTrue(result.join().get(0), result.join().get(0).startsWith("Replayed 1 commands (0 unknown)"));
+        assertEquals(Arrays.asList(1), amount.amounts);
+        assertEquals(0, StubServer.get().getScheduler().getPending());
+    }
+
+    public static class CommandAmount extends SmartCommand<StubPlugin> {
+
+        private final List<Integer> amounts = new ArrayList<Integer>();
+
+        @Override
+        public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+            length(1);
+            amounts.add(toInt(args[0]));
+            return true;
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    public static class CommandTotal extends DynamicCommand<StubPlugin> {
+
+        private final List<Integer> amounts = new ArrayList<Integer>();
+
+        @CommandOptions
+        public boolean total(int amount) {
+            amounts.add(amount);
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.command.index;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.pravian.aero.stub.StubCompiler;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class CommandIndexTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testEscapeRoundTrip() {
+        for (String value : Arrays.asList("", "plain", "tab\there", "line\nbreak\r\n", "back\\slash", "\\t", "trailing\\")) {
+            final String escaped = CommandIndex.escape(value);
+            assertEquals(-1, escaped.indexOf('\t'));
+            assertEquals(-1, escaped.indexOf('\n'));
+            assertEquals(-1, escaped.indexOf('\r'));
+            assertEquals(value, CommandIndex.unescape(escaped));
+        }
+
+        assertEquals("trailing\\", CommandIndex.unescape("trailing\\")); // A lone trailing backslash is kept
+    }
+
+    @Test
+    public void testFormatRoundTrip() throws IOException {
+        final String line = "aero.test.CommandHome\tdescription=" + CommandIndex.escape("Go\thome\nnow \\o/") + "\taliases=h,home\tusage=";
+        final CommandIndex index = read("# Comment", "", line, "aero.test.CommandPlain");
+
+        assertEquals(2, index.getEntries().size());
+        final CommandIndex.Entry entry = index.getEntries().get(0);
+        assertEquals("aero.test.CommandHome", entry.getClassName());
+        assertEquals("CommandHome", entry.getSimpleName());
+        assertEquals("Go\thome\nnow \\o/", entry.getOption("description"));
+        assertEquals("h,home", entry.getOption("aliases"));
+        assertEquals("", entry.getOption("usage"));
+        assertEquals(Arrays.asList("description", "aliases", "usage"), new ArrayList<String>(entry.getOptions().keySet()));
+        assertEquals(line, CommandIndex.format(entry));
+
+        final CommandIndex.Entry plain = index.getEntries().get(1);
+        assertFalse(plain.hasOptions());
+        assertNull(plain.getOption("description"));
+        assertEquals("aero.test.CommandPlain", CommandIndex.format(plain));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidEntryIsRejected() throws IOException {
+        read("aero.test.CommandHome\tdescription");
+    }
+
+    @Test
+    public void testNestedSimpleName() throws IOException {
+        assertEquals("CommandInner", read("aero.test.Commands$CommandInner").getEntries().get(0).getSimpleName());
+    }
+
+    @Test
+    public void testGetEntriesMatchesPackagePrefix() throws IOException {
+        final CommandIndex index = read(
+                "aero.test.CommandA",
+                "aero.test.sub.CommandB",
+                "aero.tests.CommandC",
+                "aero.CommandD",
+                "aero.test.Commands$CommandE");
+
+        assertEquals(Arrays.asList("aero.test.CommandA", "aero.test.sub.CommandB", "aero.test.Commands$CommandE"), classNames(index.getEntries("aero.test")));
+        assertEquals(Arrays.asList("aero.test.sub.CommandB"), classNames(index.getEntries("aero.test.sub")));
+        assertEquals(5, index.getEntries("aero").size());
+        assertTrue(index.getEntries("aero.tes").isEmpty());
+    }
+
+    @Test
+    public void testProcessorIndexesCommands() throws IOException {
+        final File output = folder.newFolder("classes");
+        final Map<String, String> sources = new LinkedHashMap<String, String>();
+        sources.put("aero.test.CommandA", command("CommandA", "@CommandOptions(description = \"First\\tcommand\", aliases = \"a,first\")"));
+        sources.put("aero.test.CommandB", command("CommandB", ""));
+        sources.put("aero.test.AbstractCommand", "package aero.test;\n"
+                + "public abstract class AbstractCommand extends net.pravian.aero.command.smart.SmartCommand<net.pravian.aero.stub.StubPlugin> {}\n");
+        sources.put("aero.test.Helper", "package aero.test;\npublic class Helper {}\n");
+        StubCompiler.compile(output, sources);
+
+        final CommandIndex index = load(output);
+        assertEquals(Arrays.asList("aero.test.CommandA", "aero.test.CommandB"), classNames(index.getEntries()));
+        assertEquals("First\tcommand", index.getEntries().get(0).getOption("description"));
+        assertEquals("a,first", index.getEntries().get(0).getOption("aliases"));
+        assertFalse(index.getEntries().get(1).hasOptions());
+    }
+
+    @Test
+    public void testIncrementalCompileKeepsOtherEntries() throws IOException {
+        final File output = compileAB();
+
+        StubCompiler.compile(output, Collections.singletonMap("aero.test.CommandC", command("CommandC", "@CommandOptions(description = \"Third\")")));
+
+        final CommandIndex index = load(output);
+        assertEquals(Arrays.asList("aero.test.CommandA", "aero.test.CommandB", "aero.test.CommandC"), classNames(index.getEntries()));
+        assertEquals("First", index.getEntries().get(0).getOption("description"));
+        assertEquals("Third", index.getEntries().get(2).getOption("description"));
+    }
+
+    @Test
+    public void testIncrementalCompileDropsDeletedClass() throws IOException {
+        final File output = compileAB();
+        assertTrue(new File(output, "aero/test/CommandB.class").delete());
+
+        StubCompiler.compile(output, Collections.singletonMap("aero.test.CommandA", command("CommandA", "@CommandOptions(description = \"Changed\")")));
+
+        final CommandIndex index = load(output);
+        assertEquals(Arrays.asList("aero.test.CommandA"), classNames(index.getEntries()));
+        assertEquals("Changed", index.getEntries().get(0).getOption("description"));
+    }
+
+    @Test
+    public void testIncrementalCompileUpdatesRemovedOptions() throws IOException {
+        final File output = compileAB();
+
+        StubCompiler.compile(output, Collections.singletonMap("aero.test.CommandA", command("CommandA", "")));
+
+        final CommandIndex index = load(output);
+        assertEquals(Arrays.asList("aero.test.CommandA", "aero.test.CommandB"), classNames(index.getEntries()));
+        assertFalse(index.getEntries().get(0).hasOptions());
+        assertEquals("Second", index.getEntries().get(1).getOption("description"));
+    }
+
+    @Test
+    public void testIncrementalCompileDropsClassNoLongerCommand() throws IOException {
+        final File output = compileAB();
+
+        StubCompiler.compile(output, Collections.singletonMap("aero.test.CommandA", "package aero.test;\npublic class CommandA {}\n"));
+
+        assertEquals(Arrays.asList("aero.test.CommandB"), classNames(load(output).getEntries()));
+    }
+
+    private File compileAB() throws IOException {
+        final File output = folder.newFolder("classes");
+        final Map<String, String> sources = new LinkedHashMap<String, String>();
+        sources.put("aero.test.CommandA", command("CommandA", "@CommandOptions(description = \"First\")"));
+        sources.put("aero.test.CommandB", command("CommandB", "@CommandOptions(description = \"Second\")"));
+        StubCompiler.compile(output, sources);
+        return output;
+    }
+
+    private static String command(String name, String options) {
+        return "package aero.test;\n"
+                + "import net.pravian.aero.command.CommandOptions;\n"
+                + "import org.bukkit.command.Command;\n"
+                + "import org.bukkit.command.CommandSender;\n"
+                + options + "\n"
+                + "public class " + name + " extends net.pravian.aero.command.smart.SmartCommand<net.pravian.aero.stub.StubPlugin> {\n"
+                + "    @Override public boolean onCommand(CommandSender sender, Command command, String label, String[] args) { return true; }\n"
+                + "}\n";
+    }
+
+    private static CommandIndex read(String... lines) throws IOException {
+        final StringBuilder index = new StringBuilder();
+        for (String line : lines) {
+            index.append(line).append('\n');
+        }
+        return CommandIndex.read(new ByteArrayInputStream(index.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static CommandIndex load(File output) throws IOException {
+        try (InputStream in = new FileInputStream(new File(output, CommandIndex.RESOURCE))) {
+            return CommandIndex.read(in);
+        }
+    }
+
+    private static List<String> classNames(List<CommandIndex.Entry> entries) {
+        final List<String> names = new ArrayList<String>();
+        for (CommandIndex.Entry entry : entries) {
+            names.add(entry.getClassName());
+        }
+        return names;
+    }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import net.pravian.aero.stub.StubPlugin;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class ConfigCacheTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testScalarRoundTrip() throws IOException {
+        assertNull(roundTrip(null));
+        assertEquals("héllo", roundTrip("héllo"));
+        assertEquals(Integer.MIN_VALUE, roundTrip(Integer.MIN_VALUE));
+        assertEquals(Long.MAX_VALUE, roundTrip(Long.MAX_VALUE));
+        assertEquals(Double.NaN, (Double) roundTrip(Double.NaN), 0);
+        assertEquals(Boolean.TRUE, roundTrip(true));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testCollectionRoundTrip() throws IOException {
+        final Map<Object, Object> map = new LinkedHashMap<Object, Object>();
+        map.put("a", 1);
+        map.put(2, Arrays.asList("x", null, 3L));
+
+        final Object value = roundTrip(Arrays.<Object>asList("first", map, 1.5D));
+        assertEquals(Arrays.<Object>asList("first", map, 1.5D), value);
+
+        // Read collections are mutable copies
+        ((List<Object>) value).add("more");
+    }
+
+    @Test
+    public void testSectionRoundTrip() throws IOException {
+        final MemoryConfiguration config = new MemoryConfiguration();
+        config.set("name", "Aero");
+        config.set("limits.homes", 3);
+        config.set("limits.worlds", new ArrayList<String>(Arrays.asList("world", "nether")));
+        config.createSection("empty");
+
+        final Object node = roundTrip(ConfigSnapshot.build(config));
+        assertTrue(node instanceof ConfigSnapshot.Node);
+
+        final MemoryConfiguration applied = new MemoryConfiguration();
+        ConfigCache.apply(applied, (ConfigSnapshot.Node) node);
+
+        assertEquals("Aero", applied.getString("name"));
+        assertEquals(3, applied.getInt("limits.homes"));
+        assertEquals(Arrays.asList("world", "nether"), applied.getStringList("limits.worlds"));
+        assertTrue(applied.isConfigurationSection("empty"));
+        assertEquals(config.getKeys(true), applied.getKeys(true));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnsupportedValue() throws IOException {
+        roundTrip(new Object());
+    }
+
+    @Test
+    public void testInvalidLengthIsRejected() {
+        assertInvalid(new byte[]{1, -1, -1, -1, -1}); // String of length -1
+        assertInvalid(new byte[]{1, 0, 0, 0, 2, 'a'}); // String longer than the stream
+        assertInvalid(new byte[]{6, 127, -1, -1, -1}); // List of Integer.MAX_VALUE items
+        assertInvalid(new byte[]{7, 0, 0, 0, 1, 0}); // Map entry without a value
+    }
+
+    @Test
+    public void testCorruptCacheFileIsIgnored() throws IOException {
+        final File file = folder.newFile("config.yml");
+        Files.write(file.toPath(), "name: Aero\nhomes: 3\n".getBytes(StandardCharsets.UTF_8));
+
+        final YamlConfig config = new YamlConfig(StubPlugin.get(), file, false);
+        config.setBinaryCache(true);
+        config.load();
+        ConfigWriter.await();
+
+        final File cacheFile = ConfigCache.getCacheFile(file);
+        final ByteBuffer cache = ByteBuffer.wrap(Files.readAllBytes(cacheFile.toPath()));
+
+        // Skip the key and header, then the root section type and size
+        int offset = 32;
+        offset += cache.get(offset) == 0 ? 1 : 5 + cache.getInt(offset + 1);
+        offset += 5;
+
+        // Corrupt the length of the first key
+        cache.putInt(offset, -1);
+        Files.write(cacheFile.toPath(), cache.array());
+
+        final YamlConfig reloaded = new YamlConfig(StubPlugin.get(), file, false);
+        reloaded.setBinaryCache(true);
+        reloaded.load();
+        assertEquals("Aero", reloaded.getString("name"));
+        assertEquals(3, reloaded.getInt("homes"));
+        ConfigWriter.await();
+    }
+
+    private static void assertInvalid(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            ConfigCache.readValue(in);
+            fail("Read invalid value: " + Arrays.toString(bytes));
+        } catch (IOException expected) {
+        }
+    }
+
+    private static Object roundTrip(Object value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            ConfigCache.writeValue(out, value);
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            final Object read = ConfigCache.readValue(in);
+            assertEquals("Trailing bytes", -1, in.read());
+            return read;
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class ConfigJournalTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testReadRecords() throws IOException {
+        final File file = folder.newFile("config.yml.journal");
+        final long length = write(file,
+                ConfigJournal.encode("name", "Aero"),
+                ConfigJournal.encode("limits.homes", 3),
+                ConfigJournal.encode("limits.worlds", Arrays.asList("world", "nether")),
+                ConfigJournal.encode("removed", null));
+
+        final Map<String, Object> values = read(file);
+        assertEquals(length, ConfigJournal.read(file, null));
+        assertEquals(Arrays.asList("name", "limits.homes", "limits.worlds", "removed"), Arrays.asList(values.keySet().toArray()));
+        assertEquals("Aero", values.get("name"));
+        assertEquals(3, values.get("limits.homes"));
+        assertEquals(Arrays.asList("world", "nether"), values.get("limits.worlds"));
+        assertNull(values.get("removed"));
+    }
+
+    @Test
+    public void testPartialRecordIsDiscarded() throws IOException {
+        final File file = folder.newFile("config.yml.journal");
+        final byte[] record = ConfigJournal.encode("second", 2);
+        final long valid = write(file, ConfigJournal.encode("first", 1), Arrays.copyOf(record, record.length - 1));
+
+        assertEquals(valid - record.length + 1, ConfigJournal.read(file, null));
+        assertEquals(1, read(file).size());
+    }
+
+    @Test
+    public void testCorruptRecordStopsReading() throws IOException {
+        final File file = folder.newFile("config.yml.journal");
+        final byte[] first = ConfigJournal.encode("first", 1);
+        final byte[] corrupt = ConfigJournal.encode("second", 2);
+        corrupt[corrupt.length - 1] ^= 1;
+        write(file, first, corrupt, ConfigJournal.encode("third", 3));
+
+        final Map<String, Object> values = read(file);
+        assertEquals(1, values.size());
+        assertEquals(1, values.get("first"));
+        assertEquals(8 + first.length, ConfigJournal.read(file, null));
+    }
+
+    @Test
+    public void testTruncatedJournalIsEmpty() throws IOException {
+        final File file = folder.newFile("config.yml.journal");
+        write(file, ConfigJournal.encode("first", 1));
+
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(8); // As compacting does
+        }
+
+        assertEquals(8, ConfigJournal.read(file, null));
+        assertTrue(read(file).isEmpty());
+    }
+
+    @Test
+    public void testMissingOrForeignJournal() throws IOException {
+        assertEquals(0, ConfigJournal.read(new File(folder.getRoot(), "missing.journal"), null));
+
+        final File file = folder.newFile("foreign.journal");
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap("not a journal".getBytes("UTF-8")));
+        }
+        assertEquals(0, ConfigJournal.read(file, null));
+    }
+
+    private static long write(File file, byte[]... records) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ConfigJournal.writeHeader(channel);
+            for (byte[] record : records) {
+                channel.write(ByteBuffer.wrap(record));
+            }
+            return channel.size();
+        }
+    }
+
+    private static Map<String, Object> read(File file) throws IOException {
+        final Map<String, Object> values = new LinkedHashMap<String, Object>();
+        ConfigJournal.read(file, values::put);
+        return values;
+    }
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.util.Arrays;
+import java.util.List;
+import org.bukkit.Material;
+import org.bukkit.configuration.MemoryConfiguration;
+import org.bukkit.inventory.ItemStack;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ConfigSnapshotTest {
+
+    @Test
+    public void testItemStacksAreCopiedOnRead() {
+        final ItemStack item = new ItemStack(Material.DIAMOND, 3);
+        final MemoryConfiguration config = new MemoryConfiguration();
+        config.set("kit.item", item);
+        config.set("kit.items", Arrays.asList("name", item));
+
+        final ConfigSnapshot snapshot = snapshot(config);
+        item.setAmount(5); // The snapshot holds its own copy
+
+        final ItemStack read = (ItemStack) snapshot.get("kit.item");
+        assertEquals(3, read.getAmount());
+        read.setAmount(64);
+        assertEquals(3, ((ItemStack) snapshot.get("kit.item")).getAmount());
+        assertNotSame(snapshot.get("kit.item"), snapshot.get("kit.item"));
+
+        final List<?> items = snapshot.getList("kit.items");
+        ((ItemStack) items.get(1)).setAmount(64);
+        assertEquals(3, ((ItemStack) snapshot.getList("kit.items").get(1)).getAmount());
+    }
+
+    @Test
+    public void testPlainValuesAreShared() {
+        final MemoryConfiguration config = new MemoryConfiguration();
+        config.set("worlds", Arrays.asList("world", "nether"));
+
+        final ConfigSnapshot snapshot = snapshot(config);
+        assertSame(snapshot.getList("worlds"), snapshot.getList("worlds"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    @SuppressWarnings("unchecked")
+    public void testListsAreImmutable() {
+        final MemoryConfiguration config = new MemoryConfiguration();
+        config.set("items", Arrays.asList(new ItemStack(Material.DIAMOND)));
+
+        ((List<Object>) snapshot(config).getList("items")).add("more");
+    }
+
+    private static ConfigSnapshot snapshot(MemoryConfiguration config) {
+        return new ConfigSnapshot(ConfigSnapshot.build(config), ConfigSnapshot.EMPTY, '.', 0);
+    }
+
+}
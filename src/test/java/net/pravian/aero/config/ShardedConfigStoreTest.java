@@ -0,0 +1,188 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.pravian.aero.stub.StubPlugin;
+import net.pravian.aero.stub.StubServer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+public class ShardedConfigStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+    //
+    private final CountDownLatch writer = new CountDownLatch(1);
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        StubServer.get().setPrimaryThread(Thread.currentThread());
+        directory = folder.newFolder("players");
+    }
+
+    @After
+    public void tearDown() {
+        writer.countDown();
+        ConfigWriter.await();
+    }
+
+    @Test
+    public void testEvictedShardIsWrittenBack() {
+        final ShardedConfigStore<String> store = newStore(0, 2);
+        for (String key : new String[]{"a", "b", "c"}) {
+            store.save(key, section -> section.set("name", key));
+        }
+
+        assertEquals(2, store.getLoaded());
+        ConfigWriter.await();
+        assertEquals("a", read("a").getString("name"));
+        assertFalse(new File(directory, "b.yml").exists()); // Still loaded, not written back yet
+
+        store.flush().join();
+        assertEquals("b", read("b").getString("name"));
+        assertEquals("c", read("c").getString("name"));
+    }
+
+    @Test
+    public void testShardsRoundTrip() {
+        final ShardedConfigStore<Integer> store = newStore(ConfigCodecs.INTEGER, 4, 2);
+        for (int i = 0; i < 20; i++) {
+            final int value = i;
+            store.save(i, section -> section.set("value", value));
+        }
+        assertTrue(store.getLoaded() <= 2);
+
+        store.unloadAll();
+        ConfigWriter.await();
+        assertEquals(0, store.getLoaded());
+        assertEquals(4, directory.listFiles().length);
+
+        final ShardedConfigStore<Integer> reloaded = newStore(ConfigCodecs.INTEGER, 4, 2);
+        for (int i = 0; i < 20; i++) {
+            final AtomicInteger value = new AtomicInteger(-1);
+            reloaded.load(i, section -> value.set(section.getInt("value", -1)));
+            assertEquals(i, value.get());
+        }
+        assertFalse(reloaded.contains(20));
+    }
+
+    @Test
+    public void testReloadWhileWriting() {
+        final ShardedConfigStore<String> store = newStore(0, 1);
+        blockWriter();
+
+        store.getOrCreate("a").set("homes", 3);
+        store.markDirty("a");
+        assertFalse(store.contains("b")); // Evicts a, its write-back is queued behind the blocked writer
+
+        assertEquals(3, store.get("a").getInt("homes"));
+    }
+
+    @Test
+    public void testHandedOutSectionKeepsShardLoaded() {
+        final ShardedConfigStore<String> store = newStore(0, 1);
+
+        final ConfigurationSection section = store.getOrCreate("a");
+        assertFalse(store.contains("b"));
+        assertEquals(2, store.getLoaded());
+
+        section.set("homes", 3);
+        store.markDirty("a");
+
+        assertFalse(store.contains("c")); // Evicts a and b
+        assertEquals(1, store.getLoaded());
+        ConfigWriter.await();
+        assertEquals(3, read("a").getInt("homes"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testSectionKeptAcrossWriteBack() {
+        final ShardedConfigStore<String> store = newStore(0, 1);
+        final ConfigurationSection section = store.getOrCreate("a");
+
+        assertTrue(store.start(1));
+        try {
+            StubServer.get().getScheduler().tick();
+        } finally {
+            store.stop();
+        }
+
+        assertFalse(store.contains("b")); // Evicts a, as the write-back released its section
+        section.set("homes", 3);
+        store.markDirty("a");
+    }
+
+    @Test
+    public void testRemoveDeletesFile() {
+        final ShardedConfigStore<String> store = newStore(0, 4);
+        store.save("a", section -> section.set("homes", 3));
+        store.flush().join();
+        assertTrue(new File(directory, "a.yml").exists());
+
+        store.remove("a");
+        ConfigWriter.await();
+        assertFalse(new File(directory, "a.yml").exists());
+        assertFalse(store.contains("a"));
+    }
+
+    @Test
+    public void testRemoveSupersedesPendingWrite() {
+        final ShardedConfigStore<String> store = newStore(0, 4);
+        blockWriter();
+
+        store.save("a", section -> section.set("homes", 3));
+        store.flush(); // Queued behind the blocked writer
+        store.remove("a");
+
+        writer.countDown();
+        ConfigWriter.await();
+        assertFalse(new File(directory, "a.yml").exists());
+    }
+
+    private ShardedConfigStore<String> newStore(int buckets, int maxLoaded) {
+        return newStore(ConfigCodecs.STRING, buckets, maxLoaded);
+    }
+
+    private <K> ShardedConfigStore<K> newStore(ConfigCodec<K> codec, int buckets, int maxLoaded) {
+        return new ShardedConfigStore<K>(StubPlugin.get(), directory, codec, buckets, maxLoaded);
+    }
+
+    private void blockWriter() {
+        ConfigWriter.execute(() -> {
+            try {
+                writer.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private YamlConfiguration read(String key) {
+        return YamlConfiguration.loadConfiguration(new File(directory, key + ".yml"));
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 Pravian Systems.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.reflection;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ReflectionCacheTest {
+
+    @Test
+    public void testMissIsCached() {
+        final AtomicInteger lookups = new AtomicInteger();
+        final Supplier<Field> lookup = () -> {
+            lookups.incrementAndGet();
+            return null;
+        };
+
+        assertNull(ReflectionCache.get(MissOwner.class, ReflectionCache.FIELD, "missing", null, lookup));
+        assertNull(ReflectionCache.get(MissOwner.class, ReflectionCache.FIELD, "missing", null, lookup));
+        assertEquals(1, lookups.get());
+
+        // A different kind of lookup is cached separately
+        assertNull(ReflectionCache.get(MissOwner.class, ReflectionCache.DECLARED_FIELD, "missing", null, lookup));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    public void testHitIsCached() throws NoSuchFieldException {
+        final Field field = HitOwner.class.getDeclaredField("value");
+        final AtomicInteger lookups = new AtomicInteger();
+        final Supplier<Field> lookup = () -> {
+            lookups.incrementAndGet();
+            return field;
+        };
+
+        assertSame(field, ReflectionCache.get(HitOwner.class, ReflectionCache.DECLARED_FIELD, "value", null, lookup));
+        assertSame(field, ReflectionCache.get(HitOwner.class, ReflectionCache.DECLARED_FIELD, "value", null, lookup));
+        assertEquals(1, lookups.get());
+        assertTrue(field.isAccessible());
+    }
+
+    @Test
+    public void testParameterTypesAreCopied() {
+        final AtomicInteger lookups = new AtomicInteger();
+        final Supplier<Object> lookup = () -> {
+            lookups.incrementAndGet();
+            return null;
+        };
+
+        final Class<?>[] parameterTypes = new Class<?>[]{String.class};
+        ReflectionCache.get(ParameterOwner.class, ReflectionCache.METHOD, "run", parameterTypes, lookup);
+
+        // Mutating the array passed in must not affect the cached key
+        parameterTypes[0] = Integer.class;
+        ReflectionCache.get(ParameterOwner.class, ReflectionCache.METHOD, "run", new Class<?>[]{String.class}, lookup);
+        assertEquals(1, lookups.get());
+
+        ReflectionCache.get(ParameterOwner.class, ReflectionCache.METHOD, "run", parameterTypes, lookup);
+        assertEquals(2, lookups.get());
+    }
+
+    private static class MissOwner {
+    }
+
+    private static class HitOwner {
+
+        private int value;
+    }
+
+    private static class ParameterOwner {
+    }
+
+}
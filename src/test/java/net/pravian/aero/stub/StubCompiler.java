@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.stub;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+import net.pravian.aero.command.index.CommandIndexProcessor;
+
+/**
+ * Compiles sources at runtime with the {@link CommandIndexProcessor}, for tests and benchmarks which need classes that do not exist at build time.
+ *
+ * <p>
+ * The sources are compiled against the class path of the running JVM and the output directory, so classes compiled earlier are visible to later compilations, as in an incremental build.</p>
+ */
+public final class StubCompiler {
+
+    private StubCompiler() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Compiles sources into a directory.
+     *
+     * @param output The directory to write the classes and the command index to.
+     * @param sources The sources to compile, keyed by the binary name of their top level class.
+     * @throws IOException If the output directory could not be used.
+     * @throws IllegalStateException If the sources do not compile.
+     */
+    public static void compile(File output, Map<String, String> sources) throws IOException {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("No system Java compiler, a JDK is required");
+        }
+
+        final List<JavaFileObject> units = new ArrayList<JavaFileObject>();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            units.add(new Source(source.getKey(), source.getValue()));
+        }
+
+        output.mkdirs();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        try (StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            files.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singletonList(output));
+
+            final List<String> options = Arrays.asList("-classpath", System.getProperty("java.class.path") + File.pathSeparator + output.getPath(), "-nowarn");
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, files, diagnostics, options, null, units);
+            task.setProcessors(Collections.singletonList(new CommandIndexProcessor()));
+
+            if (!task.call()) {
+                throw new IllegalStateException("Could not compile sources: " + diagnostics.getDiagnostics());
+            }
+        }
+    }
+
+    private static class Source extends SimpleJavaFileObject {
+
+        private final String code;
+
+        private Source(String name, String code) {
+            super(URI.create("string:///" + name.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.code = code;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return code;
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.stub;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.util.logging.Logger;
+import net.pravian.aero.Aero;
+import net.pravian.aero.internal.AeroContainer;
+import net.pravian.aero.plugin.AeroPlugin;
+import org.bukkit.plugin.InvalidDescriptionException;
+import org.bukkit.plugin.PluginDescriptionFile;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.java.JavaPluginLoader;
+
+/**
+ * Represents an enabled plugin which runs on the {@link StubServer}, with Aero initialized.
+ *
+ * <p>
+ * Commands and other components typed to this plugin find it through Aero, as they would on a server. The data folder is a temporary directory.</p>
+ */
+public class StubPlugin extends AeroPlugin<StubPlugin> {
+
+    public static final String NAME = "AeroStub";
+    //
+    private static StubPlugin instance = null;
+
+    private StubPlugin(JavaPluginLoader loader, PluginDescriptionFile description, File dataFolder) {
+        super(loader, description, dataFolder, new File(dataFolder, NAME + ".jar"));
+    }
+
+    /**
+     * Returns the plugin, creating it and registering it to Aero on first use.
+     *
+     * @return The plugin.
+     */
+    @SuppressWarnings("deprecation")
+    public static synchronized StubPlugin get() {
+        if (instance != null) {
+            return instance;
+        }
+
+        final StubServer server = StubServer.get();
+        final PluginDescriptionFile description;
+        final File dataFolder;
+        try {
+            description = new PluginDescriptionFile(new StringReader("name: " + NAME + "\nversion: '1.0'\nmain: " + StubPlugin.class.getName() + "\nauthor: Pravian\n"));
+            dataFolder = Files.createTempDirectory(NAME).toFile();
+        } catch (InvalidDescriptionException | IOException ex) {
+            throw new IllegalStateException("Could not create stub plugin", ex);
+        }
+        dataFolder.deleteOnExit();
+
+        final Container container = new Container(server.getServer().getLogger());
+        server.getServer().getServicesManager().register(AeroContainer.class, container.proxy, container.proxy, ServicePriority.Normal);
+        container.aero.init();
+
+        // Enabling the plugin registers it to Aero
+        instance = new StubPlugin(new JavaPluginLoader(server.getServer()), description, dataFolder);
+        instance.setEnabled(true);
+        return instance;
+    }
+
+    @Override
+    protected void enable() {
+    }
+
+    @Override
+    protected void disable() {
+    }
+
+    // Stands in for the Aero plugin
+    private static class Container implements InvocationHandler {
+
+        private final Logger logger;
+        private final AeroContainer proxy = Stubs.proxy(AeroContainer.class, this);
+        private final Aero aero;
+
+        private Container(Logger logger) {
+            this.logger = logger;
+            this.aero = new Aero(proxy);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getAero":
+                    return aero;
+                case "getLogger":
+                    return logger;
+                case "getName":
+                    return Aero.NAME;
+                case "getBuildVersion":
+                case "getBuildNumber":
+                case "getBuildDate":
+                    return "stub";
+                default:
+                    return Stubs.defaultValue(method);
+            }
+        }
+    }
+
+}
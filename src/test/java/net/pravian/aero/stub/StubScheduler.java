@@ -0,0 +1,219 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.stub;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.FutureTask;
+import java.util.function.BooleanSupplier;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitScheduler;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Represents a stub of the Bukkit scheduler, which runs tasks when it is ticked manually.
+ *
+ * <p>
+ * Tasks may be scheduled from any thread. They run on the thread calling {@link #tick()}, in the order they were scheduled. Asynchronous tasks are treated as synchronous tasks.</p>
+ */
+public class StubScheduler implements InvocationHandler {
+
+    private final BukkitScheduler scheduler = Stubs.proxy(BukkitScheduler.class, this);
+    private final Map<Integer, Task> tasks = new TreeMap<Integer, Task>(); // Guarded by this
+    private int nextId = 1; // Guarded by this
+    private long tick = 0; // Guarded by this
+    private volatile int running = -1;
+
+    public BukkitScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Returns the amount of ticks ran so far.
+     *
+     * @return The current tick.
+     */
+    public synchronized long getTick() {
+        return tick;
+    }
+
+    /**
+     * Returns the amount of tasks which are scheduled.
+     *
+     * @return The amount of tasks.
+     */
+    public synchronized int getPending() {
+        return tasks.size();
+    }
+
+    /**
+     * Runs one tick on the calling thread, running every task which is due.
+     */
+    public void tick() {
+        final List<Task> due = new ArrayList<Task>();
+        final long current;
+        synchronized (this) {
+            current = ++tick;
+            for (Task task : tasks.values()) {
+                if (task.next <= current) {
+                    due.add(task);
+                }
+            }
+        }
+
+        for (Task task : due) {
+            synchronized (this) {
+                if (tasks.get(task.id) != task) {
+                    continue; // Cancelled by a previous task
+                }
+
+                if (task.period > 0) {
+                    task.next = current + task.period;
+                } else {
+                    tasks.remove(task.id);
+                }
+            }
+
+            running = task.id;
+            try {
+                task.runnable.run();
+            } finally {
+                running = -1;
+            }
+        }
+    }
+
+    /**
+     * Runs ticks until a condition is met.
+     *
+     * @param condition The condition.
+     * @param maxTicks The maximum amount of ticks to run.
+     * @return True if the condition was met.
+     */
+    public boolean tickUntil(BooleanSupplier condition, int maxTicks) {
+        for (int i = 0; i < maxTicks && !condition.getAsBoolean(); i++) {
+            tick();
+        }
+        return condition.getAsBoolean();
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "runTask":
+            case "runTaskAsynchronously":
+                return schedule((Plugin) args[0], args[1], 0, -1).task;
+            case "runTaskLater":
+            case "runTaskLaterAsynchronously":
+                return schedule((Plugin) args[0], args[1], (Long) args[2], -1).task;
+            case "runTaskTimer":
+            case "runTaskTimerAsynchronously":
+                return schedule((Plugin) args[0], args[1], (Long) args[2], Math.max(1, (Long) args[3])).task;
+            case "scheduleSyncDelayedTask":
+                return schedule((Plugin) args[0], args[1], args.length > 2 ? (Long) args[2] : 0, -1).id;
+            case "scheduleSyncRepeatingTask":
+                return schedule((Plugin) args[0], args[1], (Long) args[2], Math.max(1, (Long) args[3])).id;
+            case "callSyncMethod":
+                final FutureTask<?> future = new FutureTask<>((Callable<?>) args[1]);
+                schedule((Plugin) args[0], future, 0, -1);
+                return future;
+            case "cancelTask":
+                cancel((Integer) args[0]);
+                return null;
+            case "cancelTasks":
+                cancel((Plugin) args[0]);
+                return null;
+            case "isQueued":
+                return isQueued((Integer) args[0]);
+            case "isCurrentlyRunning":
+                return running == (Integer) args[0];
+            default:
+                return Stubs.defaultValue(method);
+        }
+    }
+
+    private synchronized Task schedule(Plugin plugin, Object runnable, long delay, long period) {
+        if (!(runnable instanceof Runnable)) {
+            throw new UnsupportedOperationException("Only Runnable tasks are supported");
+        }
+
+        final Task task = new Task(nextId++, plugin, (Runnable) runnable, tick + Math.max(1, delay), period);
+        tasks.put(task.id, task);
+        return task;
+    }
+
+    private synchronized boolean isQueued(int id) {
+        return tasks.containsKey(id);
+    }
+
+    private synchronized void cancel(int id) {
+        tasks.remove(id);
+    }
+
+    private synchronized void cancel(Plugin plugin) {
+        final Iterator<Task> it = tasks.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().owner == plugin) {
+                it.remove();
+            }
+        }
+    }
+
+    private class Task implements InvocationHandler {
+
+        private final int id;
+        private final Plugin owner;
+        private final Runnable runnable;
+        private final long period;
+        private final BukkitTask task;
+        private long next; // Guarded by StubScheduler
+
+        private Task(int id, Plugin owner, Runnable runnable, long next, long period) {
+            this.id = id;
+            this.owner = owner;
+            this.runnable = runnable;
+            this.next = next;
+            this.period = period;
+            this.task = Stubs.proxy(BukkitTask.class, this);
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            switch (method.getName()) {
+                case "getTaskId":
+                    return id;
+                case "getOwner":
+                    return owner;
+                case "isSync":
+                    return true;
+                case "isCancelled":
+                    return !isQueued(id);
+                case "cancel":
+                    StubScheduler.this.cancel(id);
+                    return null;
+                default:
+                    return Stubs.defaultValue(method);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.stub;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.bukkit.Bukkit;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.ConsoleCommandSender;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.Permission;
+
+/**
+ * Represents a stub of a command sender, which records the messages sent to it.
+ */
+public class StubSender implements InvocationHandler {
+
+    private final String name;
+    private final UUID uuid;
+    private final boolean op;
+    private final Set<String> permissions;
+    private final List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+    private final CommandSender sender;
+    private volatile boolean recording = true;
+
+    private StubSender(Class<? extends CommandSender> type, String name, boolean op, String... permissions) {
+        this.name = name;
+        this.uuid = UUID.nameUUIDFromBytes(("OfflinePlayer:" + name).getBytes(StandardCharsets.UTF_8));
+        this.op = op;
+        this.permissions = new HashSet<String>(Arrays.asList(permissions));
+        this.sender = Stubs.proxy(type, this);
+    }
+
+    /**
+     * Creates a stub of the console, which has every permission.
+     *
+     * @return The stub.
+     */
+    public static StubSender console() {
+        return new StubSender(ConsoleCommandSender.class, "CONSOLE", true);
+    }
+
+    /**
+     * Creates a stub of a player.
+     *
+     * @param name The name of the player.
+     * @param permissions The permissions of the player.
+     * @return The stub.
+     */
+    public static StubSender player(String name, String... permissions) {
+        return new StubSender(Player.class, name, false, permissions);
+    }
+
+    public CommandSender getSender() {
+        return sender;
+    }
+
+    /**
+     * Returns the sender as a player.
+     *
+     * @return The player.
+     * @throws ClassCastException If this stub is not a player.
+     */
+    public Player getPlayer() {
+        return (Player) sender;
+    }
+
+    /**
+     * Returns the messages sent to the sender so far.
+     *
+     * @return The messages.
+     */
+    public List<String> getMessages() {
+        synchronized (messages) {
+            return new ArrayList<String>(messages);
+        }
+    }
+
+    public void clearMessages() {
+        messages.clear();
+    }
+
+    /**
+     * Sets if messages sent to the sender are recorded. Benchmarks should not record messages.
+     *
+     * @param recording If messages should be recorded.
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getName":
+            case "getDisplayName":
+            case "getPlayerListName":
+                return name;
+            case "getUniqueId":
+                return uuid;
+            case "sendMessage":
+                if (recording) {
+                    if (args[0] instanceof String[]) {
+                        messages.addAll(Arrays.asList((String[]) args[0]));
+                    } else {
+                        messages.add(String.valueOf(args[args.length - 1]));
+                    }
+                }
+                return null;
+            case "hasPermission":
+            case "isPermissionSet":
+                final String permission = args[0] instanceof Permission ? ((Permission) args[0]).getName() : (String) args[0];
+                return op || permissions.contains(permission);
+            case "isOp":
+                return op;
+            case "isOnline":
+                return true;
+            case "getServer":
+                return Bukkit.getServer();
+            default:
+                return Stubs.defaultValue(method);
+        }
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.stub;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import org.bukkit.Bukkit;
+import org.bukkit.Server;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.SimpleCommandMap;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.RegisteredServiceProvider;
+import org.bukkit.plugin.ServicePriority;
+import org.bukkit.plugin.ServicesManager;
+import org.bukkit.plugin.SimplePluginManager;
+
+/**
+ * Represents a stub of the server, for running commands outside of a server in tests and benchmarks.
+ *
+ * <p>
+ * The server uses the command map and plugin manager of the Bukkit API, a {@link StubScheduler} and an in-memory services manager. There is only one server per JVM, as Bukkit only accepts one.</p>
+ */
+public class StubServer implements InvocationHandler {
+
+    private static StubServer instance = null;
+    //
+    private final Server server = Stubs.proxy(Server.class, this);
+    private final Logger logger = Logger.getLogger("StubServer");
+    private final StubScheduler scheduler = new StubScheduler();
+    private final SimpleCommandMap commandMap;
+    private final PluginManager pluginManager;
+    private final ServicesManager servicesManager;
+    private final Map<Class<?>, RegisteredServiceProvider<?>> services = new ConcurrentHashMap<Class<?>, RegisteredServiceProvider<?>>();
+    private final Map<String, Player> players = new ConcurrentHashMap<String, Player>();
+    private final StubSender console = StubSender.console();
+    private volatile Thread primaryThread = Thread.currentThread();
+
+    private StubServer() {
+        this.commandMap = new SimpleCommandMap(server);
+        this.pluginManager = new SimplePluginManager(server, commandMap);
+        this.servicesManager = Stubs.proxy(ServicesManager.class, this::invokeServices);
+    }
+
+    /**
+     * Returns the server, installing it as the Bukkit server on first use.
+     *
+     * @return The server.
+     */
+    public static synchronized StubServer get() {
+        if (instance == null) {
+            instance = new StubServer();
+            Bukkit.setServer(instance.server);
+        }
+        return instance;
+    }
+
+    public Server getServer() {
+        return server;
+    }
+
+    public StubScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public SimpleCommandMap getCommandMap() {
+        return commandMap;
+    }
+
+    public StubSender getConsole() {
+        return console;
+    }
+
+    /**
+     * Sets the thread which the server treats as its main thread. Defaults to the thread which installed the server.
+     *
+     * @param thread The thread.
+     */
+    public void setPrimaryThread(Thread thread) {
+        this.primaryThread = thread;
+    }
+
+    /**
+     * Adds a player to the online players.
+     *
+     * @param player The player.
+     */
+    public void addPlayer(Player player) {
+        players.put(player.getName().toLowerCase(), player);
+    }
+
+    public void removePlayer(Player player) {
+        players.remove(player.getName().toLowerCase(), player);
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getName":
+                return "StubServer";
+            case "getVersion":
+                return "stub";
+            case "getBukkitVersion":
+                return "1.15.2-R0.1-SNAPSHOT";
+            case "getLogger":
+                return logger;
+            case "getScheduler":
+                return scheduler.getScheduler();
+            case "getPluginManager":
+                return pluginManager;
+            case "getServicesManager":
+                return servicesManager;
+            case "getConsoleSender":
+                return console.getSender();
+            case "isPrimaryThread":
+                return Thread.currentThread() == primaryThread;
+            case "getOnlinePlayers":
+                return new ArrayList<Player>(players.values());
+            case "getPlayerExact":
+                return players.get(((String) args[0]).toLowerCase());
+            case "getPlayer":
+                return args[0] instanceof UUID ? getPlayer((UUID) args[0]) : getPlayer((String) args[0]);
+            case "dispatchCommand":
+                return commandMap.dispatch((CommandSender) args[0], (String) args[1]);
+            default:
+                return Stubs.defaultValue(method);
+        }
+    }
+
+    private Player getPlayer(UUID uuid) {
+        for (Player player : players.values()) {
+            if (player.getUniqueId().equals(uuid)) {
+                return player;
+            }
+        }
+        return null;
+    }
+
+    private Player getPlayer(String name) {
+        final String lower = name.toLowerCase();
+        final Player exact = players.get(lower);
+        if (exact != null) {
+            return exact;
+        }
+
+        for (Map.Entry<String, Player> entry : players.entrySet()) {
+            if (entry.getKey().startsWith(lower)) {
+                return entry.getValue();
+            }
+        }
+        return null;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object invokeServices(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "register":
+                services.put((Class<?>) args[0], new RegisteredServiceProvider((Class<?>) args[0], args[1], (ServicePriority) args[3], (Plugin) args[2]));
+                return null;
+            case "getRegistration":
+                return services.get((Class<?>) args[0]);
+            case "load":
+                final RegisteredServiceProvider<?> provider = services.get((Class<?>) args[0]);
+                return provider == null ? null : provider.getProvider();
+            default:
+                return Stubs.defaultValue(method);
+        }
+    }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2015 Jerom van der Sar.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.pravian.aero.stub;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Utility methods for the stubs of the Bukkit API used by tests and benchmarks.
+ *
+ * <p>
+ * Stubs are dynamic proxies, so they do not depend on the exact methods of the interfaces they implement. Methods which a stub does not handle return the default value of their return type.</p>
+ */
+public final class Stubs {
+
+    private Stubs() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Creates a proxy implementing the specified interfaces.
+     *
+     * @param <T> The type of the proxy.
+     * @param type The main interface, which the proxy is returned as.
+     * @param handler The handler of the proxy. Object methods are not passed to the handler, they are implemented by identity.
+     * @param extra Additional interfaces to implement.
+     * @return The proxy.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T proxy(Class<T> type, InvocationHandler handler, Class<?>... extra) {
+        final Class<?>[] interfaces = new Class<?>[extra.length + 1];
+        interfaces[0] = type;
+        System.arraycopy(extra, 0, interfaces, 1, extra.length);
+
+        return (T) Proxy.newProxyInstance(Stubs.class.getClassLoader(), interfaces, (proxy, method, args) -> {
+            if (method.getDeclaringClass() != Object.class) {
+                return handler.invoke(proxy, method, args);
+            }
+
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return type.getSimpleName() + "Stub@" + Integer.toHexString(System.identityHashCode(proxy));
+            }
+        });
+    }
+
+    /**
+     * Returns the value a stub returns for a method it does not handle.
+     *
+     * @param method The method.
+     * @return The default value of the return type of the method.
+     */
+    public static Object defaultValue(Method method) {
+        final Class<?> type = method.getReturnType();
+        if (type == boolean.class) {
+            return false;
+        }
+        if (type == char.class) {
+            return '\0';
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == float.class) {
+            return 0F;
+        }
+        if (type == double.class) {
+            return 0D;
+        }
+        if (type == List.class) {
+            return Collections.emptyList();
+        }
+        if (type == Set.class) {
+            return Collections.emptySet();
+        }
+        if (type == Map.class) {
+            return Collections.emptyMap();
+        }
+        return null;
+    }
+
+}